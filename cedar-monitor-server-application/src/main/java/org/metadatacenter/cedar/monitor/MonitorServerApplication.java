@@ -1,11 +1,62 @@
 package org.metadatacenter.cedar.monitor;
 
+import com.codahale.metrics.MetricRegistry;
 import com.mongodb.client.MongoClient;
 import io.dropwizard.hibernate.HibernateBundle;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import org.knowm.dropwizard.sundial.SundialBundle;
+import org.knowm.dropwizard.sundial.SundialConfiguration;
+import org.knowm.sundial.SundialJobScheduler;
 import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.health.AdminProxyClient;
+import org.metadatacenter.cedar.monitor.health.ClusterHealthChecker;
+import org.metadatacenter.cedar.monitor.health.DependencyProbes;
+import org.metadatacenter.cedar.monitor.health.HealthPoller;
 import org.metadatacenter.cedar.monitor.health.MonitorServerHealthCheck;
+import org.metadatacenter.cedar.monitor.concurrent.CachedSnapshot;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.config.ConsistencyCheckConfig;
+import org.metadatacenter.cedar.monitor.config.CountSnapshotConfig;
+import org.metadatacenter.cedar.monitor.config.DependencyHealthConfig;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.cedar.monitor.config.LogRollupConfig;
+import org.metadatacenter.cedar.monitor.config.QueueSamplerConfig;
+import org.metadatacenter.cedar.monitor.config.KeycloakAdminConfig;
+import org.metadatacenter.cedar.monitor.config.OpenSearchClientConfig;
+import org.metadatacenter.cedar.monitor.consistency.ConsistencyCheckJob;
+import org.metadatacenter.cedar.monitor.consistency.MongoIdReader;
+import org.metadatacenter.cedar.monitor.consistency.OpenSearchIdReader;
+import org.metadatacenter.cedar.monitor.counts.OpenSearchCountsReader;
+import org.metadatacenter.cedar.monitor.counts.ResourceCountsCollector;
+import org.metadatacenter.cedar.monitor.counts.UserAccessibleCounts;
+import org.metadatacenter.cedar.monitor.drift.CountSnapshotRecorder;
+import org.metadatacenter.cedar.monitor.info.BulkResourceInfoWriter;
+import org.metadatacenter.cedar.monitor.info.FilesystemResourceInfoAssembler;
+import org.metadatacenter.cedar.monitor.info.GroupInfoAssembler;
+import org.metadatacenter.cedar.monitor.jobs.CountSnapshotJob;
+import org.metadatacenter.cedar.monitor.jobs.LogRollupJob;
+import org.metadatacenter.cedar.monitor.keycloak.KeycloakAdminClient;
+import org.metadatacenter.cedar.monitor.logging.CypherTopAnalyzer;
+import org.metadatacenter.cedar.monitor.logging.LogRollupPipeline;
+import org.metadatacenter.cedar.monitor.logging.MonitorTableCheck;
+import org.metadatacenter.cedar.monitor.logging.RequestLatencyAnalyzer;
+import org.metadatacenter.cedar.monitor.logging.dao.CountSnapshotDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.CypherLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.QueueDepthSnapshotDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RequestLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RollupCheckpointDAO;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CountSnapshot;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CypherLogRollup;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.QueueDepthSnapshot;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RequestLogRollup;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RollupCheckpoint;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.metrics.MonitorMetricsCollector;
+import org.metadatacenter.cedar.monitor.neo4j.Neo4jNodeReader;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthSampler;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
 import org.metadatacenter.cedar.monitor.resources.*;
 import org.metadatacenter.cedar.util.dw.CedarMicroserviceApplicationWithMongo;
 import org.metadatacenter.config.CedarConfig;
@@ -18,11 +69,18 @@ import org.metadatacenter.server.logging.dbmodel.ApplicationRequestLog;
 import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
 import org.metadatacenter.server.search.util.IndexUtils;
 
+import java.net.http.HttpClient;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
 public class MonitorServerApplication extends CedarMicroserviceApplicationWithMongo<MonitorServerConfiguration> {
 
   private HibernateBundle<MonitorServerConfiguration> hibernate;
   private ApplicationRequestLogDAO requestLogDAO;
   private ApplicationCypherLogDAO cypherLogDAO;
+  private NodeSearchingService nodeSearchingService;
 
   public static void main(String[] args) throws Exception {
     new MonitorServerApplication().run(args);
@@ -39,9 +97,20 @@ public class MonitorServerApplication extends CedarMicroserviceApplicationWithMo
         cedarConfig,
         ApplicationRequestLog.class, new Class[]{
         ApplicationCypherLog.class,
+        CountSnapshot.class,
+        QueueDepthSnapshot.class,
+        RequestLogRollup.class,
+        CypherLogRollup.class,
+        RollupCheckpoint.class,
     }
     );
     bootstrap.addBundle(hibernate);
+    bootstrap.addBundle(new SundialBundle<MonitorServerConfiguration>() {
+      @Override
+      public SundialConfiguration getSundialConfiguration(MonitorServerConfiguration configuration) {
+        return configuration.getSundial();
+      }
+    });
   }
 
   @Override
@@ -51,15 +120,9 @@ public class MonitorServerApplication extends CedarMicroserviceApplicationWithMo
     cypherLogDAO = new ApplicationCypherLogDAO(hibernate.getSessionFactory());
 
     IndexUtils indexUtils = new IndexUtils(cedarConfig);
-    NodeSearchingService nodeSearchingService = indexUtils.getNodeSearchingService();
+    nodeSearchingService = indexUtils.getNodeSearchingService();
 
-    ResourceInfoUser.injectServices(userService, nodeSearchingService);
-    ResourceInfoGroup.injectServices(userService, nodeSearchingService);
-    ResourceInfoFolder.injectServices(userService, nodeSearchingService);
-    ResourceInfoTemplateField.injectServices(userService, nodeSearchingService);
-    ResourceInfoTemplateElement.injectServices(userService, nodeSearchingService);
-    ResourceInfoTemplate.injectServices(userService, nodeSearchingService);
-    ResourceInfoTemplateInstance.injectServices(userService, nodeSearchingService);
+    ResourceInfoUser.injectServices(userService);
 
     MongoConfig artifactServerConfig = cedarConfig.getArtifactServerConfig();
     CedarDataServices.initializeMongoClientFactoryForDocuments(artifactServerConfig.getMongoConnection());
@@ -73,46 +136,210 @@ public class MonitorServerApplication extends CedarMicroserviceApplicationWithMo
   @Override
   public void runApp(MonitorServerConfiguration configuration, Environment environment) {
 
+    new MonitorTableCheck(hibernate.getSessionFactory()).verify(CountSnapshot.class, QueueDepthSnapshot.class,
+        RequestLogRollup.class, CypherLogRollup.class, RollupCheckpoint.class);
+
     final IndexResource index = new IndexResource();
     environment.jersey().register(index);
 
-    final MonitorServerHealthCheck healthCheck = new MonitorServerHealthCheck();
-    environment.healthChecks().register("message", healthCheck);
+    final int backendThreads = configuration.getBackendExecutor().getThreads();
+    final DeadlineFanOut backendFanOut = new DeadlineFanOut(environment.lifecycle()
+        .executorService("monitor-backend-%d").minThreads(backendThreads).maxThreads(backendThreads).build());
+
+    final BackendMetrics backendMetrics = new BackendMetrics(environment.metrics());
+
+    final OpenSearchClientConfig openSearchClientConfig = configuration.getOpenSearchClient();
+    final java.time.Duration openSearchTimeout =
+        java.time.Duration.ofMillis(openSearchClientConfig.getRequestTimeout().toMilliseconds());
+    final OpenSearchClient openSearchClient = new OpenSearchClient(
+        HttpClient.newBuilder().connectTimeout(openSearchTimeout).build(), environment.getObjectMapper(),
+        OpenSearchClient.indexUri(cedarConfig), openSearchTimeout);
+    openSearchClient.verifyIndex();
 
-    final ResourceInfoUser resourceInfoUser = new ResourceInfoUser(cedarConfig);
+    final KeycloakAdminConfig keycloakAdminConfig = configuration.getKeycloakAdmin();
+    final KeycloakAdminClient keycloakAdminClient = new KeycloakAdminClient(cedarConfig,
+        environment.lifecycle().scheduledExecutorService("keycloak-token").build(),
+        keycloakAdminConfig.getMinTokenValidity().toSeconds(),
+        keycloakAdminConfig.getTokenCheckInterval().toMilliseconds(), environment.metrics(), backendMetrics);
+    environment.lifecycle().manage(keycloakAdminClient);
+
+    final Neo4jNodeReader neo4jNodeReader = new Neo4jNodeReader(cedarConfig.getNeo4jConfig(), backendMetrics);
+    environment.lifecycle().manage(neo4jNodeReader);
+
+    final UserAccessibleCounts userAccessibleCounts = new UserAccessibleCounts(openSearchClient, backendMetrics);
+    final ResourceInfoUser resourceInfoUser = new ResourceInfoUser(cedarConfig, keycloakAdminClient,
+        userAccessibleCounts, backendFanOut, configuration.getResourceInfo(), backendMetrics);
     environment.jersey().register(resourceInfoUser);
 
-    final ResourceInfoGroup resourceInfoGroup = new ResourceInfoGroup(cedarConfig);
-    environment.jersey().register(resourceInfoGroup);
+    final FilesystemResourceInfoAssembler infoAssembler = new FilesystemResourceInfoAssembler(cedarConfig,
+        nodeSearchingService, backendFanOut, configuration.getResourceInfo(), backendMetrics);
 
-    final ResourceInfoFolder info = new ResourceInfoFolder(cedarConfig);
+    final ResourceInfoFolder info = new ResourceInfoFolder(cedarConfig, infoAssembler);
     environment.jersey().register(info);
 
-    final ResourceInfoTemplateField resourceInfoTemplateField = new ResourceInfoTemplateField(cedarConfig);
+    final ResourceInfoTemplateField resourceInfoTemplateField = new ResourceInfoTemplateField(cedarConfig,
+        infoAssembler);
     environment.jersey().register(resourceInfoTemplateField);
 
-    final ResourceInfoTemplateElement resourceInfoTemplateElement = new ResourceInfoTemplateElement(cedarConfig);
+    final ResourceInfoTemplateElement resourceInfoTemplateElement = new ResourceInfoTemplateElement(cedarConfig,
+        infoAssembler);
     environment.jersey().register(resourceInfoTemplateElement);
 
-    final ResourceInfoTemplate resourceInfoTemplate = new ResourceInfoTemplate(cedarConfig);
+    final ResourceInfoTemplate resourceInfoTemplate = new ResourceInfoTemplate(cedarConfig, infoAssembler);
     environment.jersey().register(resourceInfoTemplate);
 
-    final ResourceInfoTemplateInstance resourceInfoTemplateInstance = new ResourceInfoTemplateInstance(cedarConfig);
+    final ResourceInfoTemplateInstance resourceInfoTemplateInstance = new ResourceInfoTemplateInstance(cedarConfig,
+        infoAssembler);
     environment.jersey().register(resourceInfoTemplateInstance);
 
-    final RedisQueueCountsResource redisQueueCounts = new RedisQueueCountsResource(cedarConfig);
+    final BulkResourceInfoWriter bulkResourceInfoWriter = new BulkResourceInfoWriter(neo4jNodeReader,
+        openSearchClient, backendFanOut, configuration.getResourceInfo(), environment.getObjectMapper(),
+        backendMetrics);
+    final ResourceInfoBulk resourceInfoBulk = new ResourceInfoBulk(cedarConfig, bulkResourceInfoWriter,
+        environment.getObjectMapper());
+    environment.jersey().register(resourceInfoBulk);
+
+    final RedisTelemetryClient redisTelemetryClient =
+        new RedisTelemetryClient(cedarConfig.getCacheConfig().getPersistent(), backendMetrics);
+    environment.lifecycle().manage(redisTelemetryClient);
+    environment.metrics().register(MetricRegistry.name(RedisTelemetryClient.class), redisTelemetryClient);
+
+    final QueueSamplerConfig queueSamplerConfig = configuration.getQueueSampler();
+    final QueueDepthSampler queueDepthSampler = new QueueDepthSampler(redisTelemetryClient,
+        environment.lifecycle().scheduledExecutorService("queue-depth-sampler").build(),
+        queueSamplerConfig.getInterval().toMilliseconds(), queueSamplerConfig.getCapacity());
+    environment.lifecycle().manage(queueDepthSampler);
+
+    final RedisQueueCountsResource redisQueueCounts = new RedisQueueCountsResource(cedarConfig, redisTelemetryClient,
+        queueDepthSampler, queueSamplerConfig.getAverageWindow());
     environment.jersey().register(redisQueueCounts);
 
-    final ResourceCountsResource resourceCounts = new ResourceCountsResource(cedarConfig, templateFieldService, templateElementService, templateService, templateInstanceService);
+    final long countsCacheTtl = configuration.getResourceCounts().getCacheTtl().toMilliseconds();
+    final ExecutorService snapshotRefreshExecutor = environment.lifecycle()
+        .executorService("snapshot-refresh-%d").minThreads(2).maxThreads(2).build();
+
+    final OpenSearchCountsReader openSearchCountsReader = new OpenSearchCountsReader(openSearchClient,
+        nodeSearchingService, backendMetrics);
+    final CachedSnapshot<Map<String, Object>> openSearchCountsSnapshot = new CachedSnapshot<>("opensearch-counts",
+        openSearchCountsReader::read, countsCacheTtl, snapshotRefreshExecutor);
+
+    final ResourceCountsCollector resourceCountsCollector = new ResourceCountsCollector(cedarConfig, userService,
+        templateFieldService, templateElementService, templateService, templateInstanceService,
+        openSearchCountsReader, keycloakAdminClient, backendFanOut, configuration.getResourceCounts(),
+        backendMetrics);
+
+    final CachedSnapshot<Map<String, Object>> countsSnapshot = new CachedSnapshot<>("resource-counts",
+        resourceCountsCollector::collect, countsCacheTtl, snapshotRefreshExecutor);
+
+    final ResourceCountsResource resourceCounts = new ResourceCountsResource(cedarConfig, countsSnapshot);
     environment.jersey().register(resourceCounts);
 
-    final ResourceCountsOpenSearchResource resourceCountsOpenSearch = new ResourceCountsOpenSearchResource(cedarConfig);
+    final ResourceCountsOpenSearchResource resourceCountsOpenSearch = new ResourceCountsOpenSearchResource(cedarConfig,
+        openSearchCountsSnapshot);
     environment.jersey().register(resourceCountsOpenSearch);
 
-    final HealthChecksResource healthChecksResource = new HealthChecksResource(cedarConfig);
+    final MonitorMetricsCollector metricsCollector = new MonitorMetricsCollector(queueDepthSampler, countsSnapshot,
+        environment.lifecycle().scheduledExecutorService("metrics-collector").build(),
+        configuration.getMetricsExport().getCountsInterval().toMilliseconds());
+    environment.lifecycle().manage(metricsCollector);
+    final MetricsResource metricsResource = new MetricsResource(cedarConfig, metricsCollector);
+    environment.jersey().register(metricsResource);
+
+    final ConsistencyCheckConfig consistencyCheckConfig = configuration.getConsistencyCheck();
+    final MongoIdReader mongoIdReader = new MongoIdReader(
+        CedarDataServices.getMongoClientFactoryForDocuments().getClient(), cedarConfig.getArtifactServerConfig());
+    final OpenSearchIdReader openSearchIdReader = new OpenSearchIdReader(openSearchClient);
+
+    final GroupInfoAssembler groupInfoAssembler = new GroupInfoAssembler(neo4jNodeReader, openSearchIdReader,
+        backendFanOut, configuration.getResourceInfo(), environment.getObjectMapper(), backendMetrics);
+    final ResourceInfoGroup resourceInfoGroup = new ResourceInfoGroup(cedarConfig, groupInfoAssembler,
+        nodeSearchingService, backendFanOut, configuration.getResourceInfo(), backendMetrics);
+    environment.jersey().register(resourceInfoGroup);
+
+    final ConsistencyCheckJob consistencyCheckJob = new ConsistencyCheckJob(neo4jNodeReader, mongoIdReader,
+        openSearchIdReader, redisTelemetryClient,
+        environment.lifecycle().executorService("consistency-check").minThreads(1).maxThreads(1).build(),
+        consistencyCheckConfig, environment.getObjectMapper(), backendMetrics);
+    final ConsistencyCheckResource consistencyCheck = new ConsistencyCheckResource(cedarConfig, consistencyCheckJob);
+    environment.jersey().register(consistencyCheck);
+
+    final CountSnapshotConfig countSnapshotConfig = configuration.getCountSnapshots();
+    final CountSnapshotDAO countSnapshotDAO = new CountSnapshotDAO(hibernate.getSessionFactory());
+    CountSnapshotJob.injectServices(new CountSnapshotRecorder(hibernate.getSessionFactory(), countSnapshotDAO,
+        new QueueDepthSnapshotDAO(hibernate.getSessionFactory()), countsSnapshot, redisTelemetryClient));
+    // The Sundial scheduler only exists once the servlet context is up
+    environment.lifecycle().addServerLifecycleListener(server -> {
+      SundialJobScheduler.addJob(CountSnapshotJob.JOB_NAME, CountSnapshotJob.class);
+      SundialJobScheduler.addSimpleTrigger(CountSnapshotJob.TRIGGER_NAME, CountSnapshotJob.JOB_NAME, -1,
+          countSnapshotConfig.getInterval().toMilliseconds());
+    });
+
+    final ResourceCountsDriftResource resourceCountsDrift = new ResourceCountsDriftResource(cedarConfig,
+        countSnapshotDAO, countSnapshotConfig);
+    environment.jersey().register(resourceCountsDrift);
+
+    final RequestLatencyAnalyzer requestLatencyAnalyzer = new RequestLatencyAnalyzer(hibernate.getSessionFactory(),
+        configuration.getLogAnalytics());
+    final CypherTopAnalyzer cypherTopAnalyzer = new CypherTopAnalyzer(hibernate.getSessionFactory(),
+        configuration.getLogAnalytics());
+    final LogRollupConfig logRollupConfig = configuration.getLogRollups();
+    final RequestLogRollupDAO requestLogRollupDAO = new RequestLogRollupDAO(hibernate.getSessionFactory());
+    final CypherLogRollupDAO cypherLogRollupDAO = new CypherLogRollupDAO(hibernate.getSessionFactory());
+    final LogRollupPipeline logRollupPipeline = new LogRollupPipeline(hibernate.getSessionFactory(),
+        requestLogRollupDAO, cypherLogRollupDAO, new RollupCheckpointDAO(hibernate.getSessionFactory()),
+        logRollupConfig);
+    LogRollupJob.injectServices(logRollupPipeline);
+    environment.lifecycle().addServerLifecycleListener(server -> {
+      SundialJobScheduler.addJob(LogRollupJob.JOB_NAME, LogRollupJob.class);
+      SundialJobScheduler.addSimpleTrigger(LogRollupJob.TRIGGER_NAME, LogRollupJob.JOB_NAME, -1,
+          logRollupConfig.getInterval().toMilliseconds());
+    });
+
+    final LogAnalyticsResource logAnalytics = new LogAnalyticsResource(cedarConfig, requestLatencyAnalyzer,
+        cypherTopAnalyzer, configuration.getLogAnalytics(), logRollupPipeline, requestLogRollupDAO,
+        cypherLogRollupDAO, logRollupConfig);
+    environment.jersey().register(logAnalytics);
+
+    final HealthCheckConfig healthCheckConfig = configuration.getHealthChecks();
+    final ClusterHealthChecker clusterHealthChecker = new ClusterHealthChecker(HttpClient.newBuilder()
+        .connectTimeout(java.time.Duration.ofMillis(healthCheckConfig.getConnectTimeout().toMilliseconds()))
+        .build(), environment.getObjectMapper(), cedarConfig.getServers(), healthCheckConfig);
+    final HealthPoller healthPoller = new HealthPoller(clusterHealthChecker,
+        environment.lifecycle().scheduledExecutorService("health-poller").build(), healthCheckConfig);
+    environment.lifecycle().manage(healthPoller);
+    final AdminProxyClient adminProxyClient = new AdminProxyClient(healthCheckConfig, environment.metrics());
+    environment.lifecycle().manage(adminProxyClient);
+    environment.metrics().register(MetricRegistry.name(AdminProxyClient.class), adminProxyClient);
+    final HealthChecksResource healthChecksResource = new HealthChecksResource(cedarConfig, clusterHealthChecker,
+        healthPoller, adminProxyClient, healthCheckConfig);
     environment.jersey().register(healthChecksResource);
 
-    final CommandResource commandResource = new CommandResource(cedarConfig);
+    final DependencyHealthConfig dependencyHealthConfig = configuration.getDependencyHealth();
+    final Map<String, MonitorServerHealthCheck.Probe> probes = new LinkedHashMap<>();
+    probes.put(BackendMetrics.NEO4J, neo4jNodeReader::ping);
+    probes.put(BackendMetrics.MONGO, DependencyProbes.mongo(CedarDataServices.getMongoClientFactoryForDocuments()
+        .getClient(), cedarConfig.getArtifactServerConfig().getDatabaseName(), backendMetrics));
+    probes.put(BackendMetrics.OPENSEARCH, DependencyProbes.openSearch(openSearchClient, backendMetrics));
+    probes.put(BackendMetrics.REDIS, redisTelemetryClient::ping);
+    probes.put(BackendMetrics.KEYCLOAK, DependencyProbes.keycloak(keycloakAdminClient));
+    probes.put(DependencyProbes.LOG_DATABASE, DependencyProbes.logDatabase(hibernate.getSessionFactory()));
+    final ScheduledExecutorService dependencyHealthScheduler = environment.lifecycle()
+        .scheduledExecutorService("dependency-health-%d").threads(2).build();
+    final ExecutorService dependencyProbeExecutor = environment.lifecycle()
+        .executorService("dependency-probe-%d").minThreads(probes.size()).maxThreads(probes.size()).build();
+    for (Map.Entry<String, MonitorServerHealthCheck.Probe> probe : probes.entrySet()) {
+      final MonitorServerHealthCheck dependencyHealthCheck = new MonitorServerHealthCheck(probe.getKey(),
+          probe.getValue(), dependencyHealthScheduler, dependencyProbeExecutor,
+          dependencyHealthConfig.getInterval().toMilliseconds(), dependencyHealthConfig.getTimeout().toMilliseconds(),
+          dependencyHealthConfig.getMaxAge().toMilliseconds());
+      environment.lifecycle().manage(dependencyHealthCheck);
+      environment.healthChecks().register(probe.getKey(), dependencyHealthCheck);
+    }
+    // Replaced by the cached logDatabase check, so that /healthcheck does not query the database on every call
+    environment.healthChecks().unregister(HibernateBundle.DEFAULT_NAME);
+
+    final CommandResource commandResource = new CommandResource(cedarConfig, neo4jNodeReader,
+        environment.getObjectMapper(), configuration.getResourceInfo());
     environment.jersey().register(commandResource);
 
   }
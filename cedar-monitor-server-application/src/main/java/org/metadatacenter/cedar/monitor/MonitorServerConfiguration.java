@@ -1,6 +1,220 @@
 package org.metadatacenter.cedar.monitor;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.knowm.dropwizard.sundial.SundialConfiguration;
+import org.metadatacenter.cedar.monitor.config.BackendExecutorConfig;
+import org.metadatacenter.cedar.monitor.config.ConsistencyCheckConfig;
+import org.metadatacenter.cedar.monitor.config.CountSnapshotConfig;
+import org.metadatacenter.cedar.monitor.config.DependencyHealthConfig;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.cedar.monitor.config.KeycloakAdminConfig;
+import org.metadatacenter.cedar.monitor.config.LogAnalyticsConfig;
+import org.metadatacenter.cedar.monitor.config.LogRollupConfig;
+import org.metadatacenter.cedar.monitor.config.MetricsExportConfig;
+import org.metadatacenter.cedar.monitor.config.OpenSearchClientConfig;
+import org.metadatacenter.cedar.monitor.config.QueueSamplerConfig;
+import org.metadatacenter.cedar.monitor.config.ResourceCountsConfig;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
 import org.metadatacenter.cedar.util.dw.CedarMicroserviceConfiguration;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
 public class MonitorServerConfiguration extends CedarMicroserviceConfiguration {
+
+  @Valid
+  @NotNull
+  private QueueSamplerConfig queueSampler = new QueueSamplerConfig();
+
+  @Valid
+  @NotNull
+  private BackendExecutorConfig backendExecutor = new BackendExecutorConfig();
+
+  @Valid
+  @NotNull
+  private ResourceCountsConfig resourceCounts = new ResourceCountsConfig();
+
+  @Valid
+  @NotNull
+  private ResourceInfoConfig resourceInfo = new ResourceInfoConfig();
+
+  @Valid
+  @NotNull
+  private KeycloakAdminConfig keycloakAdmin = new KeycloakAdminConfig();
+
+  @Valid
+  @NotNull
+  private ConsistencyCheckConfig consistencyCheck = new ConsistencyCheckConfig();
+
+  @Valid
+  @NotNull
+  private CountSnapshotConfig countSnapshots = new CountSnapshotConfig();
+
+  @Valid
+  @NotNull
+  private SundialConfiguration sundial = new SundialConfiguration();
+
+  @Valid
+  @NotNull
+  private LogAnalyticsConfig logAnalytics = new LogAnalyticsConfig();
+
+  @Valid
+  @NotNull
+  private LogRollupConfig logRollups = new LogRollupConfig();
+
+  @Valid
+  @NotNull
+  private HealthCheckConfig healthChecks = new HealthCheckConfig();
+
+  @Valid
+  @NotNull
+  private MetricsExportConfig metricsExport = new MetricsExportConfig();
+
+  @Valid
+  @NotNull
+  private DependencyHealthConfig dependencyHealth = new DependencyHealthConfig();
+
+  @Valid
+  @NotNull
+  private OpenSearchClientConfig openSearchClient = new OpenSearchClientConfig();
+
+  @JsonProperty
+  public QueueSamplerConfig getQueueSampler() {
+    return queueSampler;
+  }
+
+  @JsonProperty
+  public void setQueueSampler(QueueSamplerConfig queueSampler) {
+    this.queueSampler = queueSampler;
+  }
+
+  @JsonProperty
+  public BackendExecutorConfig getBackendExecutor() {
+    return backendExecutor;
+  }
+
+  @JsonProperty
+  public void setBackendExecutor(BackendExecutorConfig backendExecutor) {
+    this.backendExecutor = backendExecutor;
+  }
+
+  @JsonProperty
+  public ResourceCountsConfig getResourceCounts() {
+    return resourceCounts;
+  }
+
+  @JsonProperty
+  public void setResourceCounts(ResourceCountsConfig resourceCounts) {
+    this.resourceCounts = resourceCounts;
+  }
+
+  @JsonProperty
+  public ResourceInfoConfig getResourceInfo() {
+    return resourceInfo;
+  }
+
+  @JsonProperty
+  public void setResourceInfo(ResourceInfoConfig resourceInfo) {
+    this.resourceInfo = resourceInfo;
+  }
+
+  @JsonProperty
+  public KeycloakAdminConfig getKeycloakAdmin() {
+    return keycloakAdmin;
+  }
+
+  @JsonProperty
+  public void setKeycloakAdmin(KeycloakAdminConfig keycloakAdmin) {
+    this.keycloakAdmin = keycloakAdmin;
+  }
+
+  @JsonProperty
+  public ConsistencyCheckConfig getConsistencyCheck() {
+    return consistencyCheck;
+  }
+
+  @JsonProperty
+  public void setConsistencyCheck(ConsistencyCheckConfig consistencyCheck) {
+    this.consistencyCheck = consistencyCheck;
+  }
+
+  @JsonProperty
+  public CountSnapshotConfig getCountSnapshots() {
+    return countSnapshots;
+  }
+
+  @JsonProperty
+  public void setCountSnapshots(CountSnapshotConfig countSnapshots) {
+    this.countSnapshots = countSnapshots;
+  }
+
+  @JsonProperty
+  public SundialConfiguration getSundial() {
+    return sundial;
+  }
+
+  @JsonProperty
+  public void setSundial(SundialConfiguration sundial) {
+    this.sundial = sundial;
+  }
+
+  @JsonProperty
+  public LogAnalyticsConfig getLogAnalytics() {
+    return logAnalytics;
+  }
+
+  @JsonProperty
+  public void setLogAnalytics(LogAnalyticsConfig logAnalytics) {
+    this.logAnalytics = logAnalytics;
+  }
+
+  @JsonProperty
+  public LogRollupConfig getLogRollups() {
+    return logRollups;
+  }
+
+  @JsonProperty
+  public void setLogRollups(LogRollupConfig logRollups) {
+    this.logRollups = logRollups;
+  }
+
+  @JsonProperty
+  public HealthCheckConfig getHealthChecks() {
+    return healthChecks;
+  }
+
+  @JsonProperty
+  public void setHealthChecks(HealthCheckConfig healthChecks) {
+    this.healthChecks = healthChecks;
+  }
+
+  @JsonProperty
+  public MetricsExportConfig getMetricsExport() {
+    return metricsExport;
+  }
+
+  @JsonProperty
+  public void setMetricsExport(MetricsExportConfig metricsExport) {
+    this.metricsExport = metricsExport;
+  }
+
+  @JsonProperty
+  public DependencyHealthConfig getDependencyHealth() {
+    return dependencyHealth;
+  }
+
+  @JsonProperty
+  public void setDependencyHealth(DependencyHealthConfig dependencyHealth) {
+    this.dependencyHealth = dependencyHealth;
+  }
+
+  @JsonProperty
+  public OpenSearchClientConfig getOpenSearchClient() {
+    return openSearchClient;
+  }
+
+  @JsonProperty
+  public void setOpenSearchClient(OpenSearchClientConfig openSearchClient) {
+    this.openSearchClient = openSearchClient;
+  }
 }
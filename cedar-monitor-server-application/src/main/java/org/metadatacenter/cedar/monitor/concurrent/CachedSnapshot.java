@@ -0,0 +1,145 @@
+package org.metadatacenter.cedar.monitor.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the last computed value of an expensive loader. At most one computation runs at a time: concurrent callers
+ * that find no value wait for the same computation, and callers that find an expired value get it immediately while
+ * a single refresh runs in the background.
+ */
+public class CachedSnapshot<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(CachedSnapshot.class);
+
+  private final String name;
+  private final Supplier<T> loader;
+  private final long ttlMillis;
+  private final Executor executor;
+  private final AtomicReference<CompletableFuture<Snapshot<T>>> inFlight = new AtomicReference<>();
+  private volatile Snapshot<T> current;
+
+  public CachedSnapshot(String name, Supplier<T> loader, long ttlMillis, Executor executor) {
+    this.name = name;
+    this.loader = loader;
+    this.ttlMillis = ttlMillis;
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the current snapshot, computing it first if there is none yet. An expired snapshot is still returned,
+   * and triggers a background refresh.
+   */
+  public Snapshot<T> get() {
+    Snapshot<T> snapshot = current;
+    if (snapshot != null) {
+      if (snapshot.getAgeMillis() >= ttlMillis) {
+        refresh();
+      }
+      return snapshot;
+    }
+    try {
+      return refresh().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the current snapshot, or null if none has been computed yet. Never computes nor refreshes.
+   */
+  public Snapshot<T> peek() {
+    return current;
+  }
+
+  /**
+   * Starts a computation unless one is already running, and returns the running one.
+   */
+  public CompletableFuture<Snapshot<T>> refresh() {
+    while (true) {
+      CompletableFuture<Snapshot<T>> running = inFlight.get();
+      if (running != null) {
+        return running;
+      }
+      CompletableFuture<Snapshot<T>> created = new CompletableFuture<>();
+      if (inFlight.compareAndSet(null, created)) {
+        try {
+          executor.execute(() -> compute(created));
+        } catch (RejectedExecutionException e) {
+          inFlight.compareAndSet(created, null);
+          created.completeExceptionally(e);
+        }
+        return created;
+      }
+    }
+  }
+
+  private void compute(CompletableFuture<Snapshot<T>> target) {
+    Snapshot<T> snapshot = null;
+    Throwable failure = null;
+    try {
+      snapshot = new Snapshot<>(loader.get(), System.currentTimeMillis());
+      current = snapshot;
+    } catch (Throwable t) {
+      log.error("Error while computing snapshot " + name, t);
+      failure = t;
+    }
+    // Clear the in-flight marker before completing, so that callers woken up by the completion can start a new one
+    inFlight.compareAndSet(target, null);
+    if (failure != null) {
+      target.completeExceptionally(failure);
+    } else {
+      target.complete(snapshot);
+    }
+  }
+
+  /**
+   * Describes the age of the given snapshot relative to this cache's TTL, for inclusion in a response.
+   */
+  public Map<String, Object> describe(Snapshot<T> snapshot) {
+    Map<String, Object> info = new HashMap<>();
+    long ageMillis = snapshot.getAgeMillis();
+    info.put("computedAt", Instant.ofEpochMilli(snapshot.getComputedAt()).toString());
+    info.put("ageMs", ageMillis);
+    info.put("ttlMs", ttlMillis);
+    info.put("stale", ageMillis >= ttlMillis);
+    info.put("refreshing", inFlight.get() != null);
+    return info;
+  }
+
+  public static class Snapshot<T> {
+
+    private final T value;
+    private final long computedAt;
+
+    Snapshot(T value, long computedAt) {
+      this.value = value;
+      this.computedAt = computedAt;
+    }
+
+    public T getValue() {
+      return value;
+    }
+
+    public long getComputedAt() {
+      return computedAt;
+    }
+
+    public long getAgeMillis() {
+      return System.currentTimeMillis() - computedAt;
+    }
+  }
+}
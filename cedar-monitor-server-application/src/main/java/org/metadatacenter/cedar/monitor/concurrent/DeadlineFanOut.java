@@ -0,0 +1,108 @@
+package org.metadatacenter.cedar.monitor.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs independent sections concurrently on a bounded executor. Every section has its own deadline, measured from
+ * the moment the fan-out starts. A section that fails or misses its deadline does not affect the others; whatever it
+ * had written into its value map up to that point is still returned.
+ */
+public class DeadlineFanOut {
+
+  private static final Logger log = LoggerFactory.getLogger(DeadlineFanOut.class);
+
+  @FunctionalInterface
+  public interface Section {
+    void fill(Map<String, Object> values) throws Exception;
+  }
+
+  private final ExecutorService executor;
+
+  public DeadlineFanOut(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  public Builder sections() {
+    return new Builder();
+  }
+
+  public class Builder {
+
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+    private final Map<String, Long> timeouts = new HashMap<>();
+
+    private Builder() {
+    }
+
+    public Builder add(String name, long timeoutMillis, Section section) {
+      sections.put(name, section);
+      timeouts.put(name, timeoutMillis);
+      return this;
+    }
+
+    /**
+     * Runs all sections and waits until each one has completed or reached its deadline.
+     *
+     * @return the results in the order the sections were added
+     */
+    public Map<String, SectionResult> run() {
+      long start = System.nanoTime();
+      Map<String, Map<String, Object>> values = new HashMap<>();
+      Map<String, Future<Long>> futures = new LinkedHashMap<>();
+      for (Map.Entry<String, Section> entry : sections.entrySet()) {
+        Map<String, Object> sectionValues = Collections.synchronizedMap(new LinkedHashMap<>());
+        values.put(entry.getKey(), sectionValues);
+        Section section = entry.getValue();
+        try {
+          futures.put(entry.getKey(), executor.submit(() -> {
+            section.fill(sectionValues);
+            return System.nanoTime();
+          }));
+        } catch (RejectedExecutionException e) {
+          futures.put(entry.getKey(), CompletableFuture.failedFuture(e));
+        }
+      }
+
+      Map<String, SectionResult> results = new LinkedHashMap<>();
+      for (Map.Entry<String, Future<Long>> entry : futures.entrySet()) {
+        String name = entry.getKey();
+        Future<Long> future = entry.getValue();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeouts.get(name));
+        Map<String, Object> sectionValues = values.get(name);
+        try {
+          long end = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+          results.put(name, new SectionResult(SectionResult.STATUS_OK, elapsedMillis(start, end), null,
+              sectionValues));
+        } catch (TimeoutException e) {
+          future.cancel(true);
+          results.put(name, new SectionResult(SectionResult.STATUS_TIMEOUT, timeouts.get(name), null,
+              copy(sectionValues)));
+        } catch (ExecutionException e) {
+          log.error("Error while running section " + name, e.getCause());
+          results.put(name, new SectionResult(SectionResult.STATUS_ERROR, elapsedMillis(start, System.nanoTime()),
+              String.valueOf(e.getCause().getMessage()), copy(sectionValues)));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          future.cancel(true);
+          results.put(name, new SectionResult(SectionResult.STATUS_ERROR, elapsedMillis(start, System.nanoTime()),
+              "Interrupted", copy(sectionValues)));
+        }
+      }
+      return results;
+    }
+  }
+
+  private static Map<String, Object> copy(Map<String, Object> synchronizedValues) {
+    synchronized (synchronizedValues) {
+      return new LinkedHashMap<>(synchronizedValues);
+    }
+  }
+
+  private static long elapsedMillis(long startNanos, long endNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+  }
+}
@@ -0,0 +1,52 @@
+package org.metadatacenter.cedar.monitor.concurrent;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Outcome of one section run by {@link DeadlineFanOut}. The values are the ones the section produced before it
+ * finished, failed or ran out of time; they are serialized separately from the status block.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SectionResult {
+
+  public static final String STATUS_OK = "ok";
+  public static final String STATUS_TIMEOUT = "timeout";
+  public static final String STATUS_ERROR = "error";
+
+  private final String status;
+  private final long elapsedMs;
+  private final String error;
+  private final Map<String, Object> values;
+
+  SectionResult(String status, long elapsedMs, String error, Map<String, Object> values) {
+    this.status = status;
+    this.elapsedMs = elapsedMs;
+    this.error = error;
+    this.values = values;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public long getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  @JsonIgnore
+  public Map<String, Object> getValues() {
+    return values;
+  }
+
+  @JsonIgnore
+  public boolean isOk() {
+    return STATUS_OK.equals(status);
+  }
+}
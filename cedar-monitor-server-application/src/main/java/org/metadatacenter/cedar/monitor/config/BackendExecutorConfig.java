@@ -0,0 +1,21 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class BackendExecutorConfig {
+
+  @Min(1)
+  private int threads = 16;
+
+  @JsonProperty
+  public int getThreads() {
+    return threads;
+  }
+
+  @JsonProperty
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+}
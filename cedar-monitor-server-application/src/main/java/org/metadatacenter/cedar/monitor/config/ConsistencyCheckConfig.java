@@ -0,0 +1,47 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class ConsistencyCheckConfig {
+
+  @Min(1)
+  private int pageSize = 1000;
+
+  @Min(0)
+  private int maxSamples = 100;
+
+  @Min(1)
+  private int checkpointInterval = 10000;
+
+  @JsonProperty
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  @JsonProperty
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  @JsonProperty
+  public int getMaxSamples() {
+    return maxSamples;
+  }
+
+  @JsonProperty
+  public void setMaxSamples(int maxSamples) {
+    this.maxSamples = maxSamples;
+  }
+
+  @JsonProperty
+  public int getCheckpointInterval() {
+    return checkpointInterval;
+  }
+
+  @JsonProperty
+  public void setCheckpointInterval(int checkpointInterval) {
+    this.checkpointInterval = checkpointInterval;
+  }
+}
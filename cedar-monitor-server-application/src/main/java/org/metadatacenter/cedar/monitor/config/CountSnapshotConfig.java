@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class CountSnapshotConfig {
+
+  @NotNull
+  private Duration interval = Duration.minutes(15);
+
+  @NotNull
+  private Duration driftWindow = Duration.days(7);
+
+  @Min(1)
+  private int maxPoints = 2000;
+
+  @JsonProperty
+  public Duration getInterval() {
+    return interval;
+  }
+
+  @JsonProperty
+  public void setInterval(Duration interval) {
+    this.interval = interval;
+  }
+
+  @JsonProperty
+  public Duration getDriftWindow() {
+    return driftWindow;
+  }
+
+  @JsonProperty
+  public void setDriftWindow(Duration driftWindow) {
+    this.driftWindow = driftWindow;
+  }
+
+  @JsonProperty
+  public int getMaxPoints() {
+    return maxPoints;
+  }
+
+  @JsonProperty
+  public void setMaxPoints(int maxPoints) {
+    this.maxPoints = maxPoints;
+  }
+}
@@ -0,0 +1,50 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+public class DependencyHealthConfig {
+
+  @NotNull
+  private Duration interval = Duration.seconds(15);
+
+  // Latency budget of one probe; a probe that takes longer reports its dependency as unhealthy
+  @NotNull
+  private Duration timeout = Duration.seconds(2);
+
+  // A cached result older than this is reported as unhealthy, e.g. when the scheduler stopped
+  @NotNull
+  private Duration maxAge = Duration.minutes(1);
+
+  @JsonProperty
+  public Duration getInterval() {
+    return interval;
+  }
+
+  @JsonProperty
+  public void setInterval(Duration interval) {
+    this.interval = interval;
+  }
+
+  @JsonProperty
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  @JsonProperty
+  public void setTimeout(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  @JsonProperty
+  public Duration getMaxAge() {
+    return maxAge;
+  }
+
+  @JsonProperty
+  public void setMaxAge(Duration maxAge) {
+    this.maxAge = maxAge;
+  }
+}
@@ -0,0 +1,44 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deadlines for the sections of a fan-out, keyed by section name, with a default for sections that are not listed.
+ */
+public class FanOutTimeoutsConfig {
+
+  @NotNull
+  private Duration defaultTimeout = Duration.seconds(10);
+
+  @NotNull
+  private Map<String, Duration> timeouts = new HashMap<>();
+
+  @JsonProperty
+  public Duration getDefaultTimeout() {
+    return defaultTimeout;
+  }
+
+  @JsonProperty
+  public void setDefaultTimeout(Duration defaultTimeout) {
+    this.defaultTimeout = defaultTimeout;
+  }
+
+  @JsonProperty
+  public Map<String, Duration> getTimeouts() {
+    return timeouts;
+  }
+
+  @JsonProperty
+  public void setTimeouts(Map<String, Duration> timeouts) {
+    this.timeouts = timeouts;
+  }
+
+  public long getTimeoutMillis(String section) {
+    return timeouts.getOrDefault(section, defaultTimeout).toMilliseconds();
+  }
+}
@@ -0,0 +1,146 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HealthCheckConfig {
+
+  @NotNull
+  private Duration connectTimeout = Duration.seconds(2);
+
+  @NotNull
+  private Duration readTimeout = Duration.seconds(5);
+
+  @Min(1)
+  private int maxBodyBytes = 65536;
+
+  @NotNull
+  private Duration pollInterval = Duration.seconds(30);
+
+  // Per-server poll intervals, by server name, overriding pollInterval
+  @NotNull
+  private Map<String, Duration> serverPollIntervals = new HashMap<>();
+
+  @Min(1)
+  private int historySize = 500;
+
+  private boolean streamingProxy = true;
+
+  @Min(1)
+  private int proxyMaxConnections = 50;
+
+  @Min(1)
+  private int proxyMaxConnectionsPerServer = 4;
+
+  @NotNull
+  private Duration proxyConnectionTtl = Duration.minutes(5);
+
+  @JsonProperty
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  @JsonProperty
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  @JsonProperty
+  public Duration getReadTimeout() {
+    return readTimeout;
+  }
+
+  @JsonProperty
+  public void setReadTimeout(Duration readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  @JsonProperty
+  public int getMaxBodyBytes() {
+    return maxBodyBytes;
+  }
+
+  @JsonProperty
+  public void setMaxBodyBytes(int maxBodyBytes) {
+    this.maxBodyBytes = maxBodyBytes;
+  }
+
+  @JsonProperty
+  public Duration getPollInterval() {
+    return pollInterval;
+  }
+
+  @JsonProperty
+  public void setPollInterval(Duration pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+
+  @JsonProperty
+  public Map<String, Duration> getServerPollIntervals() {
+    return serverPollIntervals;
+  }
+
+  @JsonProperty
+  public void setServerPollIntervals(Map<String, Duration> serverPollIntervals) {
+    this.serverPollIntervals = serverPollIntervals;
+  }
+
+  @JsonProperty
+  public int getHistorySize() {
+    return historySize;
+  }
+
+  @JsonProperty
+  public void setHistorySize(int historySize) {
+    this.historySize = historySize;
+  }
+
+  @JsonProperty
+  public boolean isStreamingProxy() {
+    return streamingProxy;
+  }
+
+  @JsonProperty
+  public void setStreamingProxy(boolean streamingProxy) {
+    this.streamingProxy = streamingProxy;
+  }
+
+  @JsonProperty
+  public int getProxyMaxConnections() {
+    return proxyMaxConnections;
+  }
+
+  @JsonProperty
+  public void setProxyMaxConnections(int proxyMaxConnections) {
+    this.proxyMaxConnections = proxyMaxConnections;
+  }
+
+  @JsonProperty
+  public int getProxyMaxConnectionsPerServer() {
+    return proxyMaxConnectionsPerServer;
+  }
+
+  @JsonProperty
+  public void setProxyMaxConnectionsPerServer(int proxyMaxConnectionsPerServer) {
+    this.proxyMaxConnectionsPerServer = proxyMaxConnectionsPerServer;
+  }
+
+  @JsonProperty
+  public Duration getProxyConnectionTtl() {
+    return proxyConnectionTtl;
+  }
+
+  @JsonProperty
+  public void setProxyConnectionTtl(Duration proxyConnectionTtl) {
+    this.proxyConnectionTtl = proxyConnectionTtl;
+  }
+
+  public Duration getPollInterval(String serverName) {
+    return serverPollIntervals.getOrDefault(serverName, pollInterval);
+  }
+}
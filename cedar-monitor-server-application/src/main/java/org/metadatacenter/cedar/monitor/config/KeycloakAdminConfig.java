@@ -0,0 +1,35 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+public class KeycloakAdminConfig {
+
+  @NotNull
+  private Duration minTokenValidity = Duration.seconds(30);
+
+  @NotNull
+  private Duration tokenCheckInterval = Duration.seconds(10);
+
+  @JsonProperty
+  public Duration getMinTokenValidity() {
+    return minTokenValidity;
+  }
+
+  @JsonProperty
+  public void setMinTokenValidity(Duration minTokenValidity) {
+    this.minTokenValidity = minTokenValidity;
+  }
+
+  @JsonProperty
+  public Duration getTokenCheckInterval() {
+    return tokenCheckInterval;
+  }
+
+  @JsonProperty
+  public void setTokenCheckInterval(Duration tokenCheckInterval) {
+    this.tokenCheckInterval = tokenCheckInterval;
+  }
+}
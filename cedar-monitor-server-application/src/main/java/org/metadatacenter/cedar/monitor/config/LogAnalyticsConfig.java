@@ -0,0 +1,88 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class LogAnalyticsConfig {
+
+  @NotNull
+  private Duration defaultWindow = Duration.hours(1);
+
+  @NotNull
+  private Duration maxWindow = Duration.days(7);
+
+  @NotNull
+  private Duration queryTimeout = Duration.minutes(2);
+
+  // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the whole result
+  private int fetchSize = Integer.MIN_VALUE;
+
+  @Min(1)
+  private int maxEndpoints = 1000;
+
+  @Min(1)
+  private int maxFingerprints = 1000;
+
+  @JsonProperty
+  public Duration getDefaultWindow() {
+    return defaultWindow;
+  }
+
+  @JsonProperty
+  public void setDefaultWindow(Duration defaultWindow) {
+    this.defaultWindow = defaultWindow;
+  }
+
+  @JsonProperty
+  public Duration getMaxWindow() {
+    return maxWindow;
+  }
+
+  @JsonProperty
+  public void setMaxWindow(Duration maxWindow) {
+    this.maxWindow = maxWindow;
+  }
+
+  @JsonProperty
+  public Duration getQueryTimeout() {
+    return queryTimeout;
+  }
+
+  @JsonProperty
+  public void setQueryTimeout(Duration queryTimeout) {
+    this.queryTimeout = queryTimeout;
+  }
+
+  @JsonProperty
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  @JsonProperty
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
+  @JsonProperty
+  public int getMaxEndpoints() {
+    return maxEndpoints;
+  }
+
+  @JsonProperty
+  public void setMaxEndpoints(int maxEndpoints) {
+    this.maxEndpoints = maxEndpoints;
+  }
+
+  @JsonProperty
+  public int getMaxFingerprints() {
+    return maxFingerprints;
+  }
+
+  @JsonProperty
+  public void setMaxFingerprints(int maxFingerprints) {
+    this.maxFingerprints = maxFingerprints;
+  }
+}
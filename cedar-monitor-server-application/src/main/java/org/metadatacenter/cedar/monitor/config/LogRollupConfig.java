@@ -0,0 +1,75 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class LogRollupConfig {
+
+  @NotNull
+  private Duration interval = Duration.minutes(1);
+
+  @Min(1)
+  private int batchSize = 5000;
+
+  @Min(1)
+  private int maxBatchesPerRun = 50;
+
+  @NotNull
+  private Duration maxQueryWindow = Duration.days(90);
+
+  @Min(1)
+  private int maxRows = 10000;
+
+  @JsonProperty
+  public Duration getInterval() {
+    return interval;
+  }
+
+  @JsonProperty
+  public void setInterval(Duration interval) {
+    this.interval = interval;
+  }
+
+  @JsonProperty
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  @JsonProperty
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  @JsonProperty
+  public int getMaxBatchesPerRun() {
+    return maxBatchesPerRun;
+  }
+
+  @JsonProperty
+  public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+    this.maxBatchesPerRun = maxBatchesPerRun;
+  }
+
+  @JsonProperty
+  public Duration getMaxQueryWindow() {
+    return maxQueryWindow;
+  }
+
+  @JsonProperty
+  public void setMaxQueryWindow(Duration maxQueryWindow) {
+    this.maxQueryWindow = maxQueryWindow;
+  }
+
+  @JsonProperty
+  public int getMaxRows() {
+    return maxRows;
+  }
+
+  @JsonProperty
+  public void setMaxRows(int maxRows) {
+    this.maxRows = maxRows;
+  }
+}
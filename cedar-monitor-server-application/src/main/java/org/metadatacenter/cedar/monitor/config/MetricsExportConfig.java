@@ -0,0 +1,22 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+public class MetricsExportConfig {
+
+  @NotNull
+  private Duration countsInterval = Duration.minutes(5);
+
+  @JsonProperty
+  public Duration getCountsInterval() {
+    return countsInterval;
+  }
+
+  @JsonProperty
+  public void setCountsInterval(Duration countsInterval) {
+    this.countsInterval = countsInterval;
+  }
+}
@@ -0,0 +1,25 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Settings of the monitor's own OpenSearch REST client. The host, port and index come from the CEDAR config.
+ */
+public class OpenSearchClientConfig {
+
+  @NotNull
+  private Duration requestTimeout = Duration.seconds(30);
+
+  @JsonProperty
+  public Duration getRequestTimeout() {
+    return requestTimeout;
+  }
+
+  @JsonProperty
+  public void setRequestTimeout(Duration requestTimeout) {
+    this.requestTimeout = requestTimeout;
+  }
+}
@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class QueueSamplerConfig {
+
+  @NotNull
+  private Duration interval = Duration.seconds(5);
+
+  @Min(2)
+  private int capacity = 720;
+
+  @Min(1)
+  private int averageWindow = 12;
+
+  @JsonProperty
+  public Duration getInterval() {
+    return interval;
+  }
+
+  @JsonProperty
+  public void setInterval(Duration interval) {
+    this.interval = interval;
+  }
+
+  @JsonProperty
+  public int getCapacity() {
+    return capacity;
+  }
+
+  @JsonProperty
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+  }
+
+  @JsonProperty
+  public int getAverageWindow() {
+    return averageWindow;
+  }
+
+  @JsonProperty
+  public void setAverageWindow(int averageWindow) {
+    this.averageWindow = averageWindow;
+  }
+}
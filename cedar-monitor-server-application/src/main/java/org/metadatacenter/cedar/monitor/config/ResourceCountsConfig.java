@@ -0,0 +1,22 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.dropwizard.util.Duration;
+
+import javax.validation.constraints.NotNull;
+
+public class ResourceCountsConfig extends FanOutTimeoutsConfig {
+
+  @NotNull
+  private Duration cacheTtl = Duration.minutes(1);
+
+  @JsonProperty
+  public Duration getCacheTtl() {
+    return cacheTtl;
+  }
+
+  @JsonProperty
+  public void setCacheTtl(Duration cacheTtl) {
+    this.cacheTtl = cacheTtl;
+  }
+}
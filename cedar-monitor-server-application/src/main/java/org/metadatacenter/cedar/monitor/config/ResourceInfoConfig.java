@@ -0,0 +1,73 @@
+package org.metadatacenter.cedar.monitor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class ResourceInfoConfig extends FanOutTimeoutsConfig {
+
+  @Min(1)
+  private int bulkBatchSize = 100;
+
+  @Min(1)
+  private int commandMaxLineLength = 2048;
+
+  @Min(1)
+  private int commandMaxLines = 100000;
+
+  @Min(1)
+  private int groupPageSize = 1000;
+
+  @Min(1)
+  private int groupMaxPageSize = 10000;
+
+  @JsonProperty
+  public int getBulkBatchSize() {
+    return bulkBatchSize;
+  }
+
+  @JsonProperty
+  public void setBulkBatchSize(int bulkBatchSize) {
+    this.bulkBatchSize = bulkBatchSize;
+  }
+
+  @JsonProperty
+  public int getCommandMaxLineLength() {
+    return commandMaxLineLength;
+  }
+
+  @JsonProperty
+  public void setCommandMaxLineLength(int commandMaxLineLength) {
+    this.commandMaxLineLength = commandMaxLineLength;
+  }
+
+  @JsonProperty
+  public int getCommandMaxLines() {
+    return commandMaxLines;
+  }
+
+  @JsonProperty
+  public void setCommandMaxLines(int commandMaxLines) {
+    this.commandMaxLines = commandMaxLines;
+  }
+
+  @JsonProperty
+  public int getGroupPageSize() {
+    return groupPageSize;
+  }
+
+  @JsonProperty
+  public void setGroupPageSize(int groupPageSize) {
+    this.groupPageSize = groupPageSize;
+  }
+
+  @JsonProperty
+  public int getGroupMaxPageSize() {
+    return groupMaxPageSize;
+  }
+
+  @JsonProperty
+  public void setGroupMaxPageSize(int groupMaxPageSize) {
+    this.groupMaxPageSize = groupMaxPageSize;
+  }
+}
@@ -0,0 +1,264 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.config.ConsistencyCheckConfig;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.neo4j.Neo4jNodeReader;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
+import org.metadatacenter.model.CedarResourceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.metadatacenter.cedar.monitor.consistency.ConsistencyCheckState.*;
+
+/**
+ * Compares the artifact ids held by Neo4j, Mongo and OpenSearch. For every artifact type the three stores are read as
+ * id-sorted pages and merged, so memory use is bounded by the page size whatever the number of artifacts. The state
+ * is checkpointed to Redis regularly; a resumed check continues after the last checkpointed id.
+ */
+public class ConsistencyCheckJob {
+
+  private static final Logger log = LoggerFactory.getLogger(ConsistencyCheckJob.class);
+
+  public static final String NEO4J = "neo4j";
+  public static final String MONGO = "mongo";
+  public static final String OPENSEARCH = "opensearch";
+  public static final List<String> STORES = List.of(NEO4J, MONGO, OPENSEARCH);
+  public static final List<CedarResourceType> TYPES = List.of(CedarResourceType.FIELD, CedarResourceType.ELEMENT,
+      CedarResourceType.TEMPLATE, CedarResourceType.INSTANCE);
+
+  private static final String CHECKPOINT_KEY = "consistency-check";
+
+  private final Neo4jNodeReader neo4jNodeReader;
+  private final MongoIdReader mongoIdReader;
+  private final OpenSearchIdReader openSearchIdReader;
+  private final RedisTelemetryClient redisClient;
+  private final Executor executor;
+  private final ConsistencyCheckConfig config;
+  private final ObjectMapper mapper;
+  private final BackendMetrics backendMetrics;
+
+  private ConsistencyCheckState state = new ConsistencyCheckState();
+  private boolean running;
+  private volatile boolean cancelled;
+
+  public ConsistencyCheckJob(Neo4jNodeReader neo4jNodeReader, MongoIdReader mongoIdReader,
+                             OpenSearchIdReader openSearchIdReader, RedisTelemetryClient redisClient,
+                             Executor executor, ConsistencyCheckConfig config, ObjectMapper mapper,
+                             BackendMetrics backendMetrics) {
+    this.neo4jNodeReader = neo4jNodeReader;
+    this.mongoIdReader = mongoIdReader;
+    this.openSearchIdReader = openSearchIdReader;
+    this.redisClient = redisClient;
+    this.executor = executor;
+    this.config = config;
+    this.mapper = mapper;
+    this.backendMetrics = backendMetrics;
+  }
+
+  /**
+   * Starts a check in the background, unless one is already running.
+   *
+   * @param resume continue from the last checkpoint instead of starting over, if there is one
+   * @return false if a check is already running
+   */
+  public synchronized boolean start(boolean resume) {
+    if (running) {
+      return false;
+    }
+    ConsistencyCheckState checkpoint = resume ? loadCheckpoint() : null;
+    if (checkpoint != null) {
+      state = checkpoint;
+      state.setResumeCount(state.getResumeCount() + 1);
+    } else {
+      state = newState();
+    }
+    state.setStatus(STATUS_RUNNING);
+    state.setError(null);
+    state.setFinishedAt(null);
+    state.setUpdatedAt(Instant.now().toString());
+    running = true;
+    cancelled = false;
+    try {
+      executor.execute(this::run);
+    } catch (RuntimeException e) {
+      running = false;
+      state.setStatus(STATUS_FAILED);
+      state.setError(e.getMessage());
+      throw e;
+    }
+    return true;
+  }
+
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Returns a copy of the current state, safe to serialize while the check goes on, with the overall progress
+   * measured against the Neo4j totals.
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Map<String, Object> describe() {
+    Map<String, Object> r = mapper.convertValue(state, Map.class);
+    long scanned = 0;
+    long total = 0;
+    boolean totalsKnown = true;
+    for (TypeProgress progress : state.getTypes().values()) {
+      scanned += progress.getScanned().getOrDefault(NEO4J, 0L);
+      if (progress.getNeo4jTotal() != null) {
+        total += progress.getNeo4jTotal();
+      } else {
+        totalsKnown = false;
+      }
+    }
+    Map<String, Object> progress = new HashMap<>();
+    progress.put("neo4jScanned", scanned);
+    if (totalsKnown && total > 0) {
+      progress.put("neo4jTotal", total);
+      progress.put("fraction", Math.min(1.0, (double) scanned / total));
+    }
+    r.put("progress", progress);
+    return r;
+  }
+
+  private ConsistencyCheckState newState() {
+    ConsistencyCheckState fresh = new ConsistencyCheckState();
+    fresh.setStartedAt(Instant.now().toString());
+    for (CedarResourceType type : TYPES) {
+      TypeProgress progress = new TypeProgress();
+      for (String store : STORES) {
+        progress.getScanned().put(store, 0L);
+        if (!NEO4J.equals(store)) {
+          progress.getMissing().put(store, new IdDiscrepancies(config.getMaxSamples()));
+          progress.getOrphaned().put(store, new IdDiscrepancies(config.getMaxSamples()));
+        }
+      }
+      fresh.getTypes().put(type.getValue(), progress);
+    }
+    return fresh;
+  }
+
+  private void run() {
+    try {
+      for (CedarResourceType type : TYPES) {
+        TypeProgress progress;
+        synchronized (this) {
+          progress = state.getTypes().get(type.getValue());
+          state.setCurrentType(type.getValue());
+        }
+        if (!progress.isDone()) {
+          checkType(type, progress);
+        }
+        if (cancelled) {
+          break;
+        }
+      }
+      finish(cancelled ? STATUS_CANCELLED : STATUS_COMPLETED, null);
+    } catch (Exception e) {
+      log.error("Consistency check failed", e);
+      finish(STATUS_FAILED, String.valueOf(e.getMessage()));
+    }
+  }
+
+  private void checkType(CedarResourceType type, TypeProgress progress) {
+    if (progress.getNeo4jTotal() == null) {
+      long total = backendMetrics.call(BackendMetrics.NEO4J, "getTotalCount",
+          () -> CedarDataServices.getProxies().filesystemResource().getTotalCount(type));
+      synchronized (this) {
+        progress.setNeo4jTotal(total);
+      }
+    }
+
+    String after = progress.getLastId();
+    int pageSize = config.getPageSize();
+    SortedMergeDiff diff = new SortedMergeDiff(List.of(
+        new PagedIdIterator((afterId, limit) -> neo4jNodeReader.findIdsAfter(type, afterId, limit), after, pageSize),
+        new PagedIdIterator((afterId, limit) -> backendMetrics.call(BackendMetrics.MONGO, "findIdsAfter",
+            () -> mongoIdReader.findIdsAfter(type, afterId, limit)), after, pageSize),
+        new PagedIdIterator((afterId, limit) -> backendMetrics.call(BackendMetrics.OPENSEARCH, "findIdsAfter",
+            () -> openSearchIdReader.findIdsAfter(type, afterId, limit)), after, pageSize)));
+
+    long sinceCheckpoint = 0;
+    while (!cancelled && diff.next()) {
+      synchronized (this) {
+        record(progress, diff);
+      }
+      if (++sinceCheckpoint >= config.getCheckpointInterval()) {
+        checkpoint();
+        sinceCheckpoint = 0;
+      }
+    }
+    if (!cancelled) {
+      synchronized (this) {
+        progress.setDone(true);
+      }
+    }
+    checkpoint();
+  }
+
+  private void record(TypeProgress progress, SortedMergeDiff diff) {
+    String id = diff.getId();
+    boolean inNeo4j = diff.isPresentIn(STORES.indexOf(NEO4J));
+    for (int i = 0; i < STORES.size(); i++) {
+      String store = STORES.get(i);
+      if (diff.isPresentIn(i)) {
+        progress.getScanned().merge(store, 1L, Long::sum);
+        if (!inNeo4j) {
+          progress.getOrphaned().get(store).add(id);
+        }
+      } else if (inNeo4j) {
+        progress.getMissing().get(store).add(id);
+      }
+    }
+    progress.setLastId(id);
+  }
+
+  private void finish(String status, String error) {
+    synchronized (this) {
+      state.setStatus(status);
+      state.setError(error);
+      state.setFinishedAt(Instant.now().toString());
+      if (STATUS_COMPLETED.equals(status)) {
+        state.setCurrentType(null);
+      }
+      running = false;
+    }
+    checkpoint();
+  }
+
+  private void checkpoint() {
+    String json;
+    synchronized (this) {
+      state.setUpdatedAt(Instant.now().toString());
+      try {
+        json = mapper.writeValueAsString(state);
+      } catch (Exception e) {
+        log.error("Unable to serialize consistency check state", e);
+        return;
+      }
+    }
+    try {
+      redisClient.writeState(CHECKPOINT_KEY, json);
+    } catch (Exception e) {
+      log.warn("Unable to checkpoint consistency check state", e);
+    }
+  }
+
+  private ConsistencyCheckState loadCheckpoint() {
+    try {
+      String json = redisClient.readState(CHECKPOINT_KEY);
+      return json == null ? null : mapper.readValue(json, ConsistencyCheckState.class);
+    } catch (Exception e) {
+      log.warn("Unable to read consistency check checkpoint, starting over", e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress and findings of a consistency check. This is also what gets checkpointed, so a check can be resumed from
+ * it after a restart.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConsistencyCheckState {
+
+  public static final String STATUS_IDLE = "idle";
+  public static final String STATUS_RUNNING = "running";
+  public static final String STATUS_COMPLETED = "completed";
+  public static final String STATUS_CANCELLED = "cancelled";
+  public static final String STATUS_FAILED = "failed";
+
+  private String status = STATUS_IDLE;
+  private String startedAt;
+  private String updatedAt;
+  private String finishedAt;
+  private String error;
+  private String currentType;
+  private int resumeCount;
+  private Map<String, TypeProgress> types = new LinkedHashMap<>();
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public String getStartedAt() {
+    return startedAt;
+  }
+
+  public void setStartedAt(String startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  public String getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(String updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public String getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(String finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  public String getCurrentType() {
+    return currentType;
+  }
+
+  public void setCurrentType(String currentType) {
+    this.currentType = currentType;
+  }
+
+  public int getResumeCount() {
+    return resumeCount;
+  }
+
+  public void setResumeCount(int resumeCount) {
+    this.resumeCount = resumeCount;
+  }
+
+  public Map<String, TypeProgress> getTypes() {
+    return types;
+  }
+
+  public void setTypes(Map<String, TypeProgress> types) {
+    this.types = types;
+  }
+
+  /**
+   * Findings for one resource type. Ids present in Neo4j but absent from another store are missing from that store;
+   * ids absent from Neo4j are orphaned in every store that has them. All counters cover the ids up to
+   * {@link #getLastId()}, which is where a resumed check continues.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public static class TypeProgress {
+
+    private String lastId;
+    private boolean done;
+    private Long neo4jTotal;
+    private Map<String, Long> scanned = new LinkedHashMap<>();
+    private Map<String, IdDiscrepancies> missing = new LinkedHashMap<>();
+    private Map<String, IdDiscrepancies> orphaned = new LinkedHashMap<>();
+
+    public String getLastId() {
+      return lastId;
+    }
+
+    public void setLastId(String lastId) {
+      this.lastId = lastId;
+    }
+
+    public boolean isDone() {
+      return done;
+    }
+
+    public void setDone(boolean done) {
+      this.done = done;
+    }
+
+    public Long getNeo4jTotal() {
+      return neo4jTotal;
+    }
+
+    public void setNeo4jTotal(Long neo4jTotal) {
+      this.neo4jTotal = neo4jTotal;
+    }
+
+    public Map<String, Long> getScanned() {
+      return scanned;
+    }
+
+    public void setScanned(Map<String, Long> scanned) {
+      this.scanned = scanned;
+    }
+
+    public Map<String, IdDiscrepancies> getMissing() {
+      return missing;
+    }
+
+    public void setMissing(Map<String, IdDiscrepancies> missing) {
+      this.missing = missing;
+    }
+
+    public Map<String, IdDiscrepancies> getOrphaned() {
+      return orphaned;
+    }
+
+    public void setOrphaned(Map<String, IdDiscrepancies> orphaned) {
+      this.orphaned = orphaned;
+    }
+  }
+}
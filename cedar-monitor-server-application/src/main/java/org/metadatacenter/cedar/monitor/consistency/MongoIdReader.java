@@ -0,0 +1,44 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.metadatacenter.config.MongoConfig;
+import org.metadatacenter.model.CedarResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+
+/**
+ * Pages through the ids of the artifact documents stored in Mongo. The template services only expose counts, so the
+ * collections are read directly.
+ */
+public class MongoIdReader {
+
+  public static final String ID_FIELD = "@id";
+
+  private final MongoClient mongoClient;
+  private final MongoConfig mongoConfig;
+
+  public MongoIdReader(MongoClient mongoClient, MongoConfig mongoConfig) {
+    this.mongoClient = mongoClient;
+    this.mongoConfig = mongoConfig;
+  }
+
+  public List<String> findIdsAfter(CedarResourceType resourceType, String afterId, int limit) {
+    MongoCollection<Document> collection = mongoClient.getDatabase(mongoConfig.getDatabaseName())
+        .getCollection(mongoConfig.getMongoCollectionName(resourceType));
+    Bson filter = afterId == null ? new Document() : gt(ID_FIELD, afterId);
+    List<String> ids = new ArrayList<>(limit);
+    for (Document document : collection.find(filter).projection(include(ID_FIELD)).sort(ascending(ID_FIELD))
+        .limit(limit)) {
+      ids.add(document.getString(ID_FIELD));
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,77 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.server.security.model.auth.CedarNodeMaterializedPermissions;
+import org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.metadatacenter.constant.OpenSearchConstants.DOCUMENT_CEDAR_ID;
+import static org.metadatacenter.constant.OpenSearchConstants.GROUPS;
+import static org.metadatacenter.constant.OpenSearchConstants.INFO_RESOURCE_TYPE;
+
+/**
+ * Pages through the ids of the documents in the OpenSearch search index, sorted by id, using search_after. The ids
+ * are selected either by resource type or by the group permissions materialized on the documents.
+ */
+public class OpenSearchIdReader {
+
+  private final OpenSearchClient client;
+
+  public OpenSearchIdReader(OpenSearchClient client) {
+    this.client = client;
+  }
+
+  public List<String> findIdsAfter(CedarResourceType resourceType, String afterId, int limit)
+      throws IOException, InterruptedException {
+    ObjectNode query = client.createObjectNode();
+    query.putObject("term").put(INFO_RESOURCE_TYPE, resourceType.getValue());
+    return findIdsAfter(query, afterId, limit);
+  }
+
+  /**
+   * Pages through the ids of the documents the group can read or write, sorted by id.
+   */
+  public List<String> findGroupIdsAfter(String groupId, String afterId, int limit)
+      throws IOException, InterruptedException {
+    return findIdsAfter(groupQuery(groupId), afterId, limit);
+  }
+
+  /**
+   * Counts the documents the group can read or write, without reading them.
+   */
+  public long countGroupIds(String groupId) throws IOException, InterruptedException {
+    return client.count(groupQuery(groupId));
+  }
+
+  private ObjectNode groupQuery(String groupId) {
+    ObjectNode query = client.createObjectNode();
+    query.putObject("terms").putArray(GROUPS)
+        .add(CedarNodeMaterializedPermissions.getKey(groupId, FilesystemResourcePermission.READ))
+        .add(CedarNodeMaterializedPermissions.getKey(groupId, FilesystemResourcePermission.WRITE));
+    return query;
+  }
+
+  private List<String> findIdsAfter(ObjectNode query, String afterId, int limit)
+      throws IOException, InterruptedException {
+    ObjectNode body = client.createObjectNode();
+    body.put("size", limit);
+    body.put("_source", false);
+    body.set("query", query);
+    body.putArray("sort").addObject().put(DOCUMENT_CEDAR_ID, "asc");
+    if (afterId != null) {
+      body.putArray("search_after").add(afterId);
+    }
+
+    List<String> ids = new ArrayList<>(limit);
+    for (JsonNode hit : client.search(body).path("hits").path("hits")) {
+      ids.add(hit.path("sort").path(0).asText());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,39 @@
+package org.metadatacenter.cedar.monitor.counts;
+
+/**
+ * How much detail to compute for the per-user accessible resource counts.
+ */
+public enum AccessibleCountMode {
+
+  /**
+   * One count per resource type and store, with their total.
+   */
+  DETAILED("detailed"),
+  /**
+   * The total per store only.
+   */
+  SUMMARY("summary"),
+  /**
+   * No counts at all.
+   */
+  NONE("none");
+
+  private final String value;
+
+  AccessibleCountMode(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public static AccessibleCountMode forValue(String value) {
+    for (AccessibleCountMode mode : values()) {
+      if (mode.value.equalsIgnoreCase(value)) {
+        return mode;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,106 @@
+package org.metadatacenter.cedar.monitor.counts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.metadatacenter.constant.OpenSearchConstants.INFO_RESOURCE_TYPE;
+
+/**
+ * The only place that counts documents in OpenSearch. The per-type counts of the search index come from a single
+ * size:0 terms aggregation on the resource type field, so one request counts every type at once; the artifact total
+ * is the sum of the artifact types. /resources/counts/opensearch serves the result from a shared snapshot, while
+ * /resources/counts reads it inside its own fan-out.
+ */
+public class OpenSearchCountsReader {
+
+  private static final String TYPES = "types";
+
+  private static final Map<String, CedarResourceType> RESOURCE_TYPES = new LinkedHashMap<>();
+  private static final List<CedarResourceType> ARTIFACT_TYPES = List.of(CedarResourceType.FIELD,
+      CedarResourceType.ELEMENT, CedarResourceType.TEMPLATE, CedarResourceType.INSTANCE);
+
+  static {
+    RESOURCE_TYPES.put("field", CedarResourceType.FIELD);
+    RESOURCE_TYPES.put("element", CedarResourceType.ELEMENT);
+    RESOURCE_TYPES.put("template", CedarResourceType.TEMPLATE);
+    RESOURCE_TYPES.put("instance", CedarResourceType.INSTANCE);
+    RESOURCE_TYPES.put("folder", CedarResourceType.FOLDER);
+  }
+
+  private final OpenSearchClient client;
+  private final NodeSearchingService nodeSearchingService;
+  private final BackendMetrics backendMetrics;
+
+  public OpenSearchCountsReader(OpenSearchClient client, NodeSearchingService nodeSearchingService,
+                                BackendMetrics backendMetrics) {
+    this.client = client;
+    this.nodeSearchingService = nodeSearchingService;
+    this.backendMetrics = backendMetrics;
+  }
+
+  /**
+   * Reads the counts into a new map. Snapshot loaders cannot throw checked exceptions, so failures are rethrown
+   * unchecked.
+   */
+  public Map<String, Object> read() {
+    Map<String, Object> opensearch = new HashMap<>();
+    try {
+      read(opensearch);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      throw new IllegalStateException("Unable to count OpenSearch documents", e);
+    }
+    return opensearch;
+  }
+
+  /**
+   * Reads the counts into the given map, as a fan-out section does.
+   */
+  public void read(Map<String, Object> opensearch) throws Exception {
+    Map<String, Long> byType = backendMetrics.call(BackendMetrics.OPENSEARCH, "countByResourceType",
+        this::countByResourceType);
+    long artifactTotal = 0;
+    for (Map.Entry<String, CedarResourceType> entry : RESOURCE_TYPES.entrySet()) {
+      long count = byType.getOrDefault(entry.getValue().getValue(), 0L);
+      opensearch.put(entry.getKey(), count);
+      if (ARTIFACT_TYPES.contains(entry.getValue())) {
+        artifactTotal += count;
+      }
+    }
+    opensearch.put("artifactTotal", artifactTotal);
+
+    opensearch.put("recommenderTotal", backendMetrics.call(BackendMetrics.OPENSEARCH, "getTotalRecommenderCount",
+        nodeSearchingService::getTotalRecommenderCount));
+  }
+
+  private Map<String, Long> countByResourceType() throws IOException, InterruptedException {
+    ObjectNode body = client.createObjectNode();
+    body.put("size", 0);
+    body.putObject("aggs").putObject(TYPES).putObject("terms")
+        .put("field", INFO_RESOURCE_TYPE)
+        .put("size", CedarResourceType.values().length);
+
+    Map<String, Long> counts = new HashMap<>();
+    for (JsonNode bucket : client.search(body).path("aggregations").path(TYPES).path("buckets")) {
+      counts.put(bucket.path("key").asText(), bucket.path("doc_count").asLong());
+    }
+    return counts;
+  }
+}
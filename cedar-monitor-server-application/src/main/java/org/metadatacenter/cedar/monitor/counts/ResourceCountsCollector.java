@@ -0,0 +1,136 @@
+package org.metadatacenter.cedar.monitor.counts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.config.ResourceCountsConfig;
+import org.metadatacenter.cedar.monitor.keycloak.KeycloakAdminClient;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.rest.context.CedarRequestContextFactory;
+import org.metadatacenter.server.neo4j.proxy.Neo4JProxyFilesystemResource;
+import org.metadatacenter.server.service.TemplateElementService;
+import org.metadatacenter.server.service.TemplateFieldService;
+import org.metadatacenter.server.service.TemplateInstanceService;
+import org.metadatacenter.server.service.TemplateService;
+import org.metadatacenter.server.service.UserService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the per-store resource counts. The Neo4j, Mongo, OpenSearch and Keycloak groups run concurrently, each
+ * with its own deadline, so a slow store only delays its own group.
+ */
+public class ResourceCountsCollector {
+
+  public static final String NEO4J = "neo4j";
+  public static final String MONGO = "mongo";
+  public static final String OPENSEARCH = "opensearch";
+  public static final String KEYCLOAK = "keycloak";
+  public static final String BACKENDS = "backends";
+
+  private final CedarConfig cedarConfig;
+  private final UserService userService;
+  private final TemplateFieldService<String, JsonNode> templateFieldService;
+  private final TemplateElementService<String, JsonNode> templateElementService;
+  private final TemplateService<String, JsonNode> templateService;
+  private final TemplateInstanceService<String, JsonNode> templateInstanceService;
+  private final OpenSearchCountsReader openSearchCountsReader;
+  private final KeycloakAdminClient keycloakAdminClient;
+  private final DeadlineFanOut fanOut;
+  private final ResourceCountsConfig config;
+  private final BackendMetrics backendMetrics;
+
+  public ResourceCountsCollector(CedarConfig cedarConfig, UserService userService,
+                                 TemplateFieldService<String, JsonNode> templateFieldService,
+                                 TemplateElementService<String, JsonNode> templateElementService,
+                                 TemplateService<String, JsonNode> templateService,
+                                 TemplateInstanceService<String, JsonNode> templateInstanceService,
+                                 OpenSearchCountsReader openSearchCountsReader,
+                                 KeycloakAdminClient keycloakAdminClient,
+                                 DeadlineFanOut fanOut, ResourceCountsConfig config,
+                                 BackendMetrics backendMetrics) {
+    this.cedarConfig = cedarConfig;
+    this.userService = userService;
+    this.templateFieldService = templateFieldService;
+    this.templateElementService = templateElementService;
+    this.templateService = templateService;
+    this.templateInstanceService = templateInstanceService;
+    this.openSearchCountsReader = openSearchCountsReader;
+    this.keycloakAdminClient = keycloakAdminClient;
+    this.fanOut = fanOut;
+    this.config = config;
+    this.backendMetrics = backendMetrics;
+  }
+
+  /**
+   * Collects the counts as the CEDAR admin user. The counts are global, so this is what background refreshes use.
+   */
+  public Map<String, Object> collect() {
+    try {
+      return collect(CedarRequestContextFactory.fromAdminUser(cedarConfig, userService));
+    } catch (CedarException e) {
+      throw new IllegalStateException("Unable to build admin request context", e);
+    }
+  }
+
+  /**
+   * Returns one map per store plus a {@value #BACKENDS} block holding the status and elapsed time of each store.
+   * Stores that failed or timed out contribute the counts they managed to read.
+   */
+  public Map<String, Object> collect(CedarRequestContext c) {
+    Map<String, SectionResult> results = fanOut.sections()
+        .add(NEO4J, config.getTimeoutMillis(NEO4J), neo4j -> readNeo4jCounts(c, neo4j))
+        .add(MONGO, config.getTimeoutMillis(MONGO), this::readMongoCounts)
+        .add(OPENSEARCH, config.getTimeoutMillis(OPENSEARCH), openSearchCountsReader::read)
+        .add(KEYCLOAK, config.getTimeoutMillis(KEYCLOAK), this::readKeycloakCounts)
+        .run();
+
+    Map<String, Object> r = new HashMap<>();
+    Map<String, Object> backends = new HashMap<>();
+    for (Map.Entry<String, SectionResult> entry : results.entrySet()) {
+      r.put(entry.getKey(), entry.getValue().getValues());
+      backends.put(entry.getKey(), entry.getValue());
+    }
+    r.put(BACKENDS, backends);
+    return r;
+  }
+
+  private void readNeo4jCounts(CedarRequestContext c, Map<String, Object> neo4j) {
+    neo4j.put("user", backendMetrics.call(BackendMetrics.NEO4J, "getUserCount",
+        () -> CedarDataServices.getUserServiceSession(c).getUserCount()));
+    neo4j.put("group", backendMetrics.call(BackendMetrics.NEO4J, "getGroupCount",
+        () -> CedarDataServices.getGroupServiceSession(c).getGroupCount()));
+    neo4j.put("category", backendMetrics.call(BackendMetrics.NEO4J, "getCategoryCount",
+        () -> CedarDataServices.getCategoryServiceSession(c).getCategoryCount()));
+    neo4j.put("folder", backendMetrics.call(BackendMetrics.NEO4J, "getFolderCount",
+        () -> CedarDataServices.getFolderServiceSession(c).getFolderCount()));
+
+    Neo4JProxyFilesystemResource fsNeo4JProxy = CedarDataServices.getProxies().filesystemResource();
+    neo4j.put("field", neo4jTotalCount(fsNeo4JProxy, CedarResourceType.FIELD));
+    neo4j.put("element", neo4jTotalCount(fsNeo4JProxy, CedarResourceType.ELEMENT));
+    neo4j.put("template", neo4jTotalCount(fsNeo4JProxy, CedarResourceType.TEMPLATE));
+    neo4j.put("instance", neo4jTotalCount(fsNeo4JProxy, CedarResourceType.INSTANCE));
+  }
+
+  private long neo4jTotalCount(Neo4JProxyFilesystemResource fsNeo4JProxy, CedarResourceType resourceType) {
+    return backendMetrics.call(BackendMetrics.NEO4J, "getTotalCount", () -> fsNeo4JProxy.getTotalCount(resourceType));
+  }
+
+  private void readMongoCounts(Map<String, Object> mongo) {
+    mongo.put("field", backendMetrics.call(BackendMetrics.MONGO, "countFields", templateFieldService::count));
+    mongo.put("element", backendMetrics.call(BackendMetrics.MONGO, "countElements", templateElementService::count));
+    mongo.put("template", backendMetrics.call(BackendMetrics.MONGO, "countTemplates", templateService::count));
+    mongo.put("instance", backendMetrics.call(BackendMetrics.MONGO, "countInstances",
+        templateInstanceService::count));
+  }
+
+  private void readKeycloakCounts(Map<String, Object> keycloak) {
+    keycloak.put("user", keycloakAdminClient.call("countUsers", realm -> realm.users().count()));
+  }
+}
@@ -0,0 +1,156 @@
+package org.metadatacenter.cedar.monitor.counts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.server.neo4j.proxy.Neo4JProxies;
+import org.metadatacenter.server.security.model.auth.CedarNodeMaterializedPermissions;
+import org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission;
+import org.metadatacenter.server.security.model.user.CedarUser;
+import org.metadatacenter.server.security.model.user.ResourcePublicationStatusFilter;
+import org.metadatacenter.server.security.model.user.ResourceVersionFilter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.metadatacenter.constant.OpenSearchConstants.GROUPS;
+import static org.metadatacenter.constant.OpenSearchConstants.INFO_RESOURCE_TYPE;
+import static org.metadatacenter.constant.OpenSearchConstants.USERS;
+
+/**
+ * Counts the resources a user can access, in Neo4j and in the OpenSearch index. Neo4j is asked through the
+ * library's permission-filtered count, once per type in detailed mode and once for all types in summary mode.
+ * OpenSearch is asked once per lookup, with a size:0 search whose filters aggregation splits the accessible
+ * documents into readable and writeable ones, each counted per resource type.
+ */
+public class UserAccessibleCounts {
+
+  public static final String TOTAL = "total";
+  public static final String READABLE = "readableCount";
+  public static final String WRITEABLE = "writeableCount";
+
+  private static final String PERMISSIONS = "permissions";
+  private static final String READ = "read";
+  private static final String WRITE = "write";
+  private static final String TYPES = "types";
+
+  private static final Map<String, CedarResourceType> RESOURCE_TYPES = new LinkedHashMap<>();
+
+  static {
+    RESOURCE_TYPES.put("field", CedarResourceType.FIELD);
+    RESOURCE_TYPES.put("element", CedarResourceType.ELEMENT);
+    RESOURCE_TYPES.put("template", CedarResourceType.TEMPLATE);
+    RESOURCE_TYPES.put("templateInstance", CedarResourceType.INSTANCE);
+    RESOURCE_TYPES.put("folder", CedarResourceType.FOLDER);
+  }
+
+  private final OpenSearchClient openSearchClient;
+  private final BackendMetrics backendMetrics;
+
+  public UserAccessibleCounts(OpenSearchClient openSearchClient, BackendMetrics backendMetrics) {
+    this.openSearchClient = openSearchClient;
+    this.backendMetrics = backendMetrics;
+  }
+
+  public void readNeo4j(Neo4JProxies proxies, CedarUser cedarUser, AccessibleCountMode mode,
+                        Map<String, Object> counts) {
+    if (mode == AccessibleCountMode.DETAILED) {
+      long total = 0;
+      for (Map.Entry<String, CedarResourceType> entry : RESOURCE_TYPES.entrySet()) {
+        long count = viewAllFilteredCount(proxies, cedarUser, List.of(entry.getValue()));
+        counts.put(entry.getKey(), count);
+        total += count;
+      }
+      counts.put(TOTAL, total);
+    } else if (mode == AccessibleCountMode.SUMMARY) {
+      counts.put(TOTAL, viewAllFilteredCount(proxies, cedarUser, new ArrayList<>(RESOURCE_TYPES.values())));
+    }
+  }
+
+  private long viewAllFilteredCount(Neo4JProxies proxies, CedarUser cedarUser, List<CedarResourceType> types) {
+    return backendMetrics.call(BackendMetrics.NEO4J, "viewAllFilteredCount", () -> proxies.resource()
+        .viewAllFilteredCount(types, ResourceVersionFilter.ALL, ResourcePublicationStatusFilter.ALL, cedarUser));
+  }
+
+  /**
+   * Counts the documents the user can read and those the user can write, either directly or through one of the
+   * given groups, with one search. Write access implies read access, so a document carrying a write key of the user
+   * or of a group counts as readable too. The readable and writeable counts are put under {@link #READABLE} and
+   * {@link #WRITEABLE}.
+   */
+  public void readOpenSearch(String userId, Collection<String> groupIds, AccessibleCountMode mode,
+                             Map<String, Object> counts) throws Exception {
+    if (mode == AccessibleCountMode.NONE) {
+      return;
+    }
+    ObjectNode body = openSearchClient.createObjectNode();
+    body.put("size", 0);
+    ObjectNode bool = body.putObject("query").putObject("bool");
+    ArrayNode types = bool.putArray("filter").addObject().putObject("terms").putArray(INFO_RESOURCE_TYPE);
+    for (CedarResourceType resourceType : RESOURCE_TYPES.values()) {
+      types.add(resourceType.getValue());
+    }
+    bool.setAll(permissionQuery(userId, groupIds, FilesystemResourcePermission.READ));
+    ObjectNode permissions = body.putObject("aggs").putObject(PERMISSIONS);
+    ObjectNode filters = permissions.putObject("filters").putObject("filters");
+    filters.putObject(READ).set("bool", permissionQuery(userId, groupIds, FilesystemResourcePermission.READ));
+    filters.putObject(WRITE).set("bool", permissionQuery(userId, groupIds, FilesystemResourcePermission.WRITE));
+    permissions.putObject("aggs").putObject(TYPES).putObject("terms")
+        .put("field", INFO_RESOURCE_TYPE)
+        .put("size", RESOURCE_TYPES.size());
+
+    JsonNode response = backendMetrics.call(BackendMetrics.OPENSEARCH, "countAccessibleByType",
+        () -> openSearchClient.search(body));
+    JsonNode buckets = response.path("aggregations").path(PERMISSIONS).path("buckets");
+    Map<String, Object> readable = new HashMap<>();
+    putCounts(buckets.path(READ), mode, readable);
+    counts.put(READABLE, readable);
+    Map<String, Object> writeable = new HashMap<>();
+    putCounts(buckets.path(WRITE), mode, writeable);
+    counts.put(WRITEABLE, writeable);
+  }
+
+  /**
+   * The should clauses matching the documents on which the user or one of the groups has the given permission.
+   */
+  private ObjectNode permissionQuery(String userId, Collection<String> groupIds,
+                                     FilesystemResourcePermission permission) {
+    List<FilesystemResourcePermission> granting = permission == FilesystemResourcePermission.READ
+        ? List.of(FilesystemResourcePermission.READ, FilesystemResourcePermission.WRITE)
+        : List.of(FilesystemResourcePermission.WRITE);
+    ObjectNode query = openSearchClient.createObjectNode();
+    ArrayNode should = query.put("minimum_should_match", 1).putArray("should");
+    ArrayNode userKeys = should.addObject().putObject("terms").putArray(USERS);
+    ArrayNode groupKeys = should.addObject().putObject("terms").putArray(GROUPS);
+    for (FilesystemResourcePermission p : granting) {
+      userKeys.add(CedarNodeMaterializedPermissions.getKey(userId, p));
+      for (String groupId : groupIds) {
+        groupKeys.add(CedarNodeMaterializedPermissions.getKey(groupId, p));
+      }
+    }
+    return query;
+  }
+
+  private static void putCounts(JsonNode permissionBucket, AccessibleCountMode mode, Map<String, Object> counts) {
+    Map<String, Long> byType = new HashMap<>();
+    for (JsonNode bucket : permissionBucket.path(TYPES).path("buckets")) {
+      byType.put(bucket.path("key").asText(), bucket.path("doc_count").asLong());
+    }
+    long total = 0;
+    for (Map.Entry<String, CedarResourceType> entry : RESOURCE_TYPES.entrySet()) {
+      long count = byType.getOrDefault(entry.getValue().getValue(), 0L);
+      if (mode == AccessibleCountMode.DETAILED) {
+        counts.put(entry.getKey(), count);
+      }
+      total += count;
+    }
+    counts.put(TOTAL, total);
+  }
+}
@@ -0,0 +1,83 @@
+package org.metadatacenter.cedar.monitor.drift;
+
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CountSnapshot;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Turns a series of count snapshots into the drift of Mongo and OpenSearch relative to Neo4j, and finds when the
+ * current drift started: the oldest snapshot of the unbroken run of non-zero drift that ends with the latest one.
+ */
+public final class CountDriftReport {
+
+  public static final String MONGO = "mongo";
+  public static final String OPENSEARCH = "opensearch";
+
+  private CountDriftReport() {
+  }
+
+  /**
+   * @param newestFirst snapshots of a single resource type, newest first
+   */
+  public static Map<String, Object> of(List<CountSnapshot> newestFirst) {
+    Map<String, Object> r = new LinkedHashMap<>();
+
+    List<Map<String, Object>> points = new ArrayList<>(newestFirst.size());
+    for (int i = newestFirst.size() - 1; i >= 0; i--) {
+      CountSnapshot snapshot = newestFirst.get(i);
+      Map<String, Object> point = new LinkedHashMap<>();
+      point.put("capturedAt", snapshot.getCapturedAt().toString());
+      point.put("neo4j", snapshot.getNeo4jCount());
+      point.put("mongo", snapshot.getMongoCount());
+      point.put("opensearch", snapshot.getOpensearchCount());
+      Map<String, Object> drift = new LinkedHashMap<>();
+      drift.put(MONGO, drift(snapshot.getNeo4jCount(), snapshot.getMongoCount()));
+      drift.put(OPENSEARCH, drift(snapshot.getNeo4jCount(), snapshot.getOpensearchCount()));
+      point.put("drift", drift);
+      points.add(point);
+    }
+
+    Map<String, Object> drift = new LinkedHashMap<>();
+    drift.put(MONGO, driftSummary(newestFirst, CountSnapshot::getMongoCount));
+    drift.put(OPENSEARCH, driftSummary(newestFirst, CountSnapshot::getOpensearchCount));
+
+    r.put("drift", drift);
+    r.put("points", points);
+    return r;
+  }
+
+  private static Map<String, Object> driftSummary(List<CountSnapshot> newestFirst,
+                                                  Function<CountSnapshot, Long> storeCount) {
+    Map<String, Object> summary = new LinkedHashMap<>();
+    Long current = null;
+    String since = null;
+    boolean startedBeforeWindow = false;
+    for (CountSnapshot snapshot : newestFirst) {
+      Long drift = drift(snapshot.getNeo4jCount(), storeCount.apply(snapshot));
+      if (drift == null) {
+        continue;
+      }
+      if (current == null) {
+        current = drift;
+        if (current == 0) {
+          break;
+        }
+      }
+      if (drift == 0) {
+        startedBeforeWindow = false;
+        break;
+      }
+      since = snapshot.getCapturedAt().toString();
+      startedBeforeWindow = true;
+    }
+    summary.put("current", current);
+    summary.put("since", since);
+    summary.put("startedBeforeWindow", since != null && startedBeforeWindow);
+    return summary;
+  }
+
+  private static Long drift(Long neo4j, Long other) {
+    return neo4j == null || other == null ? null : neo4j - other;
+  }
+}
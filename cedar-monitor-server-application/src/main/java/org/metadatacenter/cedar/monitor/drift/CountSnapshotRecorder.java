@@ -0,0 +1,101 @@
+package org.metadatacenter.cedar.monitor.drift;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.context.internal.ManagedSessionContext;
+import org.metadatacenter.cedar.monitor.concurrent.CachedSnapshot;
+import org.metadatacenter.cedar.monitor.counts.ResourceCountsCollector;
+import org.metadatacenter.cedar.monitor.logging.dao.CountSnapshotDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.QueueDepthSnapshotDAO;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CountSnapshot;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.QueueDepthSnapshot;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the current per-store resource counts and queue depths to the logging database, one row per resource type
+ * and one row per queue.
+ */
+public class CountSnapshotRecorder {
+
+  private static final Logger log = LoggerFactory.getLogger(CountSnapshotRecorder.class);
+
+  public static final List<String> RESOURCE_TYPES = List.of("field", "element", "template", "instance", "folder");
+
+  private final SessionFactory sessionFactory;
+  private final CountSnapshotDAO countSnapshotDAO;
+  private final QueueDepthSnapshotDAO queueDepthSnapshotDAO;
+  private final CachedSnapshot<Map<String, Object>> countsSnapshot;
+  private final RedisTelemetryClient redisTelemetryClient;
+
+  public CountSnapshotRecorder(SessionFactory sessionFactory, CountSnapshotDAO countSnapshotDAO,
+                               QueueDepthSnapshotDAO queueDepthSnapshotDAO,
+                               CachedSnapshot<Map<String, Object>> countsSnapshot,
+                               RedisTelemetryClient redisTelemetryClient) {
+    this.sessionFactory = sessionFactory;
+    this.countSnapshotDAO = countSnapshotDAO;
+    this.queueDepthSnapshotDAO = queueDepthSnapshotDAO;
+    this.countsSnapshot = countsSnapshot;
+    this.redisTelemetryClient = redisTelemetryClient;
+  }
+
+  public void record() {
+    Instant capturedAt = Instant.now();
+    // A fresh computation, shared with any concurrent /resources/counts request
+    Map<String, Object> counts = countsSnapshot.refresh().join().getValue();
+    Map<String, Long> queueLengths = null;
+    try {
+      queueLengths = redisTelemetryClient.queueLengths();
+    } catch (Exception e) {
+      log.error("Error while reading queue lengths for the count snapshot", e);
+    }
+
+    Session session = sessionFactory.openSession();
+    try {
+      ManagedSessionContext.bind(session);
+      Transaction transaction = session.beginTransaction();
+      try {
+        for (String resourceType : RESOURCE_TYPES) {
+          CountSnapshot snapshot = new CountSnapshot();
+          snapshot.setCapturedAt(capturedAt);
+          snapshot.setResourceType(resourceType);
+          snapshot.setNeo4jCount(count(counts, ResourceCountsCollector.NEO4J, resourceType));
+          snapshot.setMongoCount(count(counts, ResourceCountsCollector.MONGO, resourceType));
+          snapshot.setOpensearchCount(count(counts, ResourceCountsCollector.OPENSEARCH, resourceType));
+          countSnapshotDAO.create(snapshot);
+        }
+        if (queueLengths != null) {
+          for (Map.Entry<String, Long> entry : queueLengths.entrySet()) {
+            QueueDepthSnapshot snapshot = new QueueDepthSnapshot();
+            snapshot.setCapturedAt(capturedAt);
+            snapshot.setQueueId(entry.getKey());
+            snapshot.setDepth(entry.getValue());
+            queueDepthSnapshotDAO.create(snapshot);
+          }
+        }
+        transaction.commit();
+      } catch (RuntimeException e) {
+        transaction.rollback();
+        throw e;
+      }
+    } finally {
+      ManagedSessionContext.unbind(sessionFactory);
+      session.close();
+    }
+  }
+
+  private static Long count(Map<String, Object> counts, String store, String resourceType) {
+    Object storeCounts = counts.get(store);
+    if (!(storeCounts instanceof Map)) {
+      return null;
+    }
+    Object count = ((Map<?, ?>) storeCounts).get(resourceType);
+    return count instanceof Number ? ((Number) count).longValue() : null;
+  }
+}
@@ -0,0 +1,91 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.codahale.metrics.*;
+import io.dropwizard.lifecycle.Managed;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client for the admin endpoints of the CEDAR servers, over a bounded pool of keep-alive connections shared by
+ * all requests. Responses are handed back unread, so the caller can stream the entity and must close the response.
+ */
+public class AdminProxyClient implements Managed, MetricSet {
+
+  private final HealthCheckConfig config;
+  private final Timer latency;
+  private final Meter errors;
+  private PoolingHttpClientConnectionManager connectionManager;
+  private CloseableHttpClient httpClient;
+
+  public AdminProxyClient(HealthCheckConfig config, MetricRegistry metrics) {
+    this.config = config;
+    this.latency = metrics.timer(MetricRegistry.name(AdminProxyClient.class, "latency"));
+    this.errors = metrics.meter(MetricRegistry.name(AdminProxyClient.class, "errors"));
+  }
+
+  @Override
+  public void start() {
+    connectionManager = new PoolingHttpClientConnectionManager(config.getProxyConnectionTtl().toMilliseconds(),
+        TimeUnit.MILLISECONDS);
+    connectionManager.setMaxTotal(config.getProxyMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(config.getProxyMaxConnectionsPerServer());
+    RequestConfig requestConfig = RequestConfig.custom()
+        .setConnectTimeout((int) config.getConnectTimeout().toMilliseconds())
+        .setSocketTimeout((int) config.getReadTimeout().toMilliseconds())
+        .setConnectionRequestTimeout((int) config.getConnectTimeout().toMilliseconds())
+        .build();
+    httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictExpiredConnections()
+        .evictIdleConnections(config.getProxyConnectionTtl().toMilliseconds(), TimeUnit.MILLISECONDS)
+        .disableCookieManagement()
+        .build();
+  }
+
+  @Override
+  public void stop() throws IOException {
+    if (httpClient != null) {
+      httpClient.close();
+    }
+  }
+
+  /**
+   * Sends a GET and returns as soon as the response headers arrive. The latency metric covers the time to the
+   * headers, since the body is read by the caller.
+   */
+  public CloseableHttpResponse get(String url) throws IOException {
+    HttpGet request = new HttpGet(url);
+    try (Timer.Context ignored = latency.time()) {
+      return httpClient.execute(request);
+    } catch (IOException | RuntimeException e) {
+      errors.mark();
+      throw e;
+    }
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    Map<String, Metric> metrics = new HashMap<>();
+    metrics.put("pool.leased", (Gauge<Integer>) () -> poolStats().getLeased());
+    metrics.put("pool.available", (Gauge<Integer>) () -> poolStats().getAvailable());
+    metrics.put("pool.pending", (Gauge<Integer>) () -> poolStats().getPending());
+    metrics.put("pool.max", (Gauge<Integer>) () -> poolStats().getMax());
+    return metrics;
+  }
+
+  private PoolStats poolStats() {
+    return connectionManager == null ? new PoolStats(0, 0, 0, 0) : connectionManager.getTotalStats();
+  }
+}
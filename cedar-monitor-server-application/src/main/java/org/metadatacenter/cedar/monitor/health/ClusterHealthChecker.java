@@ -0,0 +1,123 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.config.ServerConfig;
+import org.metadatacenter.model.ServerName;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Calls the admin healthcheck of CEDAR servers without blocking: every check is an asynchronous request with its own
+ * connect and read deadline, so a hung server only costs its own slot, never the others'.
+ */
+public class ClusterHealthChecker {
+
+  private static final String HEALTHCHECK_PATH = "healthcheck";
+
+  private final HttpClient httpClient;
+  private final ObjectMapper mapper;
+  private final Map<ServerName, ServerConfig> servers;
+  private final HealthCheckConfig config;
+
+  public ClusterHealthChecker(HttpClient httpClient, ObjectMapper mapper, Map<ServerName, ServerConfig> servers,
+                              HealthCheckConfig config) {
+    this.httpClient = httpClient;
+    this.mapper = mapper;
+    this.servers = servers;
+    this.config = config;
+  }
+
+  public Set<ServerName> getServerNames() {
+    return Collections.unmodifiableSet(servers.keySet());
+  }
+
+  /**
+   * Checks every configured server concurrently. The future completes once each check has answered or run out of
+   * time, with the results ordered by server name.
+   */
+  public CompletableFuture<Map<String, ServerHealth>> checkAll() {
+    Map<String, CompletableFuture<ServerHealth>> checks = new TreeMap<>();
+    for (ServerName serverName : servers.keySet()) {
+      checks.put(serverName.getName(), check(serverName));
+    }
+    return CompletableFuture.allOf(checks.values().toArray(new CompletableFuture[0])).thenApply(done -> {
+      Map<String, ServerHealth> results = new LinkedHashMap<>();
+      for (Map.Entry<String, CompletableFuture<ServerHealth>> check : checks.entrySet()) {
+        results.put(check.getKey(), check.getValue().join());
+      }
+      return results;
+    });
+  }
+
+  /**
+   * Checks one server. The future never completes exceptionally: failures and timeouts are reported in the result.
+   */
+  public CompletableFuture<ServerHealth> check(ServerName serverName) {
+    String name = serverName.getName();
+    long checkedAt = System.currentTimeMillis();
+    long start = System.nanoTime();
+    ServerConfig serverConfig = servers.get(serverName);
+    if (serverConfig == null) {
+      return CompletableFuture.completedFuture(new ServerHealth(name, ServerHealth.STATUS_ERROR, null, 0, checkedAt,
+          null, "Server is not configured"));
+    }
+
+    HttpRequest request;
+    try {
+      request = HttpRequest.newBuilder(URI.create(serverConfig.getAdminBase() + HEALTHCHECK_PATH))
+          .timeout(Duration.ofMillis(config.getReadTimeout().toMilliseconds()))
+          .header("Accept", "application/json")
+          .GET()
+          .build();
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.completedFuture(new ServerHealth(name, ServerHealth.STATUS_ERROR, null, 0, checkedAt,
+          null, e.getMessage()));
+    }
+
+    // The request timeout stops at the response headers; this deadline also bounds reading the body
+    long deadlineMillis = config.getConnectTimeout().toMilliseconds() + config.getReadTimeout().toMilliseconds();
+    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        .orTimeout(deadlineMillis, TimeUnit.MILLISECONDS)
+        .handle((response, error) -> {
+          long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+          if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() :
+                error;
+            boolean timedOut = cause instanceof HttpTimeoutException || cause instanceof TimeoutException;
+            String message = cause instanceof HttpConnectTimeoutException ? "Connect timed out" :
+                timedOut ? "Read timed out" : cause.toString();
+            return new ServerHealth(name, timedOut ? ServerHealth.STATUS_TIMEOUT : ServerHealth.STATUS_ERROR, null,
+                latencyMs, checkedAt, null, message);
+          }
+          return new ServerHealth(name, response.statusCode() == 200 ? ServerHealth.STATUS_HEALTHY :
+              ServerHealth.STATUS_UNHEALTHY, response.statusCode(), latencyMs, checkedAt, parseBody(response.body()),
+              null);
+        });
+  }
+
+  private Object parseBody(byte[] body) {
+    if (body == null || body.length == 0) {
+      return null;
+    }
+    try {
+      return mapper.readTree(body);
+    } catch (IOException e) {
+      int length = Math.min(body.length, config.getMaxBodyBytes());
+      return new String(body, 0, length, StandardCharsets.UTF_8);
+    }
+  }
+}
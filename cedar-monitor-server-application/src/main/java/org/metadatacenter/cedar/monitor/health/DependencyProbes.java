@@ -0,0 +1,45 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.mongodb.client.MongoClient;
+import org.bson.Document;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.metadatacenter.cedar.monitor.keycloak.KeycloakAdminClient;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+
+/**
+ * Cheap probes of the monitor's dependencies, for {@link MonitorServerHealthCheck}. Each one makes a single round-trip
+ * through the same client the endpoints use.
+ */
+public final class DependencyProbes {
+
+  public static final String LOG_DATABASE = "logDatabase";
+
+  private DependencyProbes() {
+  }
+
+  public static MonitorServerHealthCheck.Probe mongo(MongoClient mongoClient, String databaseName,
+                                                     BackendMetrics backendMetrics) {
+    return () -> backendMetrics.run(BackendMetrics.MONGO, "ping",
+        () -> mongoClient.getDatabase(databaseName).runCommand(new Document("ping", 1)));
+  }
+
+  public static MonitorServerHealthCheck.Probe openSearch(OpenSearchClient openSearchClient,
+                                                          BackendMetrics backendMetrics) {
+    return () -> backendMetrics.run(BackendMetrics.OPENSEARCH, "checkIndex", openSearchClient::checkIndex);
+  }
+
+  public static MonitorServerHealthCheck.Probe keycloak(KeycloakAdminClient keycloakAdminClient) {
+    return () -> keycloakAdminClient.call("getRealm", RealmResource::toRepresentation);
+  }
+
+  public static MonitorServerHealthCheck.Probe logDatabase(SessionFactory sessionFactory) {
+    return () -> {
+      try (Session session = sessionFactory.openSession()) {
+        session.createNativeQuery("SELECT 1").getSingleResult();
+      }
+    };
+  }
+}
@@ -0,0 +1,143 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import io.dropwizard.lifecycle.Managed;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.model.ServerName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks every configured server in the background, each on its own interval, and keeps the latest result in
+ * memory, so that health requests never reach the admin ports. A check that is still in flight when the next tick
+ * comes is not doubled. Every change between healthy and not healthy is recorded in a bounded history.
+ */
+public class HealthPoller implements Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(HealthPoller.class);
+
+  private final ClusterHealthChecker checker;
+  private final ScheduledExecutorService scheduler;
+  private final HealthCheckConfig config;
+  private final Map<ServerName, ServerHealth> latest = new ConcurrentHashMap<>();
+  private final Map<ServerName, AtomicBoolean> inFlight = new ConcurrentHashMap<>();
+  private final ArrayDeque<HealthTransition> history;
+  private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+
+  public HealthPoller(ClusterHealthChecker checker, ScheduledExecutorService scheduler, HealthCheckConfig config) {
+    this.checker = checker;
+    this.scheduler = scheduler;
+    this.config = config;
+    this.history = new ArrayDeque<>(config.getHistorySize());
+  }
+
+  @Override
+  public void start() {
+    for (ServerName serverName : checker.getServerNames()) {
+      long intervalMillis = config.getPollInterval(serverName.getName()).toMilliseconds();
+      inFlight.put(serverName, new AtomicBoolean());
+      tasks.add(scheduler.scheduleWithFixedDelay(() -> poll(serverName), 0, intervalMillis, TimeUnit.MILLISECONDS));
+    }
+  }
+
+  @Override
+  public void stop() {
+    for (ScheduledFuture<?> task : tasks) {
+      task.cancel(false);
+    }
+    tasks.clear();
+  }
+
+  private void poll(ServerName serverName) {
+    AtomicBoolean running = inFlight.get(serverName);
+    if (!running.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      checker.check(serverName).whenComplete((health, error) -> {
+        running.set(false);
+        if (health != null) {
+          record(serverName, health);
+        }
+      });
+    } catch (RuntimeException e) {
+      running.set(false);
+      log.warn("Error while polling the health of " + serverName.getName(), e);
+    }
+  }
+
+  /**
+   * Stores a result as the latest one of its server, unless a newer one is already there, recording a transition if
+   * the server changed between healthy and not healthy. Live checks made on request go through here too.
+   */
+  public void record(ServerName serverName, ServerHealth health) {
+    synchronized (history) {
+      ServerHealth previous = latest.get(serverName);
+      if (previous != null && previous.getCheckedAtMillis() > health.getCheckedAtMillis()) {
+        return;
+      }
+      latest.put(serverName, health);
+      if (previous == null || previous.isHealthy() != health.isHealthy()) {
+        if (history.size() == config.getHistorySize()) {
+          history.removeFirst();
+        }
+        history.addLast(new HealthTransition(serverName.getName(), previous == null ? null : previous.getStatus(),
+            health.getStatus(), health.getCheckedAtMillis(), health.getError()));
+      }
+    }
+  }
+
+  /**
+   * The latest result of a server, or null if it has not been checked yet.
+   */
+  public ServerHealth getLatest(ServerName serverName) {
+    return latest.get(serverName);
+  }
+
+  /**
+   * The latest result of every server that has been checked, ordered by server name.
+   */
+  public Map<String, ServerHealth> getAllLatest() {
+    Map<String, ServerHealth> all = new TreeMap<>();
+    for (Map.Entry<ServerName, ServerHealth> entry : latest.entrySet()) {
+      all.put(entry.getKey().getName(), entry.getValue());
+    }
+    return all;
+  }
+
+  /**
+   * The latest result of each of the given servers, ordered by server name, with an unknown result for a server that
+   * has not been checked yet.
+   */
+  public Map<String, ServerHealth> getLatestOf(Set<ServerName> serverNames) {
+    Map<String, ServerHealth> all = new TreeMap<>();
+    for (ServerName serverName : serverNames) {
+      ServerHealth health = latest.get(serverName);
+      all.put(serverName.getName(), health == null ? ServerHealth.unknown(serverName.getName()) : health);
+    }
+    return all;
+  }
+
+  /**
+   * The recorded transitions, newest first, optionally of one server only.
+   */
+  public List<HealthTransition> getHistory(String server, int limit) {
+    List<HealthTransition> transitions = new ArrayList<>();
+    synchronized (history) {
+      Iterator<HealthTransition> iterator = history.descendingIterator();
+      while (iterator.hasNext() && transitions.size() < limit) {
+        HealthTransition transition = iterator.next();
+        if (server == null || server.equals(transition.getServer())) {
+          transitions.add(transition);
+        }
+      }
+    }
+    return transitions;
+  }
+}
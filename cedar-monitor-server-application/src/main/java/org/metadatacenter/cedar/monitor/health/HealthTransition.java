@@ -0,0 +1,44 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A server going from healthy to unhealthy or back. The first observation of a server has no previous status.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HealthTransition {
+
+  private final String server;
+  private final String fromStatus;
+  private final String toStatus;
+  private final long atMillis;
+  private final String error;
+
+  HealthTransition(String server, String fromStatus, String toStatus, long atMillis, String error) {
+    this.server = server;
+    this.fromStatus = fromStatus;
+    this.toStatus = toStatus;
+    this.atMillis = atMillis;
+    this.error = error;
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public String getFromStatus() {
+    return fromStatus;
+  }
+
+  public String getToStatus() {
+    return toStatus;
+  }
+
+  public long getAtMillis() {
+    return atMillis;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
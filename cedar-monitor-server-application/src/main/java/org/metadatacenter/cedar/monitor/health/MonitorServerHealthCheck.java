@@ -1,17 +1,135 @@
 package org.metadatacenter.cedar.monitor.health;
 
 import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public class MonitorServerHealthCheck extends HealthCheck {
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-  public MonitorServerHealthCheck() {
+/**
+ * Health of one dependency of the monitor. The dependency is probed on a background schedule, and {@link #check()}
+ * only returns the last cached result, so calling /healthcheck never touches a backend. A probe that does not
+ * answer within its budget, or a result that is too old, counts as unhealthy.
+ */
+public class MonitorServerHealthCheck extends HealthCheck implements Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(MonitorServerHealthCheck.class);
+
+  @FunctionalInterface
+  public interface Probe {
+    void probe() throws Exception;
+  }
+
+  private final String dependency;
+  private final Probe probe;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService probeExecutor;
+  private final long intervalMillis;
+  private final long timeoutMillis;
+  private final long maxAgeMillis;
+
+  private volatile Result latest;
+  private volatile long latestAtMillis;
+  private final AtomicBoolean probing = new AtomicBoolean();
+  private ScheduledFuture<?> task;
+
+  public MonitorServerHealthCheck(String dependency, Probe probe, ScheduledExecutorService scheduler,
+                                  ExecutorService probeExecutor, long intervalMillis, long timeoutMillis,
+                                  long maxAgeMillis) {
+    this.dependency = dependency;
+    this.probe = probe;
+    this.scheduler = scheduler;
+    this.probeExecutor = probeExecutor;
+    this.intervalMillis = intervalMillis;
+    this.timeoutMillis = timeoutMillis;
+    this.maxAgeMillis = maxAgeMillis;
+  }
+
+  @Override
+  public void start() {
+    task = scheduler.scheduleWithFixedDelay(this::refresh, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (task != null) {
+      task.cancel(false);
+    }
   }
 
   @Override
-  protected Result check() throws Exception {
-    if (2 * 2 == 5) {
-      return Result.unhealthy("Unhealthy, because 2 * 2 == 5");
+  protected Result check() {
+    Result result = latest;
+    if (result == null) {
+      return Result.unhealthy("%s has not been probed yet", dependency);
+    }
+    long ageMillis = System.currentTimeMillis() - latestAtMillis;
+    if (ageMillis > maxAgeMillis) {
+      return Result.builder().unhealthy().withMessage("Last probe of %s is %d ms old", dependency, ageMillis)
+          .withDetail("lastResult", result.getMessage()).build();
+    }
+    return result;
+  }
+
+  /**
+   * Runs one probe and caches its result. The probe runs on its own executor so that the wait can be bounded; a probe
+   * that hangs past its budget is interrupted, and no new one is started while it is still running.
+   */
+  synchronized void refresh() {
+    long start = System.nanoTime();
+    Result result;
+    if (probing.get()) {
+      result = unhealthy(start, "Previous probe of " + dependency + " is still running");
+    } else {
+      Future<?> running = null;
+      try {
+        running = probeExecutor.submit(() -> {
+          probing.set(true);
+          try {
+            probe.probe();
+          } finally {
+            probing.set(false);
+          }
+          return null;
+        });
+        running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        result = Result.builder().healthy().withDetail("latencyMs", elapsedMillis(start))
+            .withDetail("checkedAt", Instant.now().toString()).build();
+      } catch (TimeoutException e) {
+        running.cancel(true);
+        result = unhealthy(start, dependency + " did not answer within " + timeoutMillis + " ms");
+      } catch (ExecutionException e) {
+        result = unhealthy(start, dependency + " probe failed: " + e.getCause());
+      } catch (RejectedExecutionException e) {
+        result = unhealthy(start, "Unable to schedule the probe of " + dependency);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
     }
-    return Result.healthy();
+    if (!result.isHealthy() && (latest == null || latest.isHealthy())) {
+      log.warn("{} is unhealthy: {}", dependency, result.getMessage());
+    }
+    latest = result;
+    latestAtMillis = System.currentTimeMillis();
+  }
+
+  private static Result unhealthy(long start, String message) {
+    return Result.builder().unhealthy().withMessage(message).withDetail("latencyMs", elapsedMillis(start))
+        .withDetail("checkedAt", Instant.now().toString()).build();
+  }
+
+  private static long elapsedMillis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000;
   }
 }
@@ -0,0 +1,77 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one call to the admin healthcheck of a CEDAR server. The body is the parsed healthcheck document, or
+ * its text if it is not JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ServerHealth {
+
+  public static final String STATUS_HEALTHY = "healthy";
+  public static final String STATUS_UNHEALTHY = "unhealthy";
+  public static final String STATUS_TIMEOUT = "timeout";
+  public static final String STATUS_ERROR = "error";
+  public static final String STATUS_UNKNOWN = "unknown";
+
+  private final String server;
+  private final String status;
+  private final Integer httpStatus;
+  private final long latencyMs;
+  private final long checkedAtMillis;
+  private final Object body;
+  private final String error;
+
+  ServerHealth(String server, String status, Integer httpStatus, long latencyMs, long checkedAtMillis, Object body,
+               String error) {
+    this.server = server;
+    this.status = status;
+    this.httpStatus = httpStatus;
+    this.latencyMs = latencyMs;
+    this.checkedAtMillis = checkedAtMillis;
+    this.body = body;
+    this.error = error;
+  }
+
+  /**
+   * Stands in for a server that has not been checked yet.
+   */
+  public static ServerHealth unknown(String server) {
+    return new ServerHealth(server, STATUS_UNKNOWN, null, 0, 0, null, null);
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public Integer getHttpStatus() {
+    return httpStatus;
+  }
+
+  public long getLatencyMs() {
+    return latencyMs;
+  }
+
+  public long getCheckedAtMillis() {
+    return checkedAtMillis;
+  }
+
+  public Object getBody() {
+    return body;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  @JsonIgnore
+  public boolean isHealthy() {
+    return STATUS_HEALTHY.equals(status);
+  }
+}
@@ -0,0 +1,234 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.neo4j.Neo4jNodeReader;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+import org.metadatacenter.id.CedarFQResourceId;
+import org.metadatacenter.id.CedarFilesystemResourceId;
+import org.metadatacenter.id.CedarFolderId;
+import org.metadatacenter.id.CedarUntypedArtifactId;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.server.ResourcePermissionServiceSession;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+import static org.metadatacenter.constant.OpenSearchConstants.DOCUMENT_CEDAR_ID;
+
+/**
+ * Writes the info of many resources as NDJSON, one line per requested id, in request order. The ids are read from a
+ * JSON array and handled in fixed-size batches: each batch is resolved with one Neo4j query per resource type and one
+ * OpenSearch terms query, while the permissions of the batch are read concurrently with both. Only one batch is held
+ * in memory at a time. Sections left out of the {@link SectionSelection} are neither read nor written.
+ */
+public class BulkResourceInfoWriter {
+
+  public static final String SECTION_NEO4J = "neo4j";
+  public static final String SECTION_PERMISSIONS = "permissions";
+  public static final String SECTION_OPENSEARCH = "opensearch";
+  public static final List<String> BULK_SECTIONS = List.of(SECTION_NEO4J, SECTION_PERMISSIONS, SECTION_OPENSEARCH);
+
+  private final Neo4jNodeReader neo4jNodeReader;
+  private final OpenSearchClient openSearchClient;
+  private final DeadlineFanOut fanOut;
+  private final ResourceInfoConfig config;
+  private final ObjectMapper mapper;
+  private final BackendMetrics backendMetrics;
+
+  public BulkResourceInfoWriter(Neo4jNodeReader neo4jNodeReader, OpenSearchClient openSearchClient,
+                                DeadlineFanOut fanOut, ResourceInfoConfig config, ObjectMapper mapper,
+                                BackendMetrics backendMetrics) {
+    this.neo4jNodeReader = neo4jNodeReader;
+    this.openSearchClient = openSearchClient;
+    this.fanOut = fanOut;
+    this.config = config;
+    this.mapper = mapper;
+    this.backendMetrics = backendMetrics;
+  }
+
+  /**
+   * Consumes the ids following the current {@link JsonToken#START_ARRAY} of the parser and writes one line per id.
+   * The output is flushed after every batch. Input that stops being valid JSON ends the output with an error line,
+   * after the lines of the ids read up to that point.
+   */
+  public void write(JsonParser ids, ResourcePermissionServiceSession permissionSession, SectionSelection selection,
+                    OutputStream out) throws IOException {
+    JsonGenerator generator = mapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.setRootValueSeparator(null);
+
+    List<String> batch = new ArrayList<>(config.getBulkBatchSize());
+    Map<String, Object> error = null;
+    try {
+      JsonToken token;
+      while ((token = ids.nextToken()) != JsonToken.END_ARRAY) {
+        if (token == null) {
+          error = errorLine(null, "Unexpected end of input");
+          break;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+          batch.add(ids.getText());
+        } else {
+          ids.skipChildren();
+          writeLine(generator, errorLine(null, "Expected a string id, found " + token));
+        }
+        if (batch.size() == config.getBulkBatchSize()) {
+          writeBatch(batch, permissionSession, selection, generator);
+          batch.clear();
+        }
+      }
+    } catch (JsonProcessingException e) {
+      error = errorLine(null, "Invalid JSON: " + e.getOriginalMessage());
+    }
+    if (!batch.isEmpty()) {
+      writeBatch(batch, permissionSession, selection, generator);
+    }
+    if (error != null) {
+      writeLine(generator, error);
+    }
+    generator.flush();
+  }
+
+  private void writeBatch(List<String> batch, ResourcePermissionServiceSession permissionSession,
+                          SectionSelection selection, JsonGenerator generator) throws IOException {
+    Map<String, CedarResourceType> types = new HashMap<>();
+    Map<CedarResourceType, Set<String>> idsByType = new EnumMap<>(CedarResourceType.class);
+    Map<String, CedarFilesystemResourceId> filesystemIds = new LinkedHashMap<>();
+    for (String id : batch) {
+      CedarResourceType type = resourceType(id);
+      if (type != null && Neo4jNodeReader.getLabel(type) != null) {
+        types.put(id, type);
+        idsByType.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(id);
+        CedarFilesystemResourceId filesystemId = filesystemId(type, id);
+        if (filesystemId != null) {
+          filesystemIds.put(id, filesystemId);
+        }
+      }
+    }
+
+    DeadlineFanOut.Builder builder = fanOut.sections();
+    selection.add(builder, SECTION_NEO4J, config.getTimeoutMillis(SECTION_NEO4J), neo4j -> {
+      for (Map.Entry<CedarResourceType, Set<String>> entry : idsByType.entrySet()) {
+        neo4j.putAll(neo4jNodeReader.findNodesById(entry.getKey(), entry.getValue()));
+      }
+    });
+    selection.add(builder, SECTION_PERMISSIONS, config.getTimeoutMillis(SECTION_PERMISSIONS), permissions -> {
+      for (Map.Entry<String, CedarFilesystemResourceId> entry : filesystemIds.entrySet()) {
+        Map<String, Object> computed = new HashMap<>();
+        CedarFilesystemResourceId id = entry.getValue();
+        computed.put("permissions", backendMetrics.call(BackendMetrics.NEO4J, "getResourcePermissions",
+            () -> permissionSession.getResourcePermissions(id)));
+        computed.put("materializedPermissions", backendMetrics.call(BackendMetrics.NEO4J,
+            "getResourceMaterializedPermission", () -> permissionSession.getResourceMaterializedPermission(id)));
+        permissions.put(entry.getKey(), computed);
+      }
+    });
+    selection.add(builder, SECTION_OPENSEARCH, config.getTimeoutMillis(SECTION_OPENSEARCH), opensearch -> {
+      if (!filesystemIds.isEmpty()) {
+        opensearch.putAll(backendMetrics.call(BackendMetrics.OPENSEARCH, "findDocumentsById",
+            () -> findDocumentsById(filesystemIds.keySet())));
+      }
+    });
+    Map<String, SectionResult> sections = builder.run();
+
+    SectionResult neo4jResult = sections.get(SECTION_NEO4J);
+    Map<String, Object> neo4j = values(sections, SECTION_NEO4J);
+    Map<String, Object> permissions = values(sections, SECTION_PERMISSIONS);
+    Map<String, Object> opensearch = values(sections, SECTION_OPENSEARCH);
+    for (String id : batch) {
+      CedarResourceType type = types.get(id);
+      if (type == null) {
+        writeLine(generator, errorLine(id, "Unknown resource type"));
+        continue;
+      }
+      Map<String, Object> line = new LinkedHashMap<>();
+      line.put("id", id);
+      line.put("resourceType", type);
+      if (neo4j != null) {
+        // A node missing from a section that failed or timed out may still exist, so found is unknown then
+        line.put("found", neo4jResult.isOk() ? neo4j.containsKey(id) : null);
+        line.put("neo4j", neo4j.get(id));
+      }
+      if (filesystemIds.containsKey(id)) {
+        if (permissions != null) {
+          line.put("computed", permissions.get(id));
+        }
+        if (opensearch != null) {
+          Map<String, Object> document = new HashMap<>();
+          document.put("document", opensearch.get(id));
+          line.put("opensearch", document);
+        }
+      }
+      line.put(FilesystemResourceInfoAssembler.SECTIONS, sections);
+      writeLine(generator, line);
+    }
+    generator.flush();
+  }
+
+  /**
+   * Reads the OpenSearch documents of the given ids with a single terms query, keyed by id. Ids without a document
+   * are absent from the result.
+   */
+  private Map<String, Object> findDocumentsById(Collection<String> ids) throws Exception {
+    ObjectNode body = openSearchClient.createObjectNode();
+    body.put("size", ids.size());
+    ArrayNode terms = body.putObject("query").putObject("terms").putArray(DOCUMENT_CEDAR_ID);
+    for (String id : ids) {
+      terms.add(id);
+    }
+    Map<String, Object> documents = new HashMap<>();
+    for (JsonNode hit : openSearchClient.search(body).path("hits").path("hits")) {
+      JsonNode source = hit.path("_source");
+      documents.put(source.path(DOCUMENT_CEDAR_ID).asText(), mapper.convertValue(source, Map.class));
+    }
+    return documents;
+  }
+
+  private static Map<String, Object> values(Map<String, SectionResult> sections, String section) {
+    SectionResult result = sections.get(section);
+    return result == null ? null : result.getValues();
+  }
+
+  private static CedarResourceType resourceType(String id) {
+    CedarFQResourceId fqId = CedarFQResourceId.build(id);
+    return fqId == null ? null : fqId.getType();
+  }
+
+  private static CedarFilesystemResourceId filesystemId(CedarResourceType type, String id) {
+    switch (type) {
+      case FOLDER:
+        return CedarFolderId.build(id);
+      case FIELD:
+      case ELEMENT:
+      case TEMPLATE:
+      case INSTANCE:
+        return CedarUntypedArtifactId.build(id);
+      default:
+        return null;
+    }
+  }
+
+  private static Map<String, Object> errorLine(String id, String error) {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("id", id);
+    line.put("error", error);
+    return line;
+  }
+
+  private void writeLine(JsonGenerator generator, Map<String, Object> line) throws IOException {
+    mapper.writeValue(generator, line);
+    generator.writeRaw('\n');
+  }
+}
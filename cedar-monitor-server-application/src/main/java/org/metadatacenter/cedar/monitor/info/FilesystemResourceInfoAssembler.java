@@ -0,0 +1,153 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import org.metadatacenter.bridge.PathInfoBuilder;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.id.CedarFolderId;
+import org.metadatacenter.id.CedarUntypedArtifactId;
+import org.metadatacenter.model.folderserver.basic.FolderServerArtifact;
+import org.metadatacenter.model.folderserver.basic.FolderServerFolder;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.CategoryServiceSession;
+import org.metadatacenter.server.FolderServiceSession;
+import org.metadatacenter.server.ResourcePermissionServiceSession;
+import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
+import org.metadatacenter.util.artifact.ArtifactReportUtil;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the info document of artifacts and folders for the /resource/* endpoints. The report, the permissions and
+ * the OpenSearch document are read concurrently, each with its own deadline, and only when selected by the request.
+ * A section that fails or times out leaves its part of the document empty and is reported in the {@value #SECTIONS}
+ * block. The path is written into the Neo4j node itself, which is already part of the document and which the report
+ * reads, so it is added on the request thread before the concurrent sections start.
+ */
+public class FilesystemResourceInfoAssembler {
+
+  public static final String SECTIONS = "sections";
+  public static final String SECTION_PATH = "path";
+  public static final String SECTION_REPORT = "report";
+  public static final String SECTION_PERMISSIONS = "permissions";
+  public static final String SECTION_MATERIALIZED_PERMISSIONS = "materializedPermissions";
+  public static final String SECTION_OPENSEARCH = "opensearch";
+
+  public static final List<String> ARTIFACT_SECTIONS = List.of(SECTION_PATH, SECTION_REPORT, SECTION_PERMISSIONS,
+      SECTION_MATERIALIZED_PERMISSIONS, SECTION_OPENSEARCH);
+  public static final List<String> FOLDER_SECTIONS = List.of(SECTION_PATH, SECTION_PERMISSIONS,
+      SECTION_MATERIALIZED_PERMISSIONS, SECTION_OPENSEARCH);
+
+  private final CedarConfig cedarConfig;
+  private final NodeSearchingService nodeSearchingService;
+  private final DeadlineFanOut fanOut;
+  private final ResourceInfoConfig config;
+  private final BackendMetrics backendMetrics;
+
+  public FilesystemResourceInfoAssembler(CedarConfig cedarConfig, NodeSearchingService nodeSearchingService,
+                                         DeadlineFanOut fanOut, ResourceInfoConfig config,
+                                         BackendMetrics backendMetrics) {
+    this.cedarConfig = cedarConfig;
+    this.nodeSearchingService = nodeSearchingService;
+    this.fanOut = fanOut;
+    this.config = config;
+    this.backendMetrics = backendMetrics;
+  }
+
+  public FolderServerArtifact findArtifact(FolderServiceSession folderSession, CedarUntypedArtifactId aid) {
+    return backendMetrics.call(BackendMetrics.NEO4J, "findArtifactById", () -> folderSession.findArtifactById(aid));
+  }
+
+  public FolderServerFolder findFolder(FolderServiceSession folderSession, CedarFolderId fid) {
+    return backendMetrics.call(BackendMetrics.NEO4J, "findFolderById", () -> folderSession.findFolderById(fid));
+  }
+
+  public void readArtifactInfo(CedarRequestContext c, Map<String, Object> r, CedarUntypedArtifactId aid,
+                               FolderServerArtifact artifact, FolderServiceSession folderSession,
+                               CategoryServiceSession categorySession,
+                               ResourcePermissionServiceSession permissionSession, SectionSelection selection) {
+    r.put("resourceType", artifact.getType());
+
+    Map<String, Object> neo4j = new HashMap<>();
+    r.put("neo4j", neo4j);
+    neo4j.put("artifact", artifact);
+
+    // The report is built from the path and the parent id, so it needs them even when the path is not selected
+    if (selection.includes(SECTION_PATH) || selection.includes(SECTION_REPORT)) {
+      backendMetrics.run(BackendMetrics.NEO4J, "addPath", () -> {
+        folderSession.addPathAndParentId(artifact);
+        artifact.setPathInfo(PathInfoBuilder.getResourcePathExtract(c, folderSession, permissionSession, artifact));
+      });
+    }
+
+    DeadlineFanOut.Builder sections = fanOut.sections();
+    selection.add(sections, SECTION_REPORT, config.getTimeoutMillis(SECTION_REPORT), computed ->
+        computed.put("report", backendMetrics.call(BackendMetrics.NEO4J, "getArtifactReport",
+            () -> ArtifactReportUtil.getArtifactReport(c, cedarConfig, artifact, folderSession, permissionSession,
+                categorySession))));
+    selection.add(sections, SECTION_PERMISSIONS, config.getTimeoutMillis(SECTION_PERMISSIONS),
+        computed -> computed.put("permissions", backendMetrics.call(BackendMetrics.NEO4J, "getResourcePermissions",
+            () -> permissionSession.getResourcePermissions(aid))));
+    selection.add(sections, SECTION_MATERIALIZED_PERMISSIONS,
+        config.getTimeoutMillis(SECTION_MATERIALIZED_PERMISSIONS),
+        computed -> computed.put("materializedPermissions", backendMetrics.call(BackendMetrics.NEO4J,
+            "getResourceMaterializedPermission", () -> permissionSession.getResourceMaterializedPermission(aid))));
+    selection.add(sections, SECTION_OPENSEARCH, config.getTimeoutMillis(SECTION_OPENSEARCH),
+        opensearch -> opensearch.put("document", backendMetrics.call(BackendMetrics.OPENSEARCH,
+            "getDocumentByCedarId", () -> nodeSearchingService.getDocumentByCedarId(aid))));
+
+    putSections(r, sections.run());
+  }
+
+  public void readFolderInfo(CedarRequestContext c, Map<String, Object> r, CedarFolderId fid,
+                             FolderServerFolder folder, FolderServiceSession folderSession,
+                             ResourcePermissionServiceSession permissionSession, SectionSelection selection) {
+    r.put("resourceType", folder.getType());
+
+    Map<String, Object> neo4j = new HashMap<>();
+    r.put("neo4j", neo4j);
+    neo4j.put("folder", folder);
+
+    if (selection.includes(SECTION_PATH)) {
+      backendMetrics.run(BackendMetrics.NEO4J, "addPath", () -> {
+        folderSession.addPathAndParentId(folder);
+        folder.setPathInfo(PathInfoBuilder.getResourcePathExtract(c, folderSession, permissionSession, folder));
+      });
+    }
+
+    DeadlineFanOut.Builder sections = fanOut.sections();
+    selection.add(sections, SECTION_PERMISSIONS, config.getTimeoutMillis(SECTION_PERMISSIONS),
+        computed -> computed.put("permissions", backendMetrics.call(BackendMetrics.NEO4J, "getResourcePermissions",
+            () -> permissionSession.getResourcePermissions(fid))));
+    selection.add(sections, SECTION_MATERIALIZED_PERMISSIONS,
+        config.getTimeoutMillis(SECTION_MATERIALIZED_PERMISSIONS),
+        computed -> computed.put("materializedPermissions", backendMetrics.call(BackendMetrics.NEO4J,
+            "getResourceMaterializedPermission", () -> permissionSession.getResourceMaterializedPermission(fid))));
+    selection.add(sections, SECTION_OPENSEARCH, config.getTimeoutMillis(SECTION_OPENSEARCH),
+        opensearch -> opensearch.put("document", backendMetrics.call(BackendMetrics.OPENSEARCH,
+            "getDocumentByCedarId", () -> nodeSearchingService.getDocumentByCedarId(fid))));
+
+    putSections(r, sections.run());
+  }
+
+  /**
+   * Places the section values into the response: the report and permission sections together under "computed", the
+   * OpenSearch section under its own key.
+   */
+  private void putSections(Map<String, Object> r, Map<String, SectionResult> sections) {
+    Map<String, Object> computed = new HashMap<>();
+    for (Map.Entry<String, SectionResult> entry : sections.entrySet()) {
+      if (SECTION_OPENSEARCH.equals(entry.getKey())) {
+        r.put(entry.getKey(), entry.getValue().getValues());
+      } else {
+        computed.putAll(entry.getValue().getValues());
+      }
+    }
+    r.put("computed", computed);
+    r.put(SECTIONS, sections);
+  }
+}
@@ -0,0 +1,192 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.consistency.OpenSearchIdReader;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.neo4j.Neo4jNodeReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds the group lists of the /resource/groups document: the users of the group, from Neo4j, and the ids of the
+ * documents shared with it, from OpenSearch. Both lists can run to hundreds of thousands of entries, so neither is
+ * ever read whole: they are paged by id, search_after style, and the id of the last entry of a page is the cursor
+ * of the next one. A request gets one page of each list, their sizes, or both lists streamed into the response one
+ * page at a time.
+ */
+public class GroupInfoAssembler {
+
+  private static final Logger log = LoggerFactory.getLogger(GroupInfoAssembler.class);
+
+  public static final String SECTION_NEO4J = "neo4j";
+  public static final String SECTION_OPENSEARCH = "opensearch";
+  public static final List<String> GROUP_SECTIONS = List.of(SECTION_NEO4J, SECTION_OPENSEARCH);
+
+  public static final String GROUP_USERS = "groupUsers";
+  public static final String SEARCH_CEDAR_IDS = "searchCedarIds";
+  public static final String ITEMS = "items";
+  public static final String LIMIT = "limit";
+  public static final String NEXT = "next";
+  public static final String COUNT = "count";
+  public static final String ERROR = "error";
+
+  @FunctionalInterface
+  private interface PageReader<T> {
+    List<T> read(String afterId, int limit) throws Exception;
+  }
+
+  private final Neo4jNodeReader neo4jNodeReader;
+  private final OpenSearchIdReader openSearchIdReader;
+  private final DeadlineFanOut fanOut;
+  private final ResourceInfoConfig config;
+  private final ObjectMapper mapper;
+  private final BackendMetrics backendMetrics;
+
+  public GroupInfoAssembler(Neo4jNodeReader neo4jNodeReader, OpenSearchIdReader openSearchIdReader,
+                            DeadlineFanOut fanOut, ResourceInfoConfig config, ObjectMapper mapper,
+                            BackendMetrics backendMetrics) {
+    this.neo4jNodeReader = neo4jNodeReader;
+    this.openSearchIdReader = openSearchIdReader;
+    this.fanOut = fanOut;
+    this.config = config;
+    this.mapper = mapper;
+    this.backendMetrics = backendMetrics;
+  }
+
+  /**
+   * Reads one page of each selected list, starting after the given cursors. Each page holds its {@value #ITEMS} and
+   * the {@value #NEXT} cursor, null on the last page.
+   */
+  public void readPages(Map<String, Object> r, String groupId, SectionSelection selection, int limit,
+                        String usersAfter, String idsAfter) {
+    DeadlineFanOut.Builder sections = fanOut.sections();
+    selection.add(sections, SECTION_NEO4J, config.getTimeoutMillis(SECTION_NEO4J),
+        neo4j -> neo4j.put(GROUP_USERS, readPage(groupUsers(groupId), this::groupUserId, usersAfter, limit)));
+    selection.add(sections, SECTION_OPENSEARCH, config.getTimeoutMillis(SECTION_OPENSEARCH),
+        opensearch -> opensearch.put(SEARCH_CEDAR_IDS, readPage(searchCedarIds(groupId), id -> id, idsAfter, limit)));
+    putSections(r, sections.run());
+  }
+
+  /**
+   * Counts the selected lists without reading them: the members and administrators of the group, and the documents
+   * shared with it.
+   */
+  public void readCounts(Map<String, Object> r, String groupId, SectionSelection selection) {
+    DeadlineFanOut.Builder sections = fanOut.sections();
+    selection.add(sections, SECTION_NEO4J, config.getTimeoutMillis(SECTION_NEO4J),
+        neo4j -> neo4j.put(GROUP_USERS, neo4jNodeReader.countGroupUsers(groupId)));
+    selection.add(sections, SECTION_OPENSEARCH, config.getTimeoutMillis(SECTION_OPENSEARCH),
+        opensearch -> {
+          Map<String, Object> count = new HashMap<>();
+          count.put(COUNT, backendMetrics.call(BackendMetrics.OPENSEARCH, "countGroupIds",
+              () -> openSearchIdReader.countGroupIds(groupId)));
+          opensearch.put(SEARCH_CEDAR_IDS, count);
+        });
+    putSections(r, sections.run());
+  }
+
+  /**
+   * Writes the head fields followed by the selected lists in full, as one JSON object. The lists are read and
+   * written one page at a time, and the output is flushed after every page, so memory use does not depend on the
+   * size of the group. A list that fails midway is closed with the {@value #ERROR} and the {@value #NEXT} cursor to
+   * resume from in page mode.
+   */
+  public void write(Map<String, Object> head, String groupId, SectionSelection selection, OutputStream out)
+      throws IOException {
+    JsonGenerator generator = mapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    generator.writeStartObject();
+    for (Map.Entry<String, Object> entry : head.entrySet()) {
+      generator.writeObjectField(entry.getKey(), entry.getValue());
+    }
+    if (selection.includes(SECTION_NEO4J)) {
+      writeList(generator, GROUP_USERS, groupUsers(groupId), this::groupUserId);
+    }
+    if (selection.includes(SECTION_OPENSEARCH)) {
+      writeList(generator, SEARCH_CEDAR_IDS, searchCedarIds(groupId), id -> id);
+    }
+    generator.writeEndObject();
+    generator.flush();
+  }
+
+  private PageReader<Map<String, Object>> groupUsers(String groupId) {
+    return (afterId, limit) -> neo4jNodeReader.findGroupMembersAfter(groupId, afterId, limit);
+  }
+
+  private PageReader<String> searchCedarIds(String groupId) {
+    return (afterId, limit) -> backendMetrics.call(BackendMetrics.OPENSEARCH, "findGroupIdsAfter",
+        () -> openSearchIdReader.findGroupIdsAfter(groupId, afterId, limit));
+  }
+
+  private String groupUserId(Map<String, Object> groupUser) {
+    return String.valueOf(groupUser.get(Neo4jNodeReader.GROUP_USER_ID));
+  }
+
+  private <T> Map<String, Object> readPage(PageReader<T> reader, Function<T, String> idOf, String afterId,
+                                           int limit) throws Exception {
+    List<T> items = reader.read(afterId, limit);
+    Map<String, Object> page = new HashMap<>();
+    page.put(ITEMS, items);
+    page.put(LIMIT, limit);
+    page.put(NEXT, items.size() < limit ? null : idOf.apply(items.get(items.size() - 1)));
+    return page;
+  }
+
+  private <T> void writeList(JsonGenerator generator, String name, PageReader<T> reader, Function<T, String> idOf)
+      throws IOException {
+    int pageSize = config.getGroupPageSize();
+    generator.writeObjectFieldStart(name);
+    generator.writeArrayFieldStart(ITEMS);
+    String afterId = null;
+    long count = 0;
+    String error = null;
+    while (true) {
+      List<T> page;
+      try {
+        page = reader.read(afterId, pageSize);
+      } catch (Exception e) {
+        log.error("Error while streaming " + name + " after " + afterId, e);
+        error = String.valueOf(e.getMessage());
+        break;
+      }
+      for (T item : page) {
+        generator.writeObject(item);
+      }
+      count += page.size();
+      generator.flush();
+      if (page.size() < pageSize) {
+        break;
+      }
+      afterId = idOf.apply(page.get(page.size() - 1));
+    }
+    generator.writeEndArray();
+    generator.writeNumberField(COUNT, count);
+    if (error != null) {
+      generator.writeStringField(ERROR, error);
+      generator.writeStringField(NEXT, afterId);
+    }
+    generator.writeEndObject();
+  }
+
+  private void putSections(Map<String, Object> r, Map<String, SectionResult> sections) {
+    r.put(FilesystemResourceInfoAssembler.SECTIONS, sections);
+    if (sections.containsKey(SECTION_NEO4J)) {
+      r.put(GROUP_USERS, sections.get(SECTION_NEO4J).getValues().get(GROUP_USERS));
+    }
+    if (sections.containsKey(SECTION_OPENSEARCH)) {
+      r.put(SEARCH_CEDAR_IDS, sections.get(SECTION_OPENSEARCH).getValues().get(SEARCH_CEDAR_IDS));
+    }
+  }
+}
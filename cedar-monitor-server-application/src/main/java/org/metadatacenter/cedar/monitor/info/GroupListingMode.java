@@ -0,0 +1,43 @@
+package org.metadatacenter.cedar.monitor.info;
+
+/**
+ * How /resource/groups returns the users of a group and the ids of the documents shared with it.
+ */
+public enum GroupListingMode {
+
+  /**
+   * Both lists in full, read whole before the response is written. This is the original listing.
+   */
+  FULL("full"),
+  /**
+   * One page of each list, with the cursor of the next page.
+   */
+  PAGE("page"),
+  /**
+   * The size of each list only.
+   */
+  COUNT("count"),
+  /**
+   * Both lists in full, written page by page as they are read.
+   */
+  STREAM("stream");
+
+  private final String value;
+
+  GroupListingMode(String value) {
+    this.value = value;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public static GroupListingMode forValue(String value) {
+    for (GroupListingMode mode : values()) {
+      if (mode.value.equalsIgnoreCase(value)) {
+        return mode;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,91 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.util.http.CedarResponse;
+
+import javax.ws.rs.core.Response;
+import java.util.*;
+
+/**
+ * The sections a /resource/* request asked for, from its {@value #QP_INCLUDE} and {@value #QP_EXCLUDE} parameters.
+ * Both take a comma-separated list of section names. Without an include list every section is selected; the exclude
+ * list is then removed from the selection.
+ */
+public class SectionSelection {
+
+  public static final String QP_INCLUDE = "include";
+  public static final String QP_EXCLUDE = "exclude";
+
+  private final Set<String> selected;
+  private final Set<String> unknown;
+
+  private SectionSelection(Set<String> selected, Set<String> unknown) {
+    this.selected = selected;
+    this.unknown = unknown;
+  }
+
+  public static SectionSelection all(Collection<String> available) {
+    return new SectionSelection(new LinkedHashSet<>(available), Collections.emptySet());
+  }
+
+  public static SectionSelection of(String include, String exclude, Collection<String> available) {
+    Set<String> unknown = new TreeSet<>();
+    Set<String> included = names(include, available, unknown);
+    Set<String> excluded = names(exclude, available, unknown);
+
+    Set<String> selected = new LinkedHashSet<>(available);
+    if (included != null) {
+      selected.retainAll(included);
+    }
+    if (excluded != null) {
+      selected.removeAll(excluded);
+    }
+    return new SectionSelection(selected, unknown);
+  }
+
+  private static Set<String> names(String list, Collection<String> available, Set<String> unknown) {
+    if (list == null || list.trim().isEmpty()) {
+      return null;
+    }
+    Set<String> names = new HashSet<>();
+    for (String name : list.split(",")) {
+      String trimmed = name.trim();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      if (available.contains(trimmed)) {
+        names.add(trimmed);
+      } else {
+        unknown.add(trimmed);
+      }
+    }
+    return names;
+  }
+
+  public boolean includes(String section) {
+    return selected.contains(section);
+  }
+
+  public boolean isValid() {
+    return unknown.isEmpty();
+  }
+
+  public Set<String> getSelected() {
+    return Collections.unmodifiableSet(selected);
+  }
+
+  /**
+   * Adds the section to the fan-out only if it is selected.
+   */
+  public DeadlineFanOut.Builder add(DeadlineFanOut.Builder sections, String name, long timeoutMillis,
+                                    DeadlineFanOut.Section section) {
+    return includes(name) ? sections.add(name, timeoutMillis, section) : sections;
+  }
+
+  public Response badRequest() {
+    return CedarResponse.badRequest()
+        .errorMessage("Unknown section name")
+        .parameter("unknownSections", String.join(",", unknown))
+        .build();
+  }
+}
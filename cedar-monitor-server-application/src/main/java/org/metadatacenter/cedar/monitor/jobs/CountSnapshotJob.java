@@ -0,0 +1,38 @@
+package org.metadatacenter.cedar.monitor.jobs;
+
+import org.knowm.sundial.Job;
+import org.knowm.sundial.exceptions.JobInterruptException;
+import org.metadatacenter.cedar.monitor.drift.CountSnapshotRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sundial job that persists a count snapshot. Sundial instantiates jobs itself, so the recorder is injected
+ * statically at startup.
+ */
+public class CountSnapshotJob extends Job {
+
+  private static final Logger log = LoggerFactory.getLogger(CountSnapshotJob.class);
+
+  public static final String JOB_NAME = "countSnapshotJob";
+  public static final String TRIGGER_NAME = "countSnapshotTrigger";
+
+  private static CountSnapshotRecorder recorder;
+
+  public static void injectServices(CountSnapshotRecorder recorder) {
+    CountSnapshotJob.recorder = recorder;
+  }
+
+  @Override
+  public void doRun() throws JobInterruptException {
+    if (recorder == null) {
+      log.warn("Count snapshot job ran before the recorder was injected");
+      return;
+    }
+    try {
+      recorder.record();
+    } catch (Exception e) {
+      log.error("Error while recording count snapshot", e);
+    }
+  }
+}
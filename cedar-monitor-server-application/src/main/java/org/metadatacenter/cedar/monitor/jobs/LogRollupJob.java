@@ -0,0 +1,37 @@
+package org.metadatacenter.cedar.monitor.jobs;
+
+import org.knowm.sundial.Job;
+import org.knowm.sundial.exceptions.JobInterruptException;
+import org.metadatacenter.cedar.monitor.logging.LogRollupPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sundial job that folds new log rows into the rollup tables. The pipeline is injected statically at startup.
+ */
+public class LogRollupJob extends Job {
+
+  private static final Logger log = LoggerFactory.getLogger(LogRollupJob.class);
+
+  public static final String JOB_NAME = "logRollupJob";
+  public static final String TRIGGER_NAME = "logRollupTrigger";
+
+  private static LogRollupPipeline pipeline;
+
+  public static void injectServices(LogRollupPipeline pipeline) {
+    LogRollupJob.pipeline = pipeline;
+  }
+
+  @Override
+  public void doRun() throws JobInterruptException {
+    if (pipeline == null) {
+      log.warn("Log rollup job ran before the pipeline was injected");
+      return;
+    }
+    try {
+      pipeline.run();
+    } catch (Exception e) {
+      log.error("Error while rolling up the logs", e);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package org.metadatacenter.cedar.monitor.keycloak;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.dropwizard.lifecycle.Managed;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.server.security.KeycloakUtilInfo;
+import org.metadatacenter.server.security.KeycloakUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Long-lived Keycloak admin client shared by the monitor resources. The client, its HTTP connections and its admin
+ * token are reused across requests. A background task keeps the token fresh, so requests do not pay for the token
+ * round-trip when it is about to expire.
+ */
+public class KeycloakAdminClient implements Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(KeycloakAdminClient.class);
+
+  private final CedarConfig cedarConfig;
+  private final ScheduledExecutorService scheduler;
+  private final long minTokenValiditySeconds;
+  private final long tokenCheckIntervalMillis;
+
+  private final Timer calls;
+  private final Counter callErrors;
+  private final Counter tokenRefreshes;
+  private final Counter tokenRefreshErrors;
+  private final BackendMetrics backendMetrics;
+
+  private volatile Session session;
+  private String lastToken;
+  private ScheduledFuture<?> tokenTask;
+
+  public KeycloakAdminClient(CedarConfig cedarConfig, ScheduledExecutorService scheduler,
+                             long minTokenValiditySeconds, long tokenCheckIntervalMillis, MetricRegistry metrics,
+                             BackendMetrics backendMetrics) {
+    this.cedarConfig = cedarConfig;
+    this.scheduler = scheduler;
+    this.minTokenValiditySeconds = minTokenValiditySeconds;
+    this.tokenCheckIntervalMillis = tokenCheckIntervalMillis;
+    this.calls = metrics.timer(MetricRegistry.name(KeycloakAdminClient.class, "calls"));
+    this.callErrors = metrics.counter(MetricRegistry.name(KeycloakAdminClient.class, "callErrors"));
+    this.tokenRefreshes = metrics.counter(MetricRegistry.name(KeycloakAdminClient.class, "tokenRefreshes"));
+    this.tokenRefreshErrors = metrics.counter(MetricRegistry.name(KeycloakAdminClient.class, "tokenRefreshErrors"));
+    this.backendMetrics = backendMetrics;
+  }
+
+  @Override
+  public void start() {
+    tokenTask = scheduler.scheduleWithFixedDelay(this::checkToken, 0, tokenCheckIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (tokenTask != null) {
+      tokenTask.cancel(false);
+    }
+    synchronized (this) {
+      if (session != null) {
+        session.keycloak.close();
+        session = null;
+      }
+    }
+  }
+
+  /**
+   * Runs an operation against the CEDAR realm and records its latency, overall and under the given operation name.
+   */
+  public <T> T call(String operationName, Function<RealmResource, T> operation) {
+    try (Timer.Context ignored = calls.time()) {
+      return backendMetrics.call(BackendMetrics.KEYCLOAK, operationName, () -> {
+        Session s = session();
+        return operation.apply(s.keycloak.realm(s.realmName));
+      });
+    } catch (RuntimeException e) {
+      callErrors.inc();
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the client, building it on first use. Once built, the client is read without taking the lock, so
+   * concurrent calls do not contend on it.
+   */
+  private Session session() {
+    Session s = session;
+    if (s != null) {
+      return s;
+    }
+    synchronized (this) {
+      if (session == null) {
+        try {
+          KeycloakUtilInfo kcInfo = KeycloakUtils.initKeycloak(cedarConfig);
+          Keycloak kc = KeycloakUtils.buildKeycloak(kcInfo);
+          kc.tokenManager().setMinTokenValidity(minTokenValiditySeconds);
+          session = new Session(kc, kcInfo.getKeycloakRealmName());
+        } catch (Exception e) {
+          throw new IllegalStateException("Unable to build Keycloak admin client", e);
+        }
+      }
+      return session;
+    }
+  }
+
+  /**
+   * Asks the token manager for the access token. It refreshes the token once it is within the minimum validity
+   * window, which is what keeps request threads from having to do it.
+   */
+  private void checkToken() {
+    try {
+      String token = session().keycloak.tokenManager().getAccessTokenString();
+      synchronized (this) {
+        if (lastToken != null && !lastToken.equals(token)) {
+          tokenRefreshes.inc();
+        }
+        lastToken = token;
+      }
+    } catch (Exception e) {
+      tokenRefreshErrors.inc();
+      log.warn("Error while refreshing the Keycloak admin token", e);
+    }
+  }
+
+  /**
+   * The client together with the realm it works on, published as one value.
+   */
+  private static final class Session {
+
+    private final Keycloak keycloak;
+    private final String realmName;
+
+    private Session(Keycloak keycloak, String realmName) {
+      this.keycloak = keycloak;
+      this.realmName = realmName;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.hibernate.SessionFactory;
+import org.metadatacenter.cedar.monitor.config.LogAnalyticsConfig;
+import org.metadatacenter.cedar.monitor.cypher.CypherFingerprint;
+import org.metadatacenter.cedar.monitor.cypher.FingerprintTopK;
+import org.metadatacenter.cedar.monitor.latency.LatencyHistogram;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Ranks the Cypher query shapes of the ApplicationCypherLog table by the total time they took over a time window.
+ * Each logged query is reduced to its {@link CypherFingerprint}, and the fingerprints are aggregated in a
+ * {@link FingerprintTopK} of at most {@code logAnalytics.maxFingerprints} entries, however many rows the window has.
+ */
+public class CypherTopAnalyzer {
+
+  private static final String QUERY = "select r.query, r.duration " +
+      "from ApplicationCypherLog r where r.startTime >= :from and r.startTime < :to";
+
+  private final LogWindowScanner scanner;
+  private final LogAnalyticsConfig config;
+
+  public CypherTopAnalyzer(SessionFactory sessionFactory, LogAnalyticsConfig config) {
+    this.scanner = new LogWindowScanner(sessionFactory, config);
+    this.config = config;
+  }
+
+  public Map<String, Object> analyze(Instant from, Instant to, int k) {
+    FingerprintTopK topK = new FingerprintTopK(config.getMaxFingerprints());
+    long[] skippedRows = new long[1];
+    long[] totalMillis = new long[1];
+    long rows = scanner.scan(QUERY, from, to, Map.of(), row -> {
+      if (!(row[1] instanceof Number) || ((Number) row[1]).longValue() < 0) {
+        skippedRows[0]++;
+        return;
+      }
+      long duration = ((Number) row[1]).longValue();
+      totalMillis[0] += duration;
+      topK.record(CypherFingerprint.of((String) row[0]), duration);
+    });
+
+    List<Map<String, Object>> fingerprints = new ArrayList<>();
+    for (FingerprintTopK.FingerprintStats stats : topK.top(k)) {
+      LatencyHistogram histogram = stats.getHistogram();
+      Map<String, Object> fingerprint = new LinkedHashMap<>();
+      fingerprint.put("fingerprint", stats.getFingerprint());
+      fingerprint.put("count", stats.getCount());
+      fingerprint.put("totalMillis", stats.getTotalMillis());
+      fingerprint.put("overcountMillis", stats.getOvercountMillis());
+      fingerprint.put("shareOfTotal", totalMillis[0] == 0 ? 0.0 : (double) stats.getTotalMillis() / totalMillis[0]);
+      fingerprint.put("p50", histogram.getValueAtPercentile(50));
+      fingerprint.put("p95", histogram.getValueAtPercentile(95));
+      fingerprint.put("p99", histogram.getValueAtPercentile(99));
+      fingerprint.put("max", histogram.getMax());
+      fingerprints.add(fingerprint);
+    }
+
+    Map<String, Object> r = new LinkedHashMap<>();
+    r.put("rows", rows);
+    r.put("skippedRows", skippedRows[0]);
+    r.put("totalMillis", totalMillis[0]);
+    r.put("trackedFingerprints", topK.size());
+    r.put("evictions", topK.getEvictions());
+    r.put("fingerprints", fingerprints);
+    return r;
+  }
+}
@@ -0,0 +1,356 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.context.internal.ManagedSessionContext;
+import org.metadatacenter.cedar.monitor.config.LogRollupConfig;
+import org.metadatacenter.cedar.monitor.cypher.CypherFingerprint;
+import org.metadatacenter.cedar.monitor.logging.dao.CypherLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RequestLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RollupCheckpointDAO;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CypherLogRollup;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RequestLogRollup;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RollupCheckpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Folds new request and Cypher log rows into per-minute and per-hour rollup tables. Each source is read in id order
+ * from its checkpoint, one batch per transaction; the rollups of a batch and the advanced checkpoint are committed
+ * together, so an interrupted run resumes exactly where the last commit left off. A batch that fails to commit is
+ * folded again one row per transaction, and a row that still fails is logged and skipped, so one bad row cannot hold
+ * the checkpoint back.
+ */
+public class LogRollupPipeline {
+
+  private static final Logger log = LoggerFactory.getLogger(LogRollupPipeline.class);
+
+  public static final String SOURCE_REQUESTS = "requestLog";
+  public static final String SOURCE_CYPHER = "cypherLog";
+
+  private static final String REQUEST_ROWS = "select r.id, r.systemComponent, r.httpMethod, r.path, r.statusCode, " +
+      "r.duration, r.startTime from ApplicationRequestLog r where r.id > :lastId order by r.id";
+  private static final String CYPHER_ROWS = "select r.id, r.query, r.duration, r.startTime " +
+      "from ApplicationCypherLog r where r.id > :lastId order by r.id";
+
+  private static final int MAX_SERVER_LENGTH = 64;
+  private static final int MAX_ENDPOINT_LENGTH = 255;
+  private static final int MAX_FINGERPRINT_LENGTH = 4096;
+
+  private final SessionFactory sessionFactory;
+  private final RequestLogRollupDAO requestLogRollupDAO;
+  private final CypherLogRollupDAO cypherLogRollupDAO;
+  private final RollupCheckpointDAO rollupCheckpointDAO;
+  private final LogRollupConfig config;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+  private volatile Map<String, Object> lastRun;
+
+  public LogRollupPipeline(SessionFactory sessionFactory, RequestLogRollupDAO requestLogRollupDAO,
+                           CypherLogRollupDAO cypherLogRollupDAO, RollupCheckpointDAO rollupCheckpointDAO,
+                           LogRollupConfig config) {
+    this.sessionFactory = sessionFactory;
+    this.requestLogRollupDAO = requestLogRollupDAO;
+    this.cypherLogRollupDAO = cypherLogRollupDAO;
+    this.rollupCheckpointDAO = rollupCheckpointDAO;
+    this.config = config;
+  }
+
+  /**
+   * Folds the rows added since the last run, at most {@code maxBatchesPerRun} batches per source. Does nothing if a
+   * run is already in progress.
+   */
+  public void run() {
+    if (!running.compareAndSet(false, true)) {
+      log.info("Log rollup already running, skipping");
+      return;
+    }
+    try {
+      Map<String, Object> run = new LinkedHashMap<>();
+      run.put("startedAt", Instant.now().toString());
+      run.put(SOURCE_REQUESTS, drain(SOURCE_REQUESTS, this::foldRequestBatch));
+      run.put(SOURCE_CYPHER, drain(SOURCE_CYPHER, this::foldCypherBatch));
+      run.put("finishedAt", Instant.now().toString());
+      lastRun = run;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * The last run and the checkpoints. Must be called within a unit of work.
+   */
+  public Map<String, Object> describe() {
+    Map<String, Object> r = new LinkedHashMap<>();
+    r.put("running", running.get());
+    r.put("lastRun", lastRun);
+    r.put("checkpoints", rollupCheckpointDAO.findAll());
+    return r;
+  }
+
+  private Map<String, Object> drain(String source, IntFunction<Integer> foldBatch) {
+    long rows = 0;
+    long skippedRows = 0;
+    for (int i = 0; i < config.getMaxBatchesPerRun(); i++) {
+      int batchRows;
+      try {
+        batchRows = inTransaction(() -> foldBatch.apply(config.getBatchSize()));
+      } catch (RuntimeException e) {
+        log.warn("Error while folding a batch of {} rows, folding it row by row", source, e);
+        batchRows = 0;
+        while (batchRows < config.getBatchSize()) {
+          int folded;
+          try {
+            folded = inTransaction(() -> foldBatch.apply(1));
+          } catch (RuntimeException rowError) {
+            folded = inTransaction(() -> skipRow(source, rowError));
+            skippedRows += folded;
+          }
+          if (folded == 0) {
+            break;
+          }
+          batchRows += folded;
+        }
+      }
+      rows += batchRows;
+      if (batchRows < config.getBatchSize()) {
+        break;
+      }
+    }
+    Map<String, Object> r = new LinkedHashMap<>();
+    r.put("rows", rows);
+    r.put("skippedRows", skippedRows);
+    return r;
+  }
+
+  /**
+   * Moves the checkpoint past the next row without folding it.
+   */
+  private int skipRow(String source, RuntimeException cause) {
+    RollupCheckpoint checkpoint = checkpoint(source);
+    List<Object[]> rows = readBatch(source, checkpoint.getLastId(), 1);
+    if (!rows.isEmpty()) {
+      log.error("Skipping {} row {}, which cannot be folded", source, rows.get(0)[0], cause);
+    }
+    advance(checkpoint, rows);
+    return rows.size();
+  }
+
+  private int foldRequestBatch(int limit) {
+    RollupCheckpoint checkpoint = checkpoint(SOURCE_REQUESTS);
+    List<Object[]> rows = readBatch(SOURCE_REQUESTS, checkpoint.getLastId(), limit);
+
+    Map<RollupGranularity, Map<List<Object>, Delta>> deltas = new EnumMap<>(RollupGranularity.class);
+    for (Object[] row : rows) {
+      Instant time = toInstant(row[6]);
+      if (time == null || !(row[5] instanceof Number) || ((Number) row[5]).longValue() < 0) {
+        continue;
+      }
+      String server = row[1] == null ? "?" : truncate(String.valueOf(row[1]), MAX_SERVER_LENGTH);
+      String endpoint = truncate(RequestLatencyAnalyzer.endpointOf((String) row[2], (String) row[3]),
+          MAX_ENDPOINT_LENGTH);
+      int status = row[4] instanceof Number ? ((Number) row[4]).intValue() : 0;
+      for (RollupGranularity granularity : RollupGranularity.values()) {
+        List<Object> key = List.of(granularity.bucketOf(time), server, endpoint, status);
+        deltas.computeIfAbsent(granularity, g -> new HashMap<>()).computeIfAbsent(key, k -> new Delta())
+            .add(((Number) row[5]).longValue());
+      }
+    }
+
+    for (Map.Entry<RollupGranularity, Map<List<Object>, Delta>> entry : deltas.entrySet()) {
+      String granularity = entry.getKey().getValue();
+      Map<List<Object>, RequestLogRollup> existing = new HashMap<>();
+      for (RequestLogRollup rollup : requestLogRollupDAO.findInBuckets(granularity, buckets(entry.getValue()))) {
+        existing.put(List.of(rollup.getBucketStart(), rollup.getServer(), rollup.getEndpoint(), rollup.getStatus()),
+            rollup);
+      }
+      for (Map.Entry<List<Object>, Delta> delta : entry.getValue().entrySet()) {
+        RequestLogRollup rollup = existing.get(delta.getKey());
+        if (rollup == null) {
+          rollup = new RequestLogRollup();
+          rollup.setGranularity(granularity);
+          rollup.setBucketStart((Instant) delta.getKey().get(0));
+          rollup.setServer((String) delta.getKey().get(1));
+          rollup.setEndpoint((String) delta.getKey().get(2));
+          rollup.setStatus((Integer) delta.getKey().get(3));
+          delta.getValue().applyTo(rollup);
+          requestLogRollupDAO.create(rollup);
+        } else {
+          delta.getValue().applyTo(rollup);
+        }
+      }
+    }
+
+    advance(checkpoint, rows);
+    return rows.size();
+  }
+
+  private int foldCypherBatch(int limit) {
+    RollupCheckpoint checkpoint = checkpoint(SOURCE_CYPHER);
+    List<Object[]> rows = readBatch(SOURCE_CYPHER, checkpoint.getLastId(), limit);
+
+    Map<RollupGranularity, Map<List<Object>, Delta>> deltas = new EnumMap<>(RollupGranularity.class);
+    Map<String, String> fingerprints = new HashMap<>();
+    for (Object[] row : rows) {
+      Instant time = toInstant(row[3]);
+      if (time == null || !(row[2] instanceof Number) || ((Number) row[2]).longValue() < 0) {
+        continue;
+      }
+      String fingerprint = CypherFingerprint.of((String) row[1]);
+      String hash = sha1(fingerprint);
+      fingerprints.putIfAbsent(hash, truncate(fingerprint, MAX_FINGERPRINT_LENGTH));
+      for (RollupGranularity granularity : RollupGranularity.values()) {
+        List<Object> key = List.of(granularity.bucketOf(time), hash);
+        deltas.computeIfAbsent(granularity, g -> new HashMap<>()).computeIfAbsent(key, k -> new Delta())
+            .add(((Number) row[2]).longValue());
+      }
+    }
+
+    for (Map.Entry<RollupGranularity, Map<List<Object>, Delta>> entry : deltas.entrySet()) {
+      String granularity = entry.getKey().getValue();
+      Map<List<Object>, CypherLogRollup> existing = new HashMap<>();
+      for (CypherLogRollup rollup : cypherLogRollupDAO.findInBuckets(granularity, buckets(entry.getValue()))) {
+        existing.put(List.of(rollup.getBucketStart(), rollup.getFingerprintHash()), rollup);
+      }
+      for (Map.Entry<List<Object>, Delta> delta : entry.getValue().entrySet()) {
+        CypherLogRollup rollup = existing.get(delta.getKey());
+        if (rollup == null) {
+          String hash = (String) delta.getKey().get(1);
+          rollup = new CypherLogRollup();
+          rollup.setGranularity(granularity);
+          rollup.setBucketStart((Instant) delta.getKey().get(0));
+          rollup.setFingerprintHash(hash);
+          rollup.setFingerprint(fingerprints.get(hash));
+          delta.getValue().applyTo(rollup);
+          cypherLogRollupDAO.create(rollup);
+        } else {
+          delta.getValue().applyTo(rollup);
+        }
+      }
+    }
+
+    advance(checkpoint, rows);
+    return rows.size();
+  }
+
+  /**
+   * Reads at most limit rows of the source with an id above lastId, in id order.
+   */
+  protected List<Object[]> readBatch(String source, long lastId, int limit) {
+    return sessionFactory.getCurrentSession()
+        .createQuery(SOURCE_REQUESTS.equals(source) ? REQUEST_ROWS : CYPHER_ROWS, Object[].class)
+        .setParameter("lastId", lastId)
+        .setReadOnly(true)
+        .setMaxResults(limit)
+        .list();
+  }
+
+  private RollupCheckpoint checkpoint(String source) {
+    RollupCheckpoint checkpoint = rollupCheckpointDAO.find(source);
+    if (checkpoint == null) {
+      checkpoint = new RollupCheckpoint();
+      checkpoint.setSource(source);
+      rollupCheckpointDAO.save(checkpoint);
+    }
+    return checkpoint;
+  }
+
+  private static void advance(RollupCheckpoint checkpoint, List<Object[]> rows) {
+    if (!rows.isEmpty()) {
+      checkpoint.setLastId(((Number) rows.get(rows.size() - 1)[0]).longValue());
+      checkpoint.setUpdatedAt(Instant.now());
+    }
+  }
+
+  protected <T> T inTransaction(Supplier<T> work) {
+    Session session = sessionFactory.openSession();
+    try {
+      ManagedSessionContext.bind(session);
+      Transaction transaction = session.beginTransaction();
+      try {
+        T result = work.get();
+        transaction.commit();
+        return result;
+      } catch (RuntimeException e) {
+        transaction.rollback();
+        throw e;
+      }
+    } finally {
+      ManagedSessionContext.unbind(sessionFactory);
+      session.close();
+    }
+  }
+
+  private static Set<Instant> buckets(Map<List<Object>, Delta> deltas) {
+    Set<Instant> buckets = new HashSet<>();
+    for (List<Object> key : deltas.keySet()) {
+      buckets.add((Instant) key.get(0));
+    }
+    return buckets;
+  }
+
+  private static Instant toInstant(Object time) {
+    if (time instanceof LocalDateTime) {
+      return ((LocalDateTime) time).toInstant(ZoneOffset.UTC);
+    } else if (time instanceof Instant) {
+      return (Instant) time;
+    } else if (time instanceof Date) {
+      return ((Date) time).toInstant();
+    }
+    return null;
+  }
+
+  private static String truncate(String value, int maxLength) {
+    return value.length() <= maxLength ? value : value.substring(0, maxLength);
+  }
+
+  private static String sha1(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class Delta {
+
+    private long count;
+    private long totalMillis;
+    private long maxMillis;
+
+    void add(long durationMillis) {
+      count++;
+      totalMillis += durationMillis;
+      maxMillis = Math.max(maxMillis, durationMillis);
+    }
+
+    void applyTo(RequestLogRollup rollup) {
+      rollup.setCallCount(rollup.getCallCount() + count);
+      rollup.setTotalMillis(rollup.getTotalMillis() + totalMillis);
+      rollup.setMaxMillis(Math.max(rollup.getMaxMillis(), maxMillis));
+    }
+
+    void applyTo(CypherLogRollup rollup) {
+      rollup.setCallCount(rollup.getCallCount() + count);
+      rollup.setTotalMillis(rollup.getTotalMillis() + totalMillis);
+      rollup.setMaxMillis(Math.max(rollup.getMaxMillis(), maxMillis));
+    }
+  }
+}
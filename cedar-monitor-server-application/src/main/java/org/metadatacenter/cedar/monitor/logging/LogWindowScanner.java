@@ -0,0 +1,60 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.Query;
+import org.metadatacenter.cedar.monitor.config.LogAnalyticsConfig;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Scrolls forward-only over the rows of a log query through a stateless session, handing each row to a consumer. The
+ * query must declare the {@code :from} and {@code :to} parameters of its time window.
+ */
+class LogWindowScanner {
+
+  private final SessionFactory sessionFactory;
+  private final LogAnalyticsConfig config;
+
+  LogWindowScanner(SessionFactory sessionFactory, LogAnalyticsConfig config) {
+    this.sessionFactory = sessionFactory;
+    this.config = config;
+  }
+
+  /**
+   * @return the number of rows scanned
+   */
+  long scan(String hql, Instant from, Instant to, Map<String, Object> parameters, Consumer<Object[]> consumer) {
+    long rows = 0;
+    StatelessSession session = sessionFactory.openStatelessSession();
+    try {
+      Query<Object[]> query = session.createQuery(hql, Object[].class)
+          .setParameter("from", LocalDateTime.ofInstant(from, ZoneOffset.UTC))
+          .setParameter("to", LocalDateTime.ofInstant(to, ZoneOffset.UTC))
+          .setReadOnly(true)
+          .setFetchSize(config.getFetchSize())
+          .setTimeout((int) config.getQueryTimeout().toSeconds());
+      for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+        query.setParameter(parameter.getKey(), parameter.getValue());
+      }
+      ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+      try {
+        while (results.next()) {
+          rows++;
+          consumer.accept(results.get());
+        }
+      } finally {
+        results.close();
+      }
+    } finally {
+      session.close();
+    }
+    return rows;
+  }
+}
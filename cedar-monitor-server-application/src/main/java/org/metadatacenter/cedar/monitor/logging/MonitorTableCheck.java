@@ -0,0 +1,52 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import javax.persistence.Table;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks at startup that the logging database has the tables of the monitor's own entities. The tables are only
+ * created automatically when the shared CEDAR Hibernate configuration sets hbm2ddl.auto=update; without them the
+ * snapshot and rollup jobs would fail on every run, so the server refuses to start instead and names the script that
+ * creates them.
+ */
+public class MonitorTableCheck {
+
+  public static final String DDL_RESOURCE = "db/monitor-tables.sql";
+
+  private final SessionFactory sessionFactory;
+
+  public MonitorTableCheck(SessionFactory sessionFactory) {
+    this.sessionFactory = sessionFactory;
+  }
+
+  /**
+   * @throws IllegalStateException if the table of any of the entities is missing
+   */
+  public void verify(Class<?>... entities) {
+    List<String> missing = new ArrayList<>();
+    try (Session session = sessionFactory.openSession()) {
+      session.doWork(connection -> {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (Class<?> entity : entities) {
+          String table = entity.getAnnotation(Table.class).name();
+          try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+            if (!tables.next()) {
+              missing.add(table);
+            }
+          }
+        }
+      });
+    }
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException("The logging database has no table " + String.join(", ", missing) +
+          ". Create the monitor tables with " + DDL_RESOURCE + " from the monitor server jar, or set " +
+          "hibernate.hbm2ddl.auto=update in the logging database configuration.");
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.hibernate.SessionFactory;
+import org.metadatacenter.cedar.monitor.config.LogAnalyticsConfig;
+import org.metadatacenter.cedar.monitor.latency.LatencyHistogram;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Computes request latency percentiles per server and endpoint from the ApplicationRequestLog table. The rows of the
+ * window are scrolled forward-only through a stateless session, so neither the result set nor the first-level cache
+ * grows with the window; only one {@link LatencyHistogram} per endpoint is kept.
+ */
+public class RequestLatencyAnalyzer {
+
+  public static final String OTHER_ENDPOINTS = "(other)";
+
+  private static final String QUERY = "select r.systemComponent, r.httpMethod, r.path, r.duration " +
+      "from ApplicationRequestLog r where r.startTime >= :from and r.startTime < :to";
+  private static final String SERVER_FILTER = " and r.systemComponent = :server";
+
+  private static final String ID_PLACEHOLDER = "{id}";
+  private static final Pattern ID_SEGMENT = Pattern.compile("\\d+|[0-9a-fA-F-]{16,}|.*[%:@].*");
+
+  private final LogWindowScanner scanner;
+  private final LogAnalyticsConfig config;
+
+  public RequestLatencyAnalyzer(SessionFactory sessionFactory, LogAnalyticsConfig config) {
+    this.scanner = new LogWindowScanner(sessionFactory, config);
+    this.config = config;
+  }
+
+  /**
+   * @param server only analyze the requests of this server, or all servers if null
+   * @param top    the number of endpoints reported per server, slowest p99 first
+   */
+  public Map<String, Object> analyze(Instant from, Instant to, String server, int top) {
+    LatencyScan scan = new LatencyScan(config.getMaxEndpoints());
+    Map<String, Object> parameters = server == null ? Map.of() : Map.of("server", server);
+    long rows = scanner.scan(server == null ? QUERY : QUERY + SERVER_FILTER, from, to, parameters, scan::accept);
+
+    List<Map<String, Object>> servers = new ArrayList<>();
+    for (Map.Entry<String, Map<String, LatencyHistogram>> entry : scan.histograms.entrySet()) {
+      servers.add(serverSummary(entry.getKey(), entry.getValue(), top));
+    }
+
+    Map<String, Object> r = new LinkedHashMap<>();
+    r.put("rows", rows);
+    r.put("skippedRows", scan.skippedRows);
+    r.put("endpointLimitReached", scan.endpointLimitReached);
+    r.put("servers", servers);
+    return r;
+  }
+
+  /**
+   * The histograms of one scan, keyed by server and endpoint. Once {@code maxEndpoints} endpoints are tracked, the
+   * requests to further endpoints are recorded under {@value #OTHER_ENDPOINTS} of their server.
+   */
+  private static class LatencyScan {
+
+    private final Map<String, Map<String, LatencyHistogram>> histograms = new TreeMap<>();
+    private final int maxEndpoints;
+    private int endpointCount;
+    private long skippedRows;
+    private boolean endpointLimitReached;
+
+    LatencyScan(int maxEndpoints) {
+      this.maxEndpoints = maxEndpoints;
+    }
+
+    void accept(Object[] row) {
+      if (!(row[3] instanceof Number) || ((Number) row[3]).longValue() < 0) {
+        skippedRows++;
+        return;
+      }
+      Map<String, LatencyHistogram> serverHistograms = histograms.computeIfAbsent(String.valueOf(row[0]),
+          s -> new HashMap<>());
+      String endpoint = endpointOf((String) row[1], (String) row[2]);
+      LatencyHistogram histogram = serverHistograms.get(endpoint);
+      if (histogram == null) {
+        if (endpointCount >= maxEndpoints) {
+          endpointLimitReached = true;
+          histogram = serverHistograms.computeIfAbsent(OTHER_ENDPOINTS, e -> new LatencyHistogram());
+        } else {
+          endpointCount++;
+          histogram = new LatencyHistogram();
+          serverHistograms.put(endpoint, histogram);
+        }
+      }
+      histogram.record(((Number) row[3]).longValue());
+    }
+  }
+
+  private static Map<String, Object> serverSummary(String server, Map<String, LatencyHistogram> endpointHistograms,
+                                                   int top) {
+    LatencyHistogram total = new LatencyHistogram();
+    List<Map.Entry<String, LatencyHistogram>> endpoints = new ArrayList<>(endpointHistograms.entrySet());
+    for (Map.Entry<String, LatencyHistogram> endpoint : endpoints) {
+      total.add(endpoint.getValue());
+    }
+    endpoints.sort(Comparator.comparingLong(
+        (Map.Entry<String, LatencyHistogram> e) -> e.getValue().getValueAtPercentile(99)).reversed());
+
+    List<Map<String, Object>> endpointSummaries = new ArrayList<>();
+    for (Map.Entry<String, LatencyHistogram> endpoint : endpoints.subList(0, Math.min(top, endpoints.size()))) {
+      Map<String, Object> summary = new LinkedHashMap<>();
+      summary.put("endpoint", endpoint.getKey());
+      putPercentiles(summary, endpoint.getValue());
+      endpointSummaries.add(summary);
+    }
+
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("server", server);
+    putPercentiles(summary, total);
+    summary.put("endpointCount", endpoints.size());
+    summary.put("endpoints", endpointSummaries);
+    return summary;
+  }
+
+  private static void putPercentiles(Map<String, Object> summary, LatencyHistogram histogram) {
+    summary.put("count", histogram.getTotalCount());
+    summary.put("p50", histogram.getValueAtPercentile(50));
+    summary.put("p95", histogram.getValueAtPercentile(95));
+    summary.put("p99", histogram.getValueAtPercentile(99));
+    summary.put("max", histogram.getMax());
+  }
+
+  /**
+   * The method and the path of a request, with the path segments that carry ids (numbers, UUIDs, encoded IRIs)
+   * replaced by a placeholder, so that all requests to one endpoint share a histogram.
+   */
+  static String endpointOf(String httpMethod, String path) {
+    StringBuilder endpoint = new StringBuilder();
+    endpoint.append(httpMethod == null ? "?" : httpMethod).append(' ');
+    if (path == null || path.isEmpty()) {
+      return endpoint.append('/').toString();
+    }
+    int queryStart = path.indexOf('?');
+    String plainPath = queryStart < 0 ? path : path.substring(0, queryStart);
+    for (String segment : plainPath.split("/")) {
+      if (segment.isEmpty()) {
+        continue;
+      }
+      endpoint.append('/').append(ID_SEGMENT.matcher(segment).matches() ? ID_PLACEHOLDER : segment);
+    }
+    if (plainPath.isEmpty() || plainPath.equals("/")) {
+      endpoint.append('/');
+    }
+    return endpoint.toString();
+  }
+}
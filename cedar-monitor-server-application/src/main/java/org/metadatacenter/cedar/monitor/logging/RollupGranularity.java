@@ -0,0 +1,35 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+
+  MINUTE("minute", ChronoUnit.MINUTES),
+  HOUR("hour", ChronoUnit.HOURS);
+
+  private final String value;
+  private final ChronoUnit unit;
+
+  RollupGranularity(String value, ChronoUnit unit) {
+    this.value = value;
+    this.unit = unit;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public Instant bucketOf(Instant instant) {
+    return instant.truncatedTo(unit);
+  }
+
+  public static RollupGranularity forValue(String value) {
+    for (RollupGranularity granularity : values()) {
+      if (granularity.value.equals(value)) {
+        return granularity;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,30 @@
+package org.metadatacenter.cedar.monitor.logging.dao;
+
+import io.dropwizard.hibernate.AbstractDAO;
+import org.hibernate.SessionFactory;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CountSnapshot;
+
+import java.time.Instant;
+import java.util.List;
+
+public class CountSnapshotDAO extends AbstractDAO<CountSnapshot> {
+
+  public CountSnapshotDAO(SessionFactory sessionFactory) {
+    super(sessionFactory);
+  }
+
+  public CountSnapshot create(CountSnapshot snapshot) {
+    return persist(snapshot);
+  }
+
+  /**
+   * Returns the most recent snapshots of the given type taken since the given instant, newest first.
+   */
+  public List<CountSnapshot> findLatestByType(String resourceType, Instant since, int limit) {
+    return list(query("from CountSnapshot s where s.resourceType = :resourceType and s.capturedAt >= :since " +
+        "order by s.capturedAt desc")
+        .setParameter("resourceType", resourceType)
+        .setParameter("since", since)
+        .setMaxResults(limit));
+  }
+}
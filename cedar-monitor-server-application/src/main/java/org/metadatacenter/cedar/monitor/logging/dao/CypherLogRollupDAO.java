@@ -0,0 +1,42 @@
+package org.metadatacenter.cedar.monitor.logging.dao;
+
+import io.dropwizard.hibernate.AbstractDAO;
+import org.hibernate.SessionFactory;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CypherLogRollup;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public class CypherLogRollupDAO extends AbstractDAO<CypherLogRollup> {
+
+  public CypherLogRollupDAO(SessionFactory sessionFactory) {
+    super(sessionFactory);
+  }
+
+  public CypherLogRollup create(CypherLogRollup rollup) {
+    return persist(rollup);
+  }
+
+  public List<CypherLogRollup> findInBuckets(String granularity, Collection<Instant> bucketStarts) {
+    return list(query("from CypherLogRollup c where c.granularity = :granularity and c.bucketStart in :buckets")
+        .setParameter("granularity", granularity)
+        .setParameterList("buckets", bucketStarts));
+  }
+
+  /**
+   * Returns the fingerprints with the largest total duration over the buckets starting in [from, to), as rows of
+   * fingerprint, call count, total and max milliseconds.
+   */
+  public List<Object[]> findTopFingerprints(String granularity, Instant from, Instant to, int limit) {
+    return currentSession().createQuery("select max(c.fingerprint), sum(c.callCount), sum(c.totalMillis), " +
+            "max(c.maxMillis) from CypherLogRollup c where c.granularity = :granularity " +
+            "and c.bucketStart >= :from and c.bucketStart < :to " +
+            "group by c.fingerprintHash order by sum(c.totalMillis) desc", Object[].class)
+        .setParameter("granularity", granularity)
+        .setParameter("from", from)
+        .setParameter("to", to)
+        .setMaxResults(limit)
+        .list();
+  }
+}
@@ -0,0 +1,16 @@
+package org.metadatacenter.cedar.monitor.logging.dao;
+
+import io.dropwizard.hibernate.AbstractDAO;
+import org.hibernate.SessionFactory;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.QueueDepthSnapshot;
+
+public class QueueDepthSnapshotDAO extends AbstractDAO<QueueDepthSnapshot> {
+
+  public QueueDepthSnapshotDAO(SessionFactory sessionFactory) {
+    super(sessionFactory);
+  }
+
+  public QueueDepthSnapshot create(QueueDepthSnapshot snapshot) {
+    return persist(snapshot);
+  }
+}
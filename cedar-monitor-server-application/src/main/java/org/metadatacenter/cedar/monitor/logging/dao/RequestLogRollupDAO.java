@@ -0,0 +1,56 @@
+package org.metadatacenter.cedar.monitor.logging.dao;
+
+import io.dropwizard.hibernate.AbstractDAO;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RequestLogRollup;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public class RequestLogRollupDAO extends AbstractDAO<RequestLogRollup> {
+
+  public RequestLogRollupDAO(SessionFactory sessionFactory) {
+    super(sessionFactory);
+  }
+
+  public RequestLogRollup create(RequestLogRollup rollup) {
+    return persist(rollup);
+  }
+
+  public List<RequestLogRollup> findInBuckets(String granularity, Collection<Instant> bucketStarts) {
+    return list(query("from RequestLogRollup r where r.granularity = :granularity and r.bucketStart in :buckets")
+        .setParameter("granularity", granularity)
+        .setParameterList("buckets", bucketStarts));
+  }
+
+  /**
+   * Returns the rollups of the buckets starting in [from, to), oldest first, optionally restricted to one server
+   * and one endpoint.
+   */
+  public List<RequestLogRollup> findRange(String granularity, Instant from, Instant to, String server,
+                                          String endpoint, int limit) {
+    StringBuilder hql = new StringBuilder("from RequestLogRollup r where r.granularity = :granularity " +
+        "and r.bucketStart >= :from and r.bucketStart < :to");
+    if (server != null) {
+      hql.append(" and r.server = :server");
+    }
+    if (endpoint != null) {
+      hql.append(" and r.endpoint = :endpoint");
+    }
+    hql.append(" order by r.bucketStart, r.server, r.endpoint, r.status");
+    Query<RequestLogRollup> query = query(hql.toString())
+        .setParameter("granularity", granularity)
+        .setParameter("from", from)
+        .setParameter("to", to)
+        .setMaxResults(limit);
+    if (server != null) {
+      query.setParameter("server", server);
+    }
+    if (endpoint != null) {
+      query.setParameter("endpoint", endpoint);
+    }
+    return list(query);
+  }
+}
@@ -0,0 +1,26 @@
+package org.metadatacenter.cedar.monitor.logging.dao;
+
+import io.dropwizard.hibernate.AbstractDAO;
+import org.hibernate.SessionFactory;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RollupCheckpoint;
+
+import java.util.List;
+
+public class RollupCheckpointDAO extends AbstractDAO<RollupCheckpoint> {
+
+  public RollupCheckpointDAO(SessionFactory sessionFactory) {
+    super(sessionFactory);
+  }
+
+  public RollupCheckpoint find(String source) {
+    return get(source);
+  }
+
+  public RollupCheckpoint save(RollupCheckpoint checkpoint) {
+    return persist(checkpoint);
+  }
+
+  public List<RollupCheckpoint> findAll() {
+    return list(query("from RollupCheckpoint c order by c.source"));
+  }
+}
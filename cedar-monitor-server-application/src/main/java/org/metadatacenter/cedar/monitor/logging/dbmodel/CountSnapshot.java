@@ -0,0 +1,78 @@
+package org.metadatacenter.cedar.monitor.logging.dbmodel;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * The number of resources of one type held by each store at one point in time. A store that could not be read in
+ * time has a null count.
+ */
+@Entity
+@Table(name = "monitor_count_snapshot",
+    indexes = @Index(name = "idx_monitor_count_snapshot_type_time", columnList = "resourceType,capturedAt"))
+public class CountSnapshot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Instant capturedAt;
+
+  @Column(nullable = false, length = 32)
+  private String resourceType;
+
+  private Long neo4jCount;
+
+  private Long mongoCount;
+
+  private Long opensearchCount;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Instant getCapturedAt() {
+    return capturedAt;
+  }
+
+  public void setCapturedAt(Instant capturedAt) {
+    this.capturedAt = capturedAt;
+  }
+
+  public String getResourceType() {
+    return resourceType;
+  }
+
+  public void setResourceType(String resourceType) {
+    this.resourceType = resourceType;
+  }
+
+  public Long getNeo4jCount() {
+    return neo4jCount;
+  }
+
+  public void setNeo4jCount(Long neo4jCount) {
+    this.neo4jCount = neo4jCount;
+  }
+
+  public Long getMongoCount() {
+    return mongoCount;
+  }
+
+  public void setMongoCount(Long mongoCount) {
+    this.mongoCount = mongoCount;
+  }
+
+  public Long getOpensearchCount() {
+    return opensearchCount;
+  }
+
+  public void setOpensearchCount(Long opensearchCount) {
+    this.opensearchCount = opensearchCount;
+  }
+}
@@ -0,0 +1,105 @@
+package org.metadatacenter.cedar.monitor.logging.dbmodel;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * The calls of one Cypher query fingerprint within one minute or hour bucket, folded from the Cypher log. The
+ * fingerprint is keyed by its SHA-1, since the text itself is too long to index.
+ */
+@Entity
+@Table(name = "monitor_cypher_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_monitor_cypher_rollup_key",
+        columnNames = {"granularity", "bucketStart", "fingerprintHash"}),
+    indexes = @Index(name = "idx_monitor_cypher_rollup_bucket", columnList = "granularity,bucketStart"))
+public class CypherLogRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 8)
+  private String granularity;
+
+  @Column(nullable = false)
+  private Instant bucketStart;
+
+  @Column(nullable = false, length = 40)
+  private String fingerprintHash;
+
+  @Column(nullable = false, length = 4096)
+  private String fingerprint;
+
+  @Column(nullable = false)
+  private long callCount;
+
+  @Column(nullable = false)
+  private long totalMillis;
+
+  @Column(nullable = false)
+  private long maxMillis;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getGranularity() {
+    return granularity;
+  }
+
+  public void setGranularity(String granularity) {
+    this.granularity = granularity;
+  }
+
+  public Instant getBucketStart() {
+    return bucketStart;
+  }
+
+  public void setBucketStart(Instant bucketStart) {
+    this.bucketStart = bucketStart;
+  }
+
+  public String getFingerprintHash() {
+    return fingerprintHash;
+  }
+
+  public void setFingerprintHash(String fingerprintHash) {
+    this.fingerprintHash = fingerprintHash;
+  }
+
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public void setFingerprint(String fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  public long getCallCount() {
+    return callCount;
+  }
+
+  public void setCallCount(long callCount) {
+    this.callCount = callCount;
+  }
+
+  public long getTotalMillis() {
+    return totalMillis;
+  }
+
+  public void setTotalMillis(long totalMillis) {
+    this.totalMillis = totalMillis;
+  }
+
+  public long getMaxMillis() {
+    return maxMillis;
+  }
+
+  public void setMaxMillis(long maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+}
@@ -0,0 +1,58 @@
+package org.metadatacenter.cedar.monitor.logging.dbmodel;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * The length of one Redis queue at one point in time.
+ */
+@Entity
+@Table(name = "monitor_queue_depth_snapshot",
+    indexes = @Index(name = "idx_monitor_queue_depth_snapshot_queue_time", columnList = "queueId,capturedAt"))
+public class QueueDepthSnapshot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private Instant capturedAt;
+
+  @Column(nullable = false, length = 64)
+  private String queueId;
+
+  @Column(nullable = false)
+  private long depth;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Instant getCapturedAt() {
+    return capturedAt;
+  }
+
+  public void setCapturedAt(Instant capturedAt) {
+    this.capturedAt = capturedAt;
+  }
+
+  public String getQueueId() {
+    return queueId;
+  }
+
+  public void setQueueId(String queueId) {
+    this.queueId = queueId;
+  }
+
+  public long getDepth() {
+    return depth;
+  }
+
+  public void setDepth(long depth) {
+    this.depth = depth;
+  }
+}
@@ -0,0 +1,115 @@
+package org.metadatacenter.cedar.monitor.logging.dbmodel;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * The requests of one server, endpoint and status within one minute or hour bucket, folded from the request log.
+ */
+@Entity
+@Table(name = "monitor_request_rollup",
+    uniqueConstraints = @UniqueConstraint(name = "uk_monitor_request_rollup_key",
+        columnNames = {"granularity", "bucketStart", "server", "endpoint", "status"}),
+    indexes = @Index(name = "idx_monitor_request_rollup_bucket", columnList = "granularity,bucketStart"))
+public class RequestLogRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false, length = 8)
+  private String granularity;
+
+  @Column(nullable = false)
+  private Instant bucketStart;
+
+  @Column(nullable = false, length = 64)
+  private String server;
+
+  @Column(nullable = false)
+  private String endpoint;
+
+  @Column(nullable = false)
+  private int status;
+
+  @Column(nullable = false)
+  private long callCount;
+
+  @Column(nullable = false)
+  private long totalMillis;
+
+  @Column(nullable = false)
+  private long maxMillis;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getGranularity() {
+    return granularity;
+  }
+
+  public void setGranularity(String granularity) {
+    this.granularity = granularity;
+  }
+
+  public Instant getBucketStart() {
+    return bucketStart;
+  }
+
+  public void setBucketStart(Instant bucketStart) {
+    this.bucketStart = bucketStart;
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public void setServer(String server) {
+    this.server = server;
+  }
+
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  public void setEndpoint(String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  public int getStatus() {
+    return status;
+  }
+
+  public void setStatus(int status) {
+    this.status = status;
+  }
+
+  public long getCallCount() {
+    return callCount;
+  }
+
+  public void setCallCount(long callCount) {
+    this.callCount = callCount;
+  }
+
+  public long getTotalMillis() {
+    return totalMillis;
+  }
+
+  public void setTotalMillis(long totalMillis) {
+    this.totalMillis = totalMillis;
+  }
+
+  public long getMaxMillis() {
+    return maxMillis;
+  }
+
+  public void setMaxMillis(long maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+}
@@ -0,0 +1,46 @@
+package org.metadatacenter.cedar.monitor.logging.dbmodel;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * The id of the last log row folded into the rollups of one source. It is written in the same transaction as the
+ * rollups, so a row is never counted twice nor skipped.
+ */
+@Entity
+@Table(name = "monitor_rollup_checkpoint")
+public class RollupCheckpoint {
+
+  @Id
+  @Column(length = 32)
+  private String source;
+
+  @Column(nullable = false)
+  private long lastId;
+
+  private Instant updatedAt;
+
+  public String getSource() {
+    return source;
+  }
+
+  public void setSource(String source) {
+    this.source = source;
+  }
+
+  public long getLastId() {
+    return lastId;
+  }
+
+  public void setLastId(long lastId) {
+    this.lastId = lastId;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
@@ -0,0 +1,127 @@
+package org.metadatacenter.cedar.monitor.metrics;
+
+import io.dropwizard.lifecycle.Managed;
+import org.metadatacenter.cedar.monitor.concurrent.CachedSnapshot;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.counts.ResourceCountsCollector;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthRingBuffer;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthSampler;
+import org.metadatacenter.model.CedarResourceType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the /metrics scrape from values already held in memory: the latest queue depth sampled by the
+ * {@link QueueDepthSampler}, and the last resource counts snapshot, which this class refreshes on its own schedule.
+ * A scrape never reaches a backend, so its cost does not depend on how slow the backends are.
+ */
+public class MonitorMetricsCollector implements Managed {
+
+  private static final List<String> COUNT_STORES = List.of(ResourceCountsCollector.NEO4J,
+      ResourceCountsCollector.MONGO, ResourceCountsCollector.OPENSEARCH);
+  private static final List<CedarResourceType> RESOURCE_TYPES = List.of(CedarResourceType.USER,
+      CedarResourceType.GROUP, CedarResourceType.CATEGORY, CedarResourceType.FOLDER, CedarResourceType.FIELD,
+      CedarResourceType.ELEMENT, CedarResourceType.TEMPLATE, CedarResourceType.INSTANCE);
+
+  private final QueueDepthSampler queueDepthSampler;
+  private final CachedSnapshot<Map<String, Object>> countsSnapshot;
+  private final ScheduledExecutorService scheduler;
+  private final long countsIntervalMillis;
+  private ScheduledFuture<?> task;
+
+  public MonitorMetricsCollector(QueueDepthSampler queueDepthSampler,
+                                 CachedSnapshot<Map<String, Object>> countsSnapshot,
+                                 ScheduledExecutorService scheduler, long countsIntervalMillis) {
+    this.queueDepthSampler = queueDepthSampler;
+    this.countsSnapshot = countsSnapshot;
+    this.scheduler = scheduler;
+    this.countsIntervalMillis = countsIntervalMillis;
+  }
+
+  @Override
+  public void start() {
+    // refresh() only hands the work to the snapshot executor, and joins a computation that is already running
+    task = scheduler.scheduleWithFixedDelay(countsSnapshot::refresh, 0, countsIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (task != null) {
+      task.cancel(false);
+    }
+  }
+
+  public String scrape() {
+    OpenMetricsWriter w = new OpenMetricsWriter();
+    writeQueues(w);
+    CachedSnapshot.Snapshot<Map<String, Object>> snapshot = countsSnapshot.peek();
+    if (snapshot != null) {
+      writeCounts(w, snapshot);
+    }
+    return w.finish();
+  }
+
+  private void writeQueues(OpenMetricsWriter w) {
+    w.family("cedar_queue_depth", OpenMetricsWriter.GAUGE, "Number of messages waiting in a Redis queue");
+    long oldest = Long.MAX_VALUE;
+    for (Map.Entry<String, QueueDepthRingBuffer> entry : queueDepthSampler.getBuffers().entrySet()) {
+      QueueDepthRingBuffer.Samples latest = entry.getValue().snapshot(1);
+      if (latest.size() > 0) {
+        w.sample(latest.getDepths()[0], "queue", entry.getKey());
+        oldest = Math.min(oldest, latest.getTimestamps()[0]);
+      }
+    }
+    if (oldest != Long.MAX_VALUE) {
+      w.family("cedar_queue_depth_age_seconds", OpenMetricsWriter.GAUGE,
+          "Age of the oldest of the latest queue depth samples");
+      w.sample(ageSeconds(oldest));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeCounts(OpenMetricsWriter w, CachedSnapshot.Snapshot<Map<String, Object>> snapshot) {
+    Map<String, Object> counts = snapshot.getValue();
+    w.family("cedar_resource_count", OpenMetricsWriter.GAUGE, "Number of resources of one type held by a store");
+    for (String store : COUNT_STORES) {
+      Object values = counts.get(store);
+      if (values instanceof Map) {
+        Map<String, Object> storeCounts = (Map<String, Object>) values;
+        for (CedarResourceType type : RESOURCE_TYPES) {
+          Object count = storeCounts.get(type.getValue());
+          if (count instanceof Number) {
+            w.sample(((Number) count).doubleValue(), "store", store, "resource_type", type.getValue());
+          }
+        }
+      }
+    }
+
+    Object keycloak = counts.get(ResourceCountsCollector.KEYCLOAK);
+    if (keycloak instanceof Map && ((Map<String, Object>) keycloak).get("user") instanceof Number) {
+      w.family("cedar_keycloak_users", OpenMetricsWriter.GAUGE, "Number of users in the Keycloak realm");
+      w.sample(((Number) ((Map<String, Object>) keycloak).get("user")).doubleValue());
+    }
+
+    Object backends = counts.get(ResourceCountsCollector.BACKENDS);
+    if (backends instanceof Map) {
+      w.family("cedar_resource_counts_backend_up", OpenMetricsWriter.GAUGE,
+          "Whether a store answered the last count collection in time");
+      for (Map.Entry<String, Object> entry : new TreeMap<>((Map<String, Object>) backends).entrySet()) {
+        if (entry.getValue() instanceof SectionResult) {
+          w.sample(((SectionResult) entry.getValue()).isOk() ? 1 : 0, "store", entry.getKey());
+        }
+      }
+    }
+
+    w.family("cedar_resource_counts_age_seconds", OpenMetricsWriter.GAUGE, "Age of the resource counts snapshot");
+    w.sample(ageSeconds(snapshot.getComputedAt()));
+  }
+
+  private static double ageSeconds(long timestampMillis) {
+    return Math.max(0, System.currentTimeMillis() - timestampMillis) / 1000.0;
+  }
+}
@@ -0,0 +1,153 @@
+package org.metadatacenter.cedar.monitor.neo4j;
+
+import io.dropwizard.lifecycle.Managed;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.config.Neo4jConfig;
+import org.metadatacenter.model.CedarResourceType;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Values;
+
+import java.util.*;
+
+/**
+ * Reads CEDAR nodes straight from Neo4j, many at a time. The CEDAR sessions only look nodes up one by one; this
+ * reader resolves a whole batch of ids of the same type with a single query.
+ */
+public class Neo4jNodeReader implements Managed {
+
+  public static final String ID_PROPERTY = "@id";
+  public static final String GROUP_USER_ID = "id";
+  public static final String GROUP_USER_ADMINISTRATOR = "administrator";
+  public static final String GROUP_MEMBERS = "members";
+  public static final String GROUP_ADMINISTRATORS = "administrators";
+
+  private static final String MEMBER_OF = "MEMBEROF";
+  private static final String ADMINISTERS = "ADMINISTERS";
+
+  private static final Map<CedarResourceType, String> LABELS = new EnumMap<>(CedarResourceType.class);
+
+  static {
+    LABELS.put(CedarResourceType.FIELD, "Field");
+    LABELS.put(CedarResourceType.ELEMENT, "Element");
+    LABELS.put(CedarResourceType.TEMPLATE, "Template");
+    LABELS.put(CedarResourceType.INSTANCE, "Instance");
+    LABELS.put(CedarResourceType.FOLDER, "Folder");
+    LABELS.put(CedarResourceType.USER, "User");
+    LABELS.put(CedarResourceType.GROUP, "Group");
+    LABELS.put(CedarResourceType.CATEGORY, "Category");
+  }
+
+  private final Neo4jConfig neo4jConfig;
+  private final BackendMetrics backendMetrics;
+  private volatile Driver driver;
+
+  public Neo4jNodeReader(Neo4jConfig neo4jConfig, BackendMetrics backendMetrics) {
+    this.neo4jConfig = neo4jConfig;
+    this.backendMetrics = backendMetrics;
+  }
+
+  @Override
+  public void start() {
+    driver = GraphDatabase.driver(neo4jConfig.getUri(),
+        AuthTokens.basic(neo4jConfig.getUserName(), neo4jConfig.getUserPassword()));
+  }
+
+  @Override
+  public void stop() {
+    if (driver != null) {
+      driver.close();
+    }
+  }
+
+  /**
+   * Checks that the driver can reach the database.
+   */
+  public void ping() {
+    backendMetrics.run(BackendMetrics.NEO4J, "verifyConnectivity", driver::verifyConnectivity);
+  }
+
+  public static String getLabel(CedarResourceType resourceType) {
+    return LABELS.get(resourceType);
+  }
+
+  /**
+   * Returns the properties of the nodes with the given ids, keyed by id. Ids that have no node are absent from the
+   * result.
+   */
+  public Map<String, Map<String, Object>> findNodesById(CedarResourceType resourceType, Collection<String> ids) {
+    String label = getLabel(resourceType);
+    if (label == null) {
+      throw new IllegalArgumentException("No node label for resource type " + resourceType);
+    }
+    String cypher = "MATCH (n:" + label + ") WHERE n.`" + ID_PROPERTY + "` IN $ids RETURN n";
+    try (Session session = driver.session()) {
+      List<Record> records = backendMetrics.call(BackendMetrics.NEO4J, "findNodesById", () ->
+          session.readTransaction(tx -> tx.run(cypher, Values.parameters("ids", new ArrayList<>(ids))).list()));
+      Map<String, Map<String, Object>> nodes = new HashMap<>();
+      for (Record record : records) {
+        Map<String, Object> properties = record.get("n").asNode().asMap();
+        nodes.put(String.valueOf(properties.get(ID_PROPERTY)), properties);
+      }
+      return nodes;
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} ids of the given type that sort after {@code afterId}, in ascending order.
+   */
+  public List<String> findIdsAfter(CedarResourceType resourceType, String afterId, int limit) {
+    String label = getLabel(resourceType);
+    if (label == null) {
+      throw new IllegalArgumentException("No node label for resource type " + resourceType);
+    }
+    String cypher = "MATCH (n:" + label + ") WHERE $after IS NULL OR n.`" + ID_PROPERTY + "` > $after " +
+        "RETURN n.`" + ID_PROPERTY + "` AS id ORDER BY id LIMIT $limit";
+    try (Session session = driver.session()) {
+      return backendMetrics.call(BackendMetrics.NEO4J, "findIdsAfter", () -> session.readTransaction(tx ->
+          tx.run(cypher, Values.parameters("after", afterId, "limit", limit)).list(r -> r.get("id").asString())));
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} users of the group whose ids sort after {@code afterId}, in ascending order. The
+   * users are its members and its administrators. Each user has its id under {@value #GROUP_USER_ID} and whether it
+   * administers the group under {@value #GROUP_USER_ADMINISTRATOR}.
+   */
+  public List<Map<String, Object>> findGroupMembersAfter(String groupId, String afterId, int limit) {
+    String cypher = "MATCH (u:User)-[:" + MEMBER_OF + "|" + ADMINISTERS + "]->(g:Group {`" + ID_PROPERTY +
+        "`: $group}) " +
+        "WHERE $after IS NULL OR u.`" + ID_PROPERTY + "` > $after " +
+        "WITH DISTINCT u, g " +
+        "RETURN u.`" + ID_PROPERTY + "` AS " + GROUP_USER_ID + ", " +
+        "EXISTS { MATCH (u)-[:" + ADMINISTERS + "]->(g) } AS " + GROUP_USER_ADMINISTRATOR + " " +
+        "ORDER BY " + GROUP_USER_ID + " LIMIT $limit";
+    try (Session session = driver.session()) {
+      return backendMetrics.call(BackendMetrics.NEO4J, "findGroupMembersAfter", () -> session.readTransaction(tx ->
+          tx.run(cypher, Values.parameters("group", groupId, "after", afterId, "limit", limit)).list(Record::asMap)));
+    }
+  }
+
+  /**
+   * Counts the users of the group, administrators included, and its administrators, under {@value #GROUP_MEMBERS}
+   * and {@value #GROUP_ADMINISTRATORS}. Both are zero for an unknown group.
+   */
+  public Map<String, Object> countGroupUsers(String groupId) {
+    String cypher = "MATCH (g:Group {`" + ID_PROPERTY + "`: $group}) " +
+        "OPTIONAL MATCH (m:User)-[:" + MEMBER_OF + "|" + ADMINISTERS + "]->(g) " +
+        "WITH g, count(DISTINCT m) AS " + GROUP_MEMBERS + " " +
+        "OPTIONAL MATCH (a:User)-[:" + ADMINISTERS + "]->(g) " +
+        "RETURN " + GROUP_MEMBERS + ", count(DISTINCT a) AS " + GROUP_ADMINISTRATORS;
+    try (Session session = driver.session()) {
+      List<Record> records = backendMetrics.call(BackendMetrics.NEO4J, "countGroupUsers", () ->
+          session.readTransaction(tx -> tx.run(cypher, Values.parameters("group", groupId)).list()));
+      Map<String, Object> counts = new HashMap<>();
+      counts.put(GROUP_MEMBERS, records.isEmpty() ? 0L : records.get(0).get(GROUP_MEMBERS).asLong());
+      counts.put(GROUP_ADMINISTRATORS, records.isEmpty() ? 0L : records.get(0).get(GROUP_ADMINISTRATORS).asLong());
+      return counts;
+    }
+  }
+}
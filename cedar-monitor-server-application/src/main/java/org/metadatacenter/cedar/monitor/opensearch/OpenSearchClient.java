@@ -0,0 +1,109 @@
+package org.metadatacenter.cedar.monitor.opensearch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.config.OpenSearchConfig;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Talks to the REST API of the OpenSearch search index directly. NodeSearchingService has no sorted scroll, no
+ * aggregations and no batch lookup, so every monitor read that needs one of those goes through this client. All
+ * readers share it, and with it one set of connections. The index is the CEDAR search index, reached through the
+ * host and REST port of the CEDAR config, as IndexUtils does.
+ */
+public class OpenSearchClient {
+
+  private final HttpClient httpClient;
+  private final ObjectMapper mapper;
+  private final URI indexUri;
+  private final Duration requestTimeout;
+  private final URI searchUri;
+  private final URI countUri;
+
+  public OpenSearchClient(HttpClient httpClient, ObjectMapper mapper, URI indexUri, Duration requestTimeout) {
+    this.httpClient = httpClient;
+    this.mapper = mapper;
+    this.indexUri = indexUri;
+    this.requestTimeout = requestTimeout;
+    this.searchUri = indexUri.resolve("_search");
+    this.countUri = indexUri.resolve("_count");
+  }
+
+  /**
+   * The URI of the CEDAR search index, with a trailing slash.
+   */
+  public static URI indexUri(CedarConfig cedarConfig) {
+    OpenSearchConfig openSearchConfig = cedarConfig.getOpenSearchConfig();
+    return URI.create("http://" + openSearchConfig.getHost() + ":" + openSearchConfig.getRestPort() + "/"
+        + openSearchConfig.getIndexes().getSearchIndex().getName() + "/");
+  }
+
+  public ObjectNode createObjectNode() {
+    return mapper.createObjectNode();
+  }
+
+  /**
+   * Runs a search request against the index and returns the whole response.
+   */
+  public JsonNode search(ObjectNode body) throws IOException, InterruptedException {
+    return post(searchUri, body);
+  }
+
+  /**
+   * Counts the documents of the index that match the query, without reading them.
+   */
+  public long count(ObjectNode query) throws IOException, InterruptedException {
+    ObjectNode body = mapper.createObjectNode();
+    body.set("query", query);
+    return post(countUri, body).path("count").asLong();
+  }
+
+  /**
+   * Fails unless the index exists and answers.
+   */
+  public void checkIndex() throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(indexUri)
+        .timeout(requestTimeout)
+        .method("HEAD", HttpRequest.BodyPublishers.noBody())
+        .build();
+    int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    if (status != 200) {
+      throw new IOException("OpenSearch returned " + status + " for " + indexUri);
+    }
+  }
+
+  /**
+   * Checks the index once at startup, so that a monitor pointed at the wrong OpenSearch does not start.
+   */
+  public void verifyIndex() {
+    try {
+      checkIndex();
+    } catch (IOException e) {
+      throw new IllegalStateException("The OpenSearch index " + indexUri + " is not reachable", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while checking the OpenSearch index " + indexUri, e);
+    }
+  }
+
+  private JsonNode post(URI uri, ObjectNode body) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .timeout(requestTimeout)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+        .build();
+    HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() != 200) {
+      throw new IOException("OpenSearch returned " + response.statusCode() + " for " + uri);
+    }
+    return mapper.readTree(response.body());
+  }
+}
@@ -1,11 +1,15 @@
 package org.metadatacenter.cedar.monitor.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.utils.URLEncodedUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.metadatacenter.cedar.monitor.command.ResourceIdParser;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.neo4j.Neo4jNodeReader;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.exception.CedarException;
 import org.metadatacenter.id.CedarFQResourceId;
+import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.rest.context.CedarRequestContext;
 import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
 import org.metadatacenter.server.security.model.auth.CedarPermission;
@@ -16,14 +20,20 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import java.net.MalformedURLException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.charset.Charset;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.metadatacenter.constant.CedarPathParameters.PP_INPUT;
 import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
@@ -34,8 +44,6 @@ public class CommandResource extends AbstractMonitorResource {
 
   private static final Logger log = LoggerFactory.getLogger(CommandResource.class);
   public static final String RESOURCE_ID_SOURCE = "resourceIdSource";
-  public static final String STACK_TRACE = "stackTrace";
-  public static final String EXCEPTION_MESSAGE = "exceptionMessage";
   public static final String ERROR_PHASE = "errorPhase";
   public static final String REQUEST = "request";
   public static final String INPUT = "input";
@@ -46,12 +54,28 @@ public class CommandResource extends AbstractMonitorResource {
   public static final String PATH = "path";
   public static final String QUERY_STRING = "queryString";
   public static final String QUERY_PARAMETERS = "queryParameters";
+  public static final String DIAGNOSTICS = "diagnostics";
+  public static final String LINE = "line";
+  public static final String EXISTS = "exists";
+  public static final String EXISTS_ERROR = "existsError";
+  public static final String ERROR = "error";
+
+  private static final String QP_EXISTS = "exists";
+  private static final String QP_DIAGNOSTICS = "diagnostics";
 
   private static UserService userService;
   private static NodeSearchingService nodeSearchingService;
 
-  public CommandResource(CedarConfig cedarConfig) {
+  private final Neo4jNodeReader neo4jNodeReader;
+  private final ObjectMapper mapper;
+  private final ResourceInfoConfig config;
+
+  public CommandResource(CedarConfig cedarConfig, Neo4jNodeReader neo4jNodeReader, ObjectMapper mapper,
+                         ResourceInfoConfig config) {
     super(cedarConfig);
+    this.neo4jNodeReader = neo4jNodeReader;
+    this.mapper = mapper;
+    this.config = config;
   }
 
   public static void injectServices(UserService userService, NodeSearchingService nodeSearchingService) {
@@ -62,117 +86,236 @@ public class CommandResource extends AbstractMonitorResource {
   @GET
   @Timed
   @Path("/resource-id-lookup")
-  public Response lookUpResource(@QueryParam(PP_INPUT) String input) throws CedarException {
+  public Response lookUpResource(@QueryParam(PP_INPUT) String input,
+                                 @QueryParam(QP_DIAGNOSTICS) @DefaultValue("false") boolean diagnostics)
+      throws CedarException {
 
     CedarRequestContext c = buildRequestContext();
     c.must(c.user()).be(LoggedIn);
     c.must(c.user()).have(CedarPermission.MONITOR_READ);
 
-    Map<String, Object> response = new HashMap<>();
+    return Response.ok().entity(resolve(input, diagnostics)).build();
+  }
 
-    Map<String, Object> request = new HashMap<>();
-    response.put(REQUEST, request);
+  /**
+   * Takes one URL or id per line and streams back one lookup result per non-blank line, in the shape of
+   * /resource-id-lookup plus the line number. With exists=true, the ids resolved from each
+   * batch of lines are looked up in Neo4j with one query per resource type. A line longer than the configured
+   * maximum gets an error line instead of a lookup, and reading stops with an error line after the configured
+   * number of lines.
+   */
+  @POST
+  @Timed
+  @Path("/resource-id-lookup/batch")
+  @Consumes(MediaType.TEXT_PLAIN)
+  @Produces(ResourceInfoBulk.APPLICATION_NDJSON)
+  public Response lookUpResources(@QueryParam(QP_EXISTS) @DefaultValue("false") boolean exists,
+                                  @QueryParam(QP_DIAGNOSTICS) @DefaultValue("false") boolean diagnostics,
+                                  InputStream body) throws CedarException {
 
-    request.put(INPUT, input);
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
 
-    String sanitizedInput = input != null ? input.trim() : "";
-    request.put(SANITIZED_INPUT, sanitizedInput);
+    StreamingOutput output = out -> {
+      try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+        JsonGenerator generator = mapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
 
-    CedarFQResourceId resourceId = null;
-    if (resourceId == null) {
-      String path = buildPath(sanitizedInput, request, response);
-      resourceId = detectResourceIdInPath(path, response);
-      if (resourceId != null) {
-        response.put(RESOURCE_ID_SOURCE, PATH);
+        int batchSize = config.getBulkBatchSize();
+        int maxLineLength = config.getCommandMaxLineLength();
+        int maxLines = config.getCommandMaxLines();
+        List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+        Map<String, Object> error = null;
+        StringBuilder line = new StringBuilder();
+        int lineNumber = 0;
+        while (readLine(lines, line, maxLineLength)) {
+          if (lineNumber == maxLines) {
+            error = errorLine(null, "More than " + maxLines + " lines, the rest of the input was not read");
+            break;
+          }
+          lineNumber++;
+          Map<String, Object> result;
+          if (line.length() > maxLineLength) {
+            result = errorLine(lineNumber, "Line longer than " + maxLineLength + " characters");
+          } else if (isBlank(line)) {
+            continue;
+          } else {
+            result = resolve(line.toString(), diagnostics);
+            result.put(LINE, lineNumber);
+          }
+          batch.add(result);
+          if (batch.size() == batchSize) {
+            writeBatch(batch, exists, generator);
+            batch.clear();
+          }
+        }
+        if (!batch.isEmpty()) {
+          writeBatch(batch, exists, generator);
+        }
+        if (error != null) {
+          mapper.writeValue(generator, error);
+          generator.writeRaw('\n');
+        }
+        generator.flush();
       }
+    };
+    return Response.ok(output, ResourceInfoBulk.APPLICATION_NDJSON).build();
+  }
+
+  /**
+   * Reads the next line into the builder, keeping at most one character more than maxLength so an over-long line
+   * can be told apart, and skipping the rest of it. Returns false once the input is exhausted.
+   */
+  static boolean readLine(BufferedReader in, StringBuilder line, int maxLength) throws IOException {
+    line.setLength(0);
+    int ch = in.read();
+    if (ch == -1) {
+      return false;
     }
-    if (resourceId == null) {
-      resourceId = detectResourceIdInInput(sanitizedInput, response);
-      if (resourceId != null) {
-        response.put(RESOURCE_ID_SOURCE, "inputString");
+    while (ch != -1 && ch != '\n') {
+      if (ch == '\r') {
+        in.mark(1);
+        if (in.read() != '\n') {
+          in.reset();
+        }
+        break;
+      }
+      if (line.length() <= maxLength) {
+        line.append((char) ch);
       }
+      ch = in.read();
     }
-    if (resourceId == null) {
-      List<NameValuePair> params = buildParams(sanitizedInput, request, response);
-      resourceId = detectResourceIdInQuery(params, response);
-      if (resourceId != null) {
-        response.put(RESOURCE_ID_SOURCE, QUERY_STRING);
+    return true;
+  }
+
+  private static boolean isBlank(CharSequence line) {
+    for (int i = 0; i < line.length(); i++) {
+      if (!Character.isWhitespace(line.charAt(i))) {
+        return false;
       }
     }
+    return true;
+  }
 
-    response.put(RESOURCE_ID, resourceId);
-    response.put(RESOURCE_ID_STRING, resourceId == null ? "" : resourceId.toString());
+  private static Map<String, Object> errorLine(Integer lineNumber, String error) {
+    Map<String, Object> line = new HashMap<>();
+    line.put(LINE, lineNumber);
+    line.put(ERROR, error);
+    line.put(SUCCESS, false);
+    return line;
+  }
 
-    if (resourceId != null) {
-      response.put(SUCCESS, true);
-      response.remove(ERROR_PHASE);
-    } else {
-      response.put(SUCCESS, false);
+  private void writeBatch(List<Map<String, Object>> batch, boolean exists, JsonGenerator generator)
+      throws IOException {
+    if (exists) {
+      checkExistence(batch);
+    }
+    for (Map<String, Object> result : batch) {
+      mapper.writeValue(generator, result);
+      generator.writeRaw('\n');
     }
-    return Response.ok().entity(response).build();
+    generator.flush();
   }
 
-  private String buildPath(String sanitizedInput, Map<String, Object> request, Map<String, Object> response) {
-    String path = null;
-    try {
-      URL url = new URL(sanitizedInput);
-      path = url.getPath();
-      request.put(PATH, path);
-      request.put(QUERY_STRING, url.getQuery());
-    } catch (MalformedURLException e) {
-      response.put(STACK_TRACE, e.getStackTrace());
-      response.put(EXCEPTION_MESSAGE, e.getMessage());
-      response.put(ERROR_PHASE, "pathParsing");
+  /**
+   * Marks every resolved id of the batch with whether its node exists. Ids of a type without a node label, or whose
+   * lookup failed, are left without an answer.
+   */
+  private void checkExistence(List<Map<String, Object>> batch) {
+    Map<CedarResourceType, Set<String>> idsByType = new EnumMap<>(CedarResourceType.class);
+    for (Map<String, Object> result : batch) {
+      CedarFQResourceId resourceId = (CedarFQResourceId) result.get(RESOURCE_ID);
+      if (resourceId != null && Neo4jNodeReader.getLabel(resourceId.getType()) != null) {
+        idsByType.computeIfAbsent(resourceId.getType(), t -> new HashSet<>()).add(resourceId.getId());
+      }
+    }
+    Map<CedarResourceType, Set<String>> found = new EnumMap<>(CedarResourceType.class);
+    Map<CedarResourceType, String> errors = new EnumMap<>(CedarResourceType.class);
+    for (Map.Entry<CedarResourceType, Set<String>> entry : idsByType.entrySet()) {
+      try {
+        found.put(entry.getKey(), neo4jNodeReader.findNodesById(entry.getKey(), entry.getValue()).keySet());
+      } catch (RuntimeException e) {
+        log.warn("Error while checking the existence of {} ids", entry.getKey(), e);
+        errors.put(entry.getKey(), String.valueOf(e.getMessage()));
+      }
+    }
+    for (Map<String, Object> result : batch) {
+      CedarFQResourceId resourceId = (CedarFQResourceId) result.get(RESOURCE_ID);
+      if (resourceId == null) {
+        continue;
+      }
+      if (found.containsKey(resourceId.getType())) {
+        result.put(EXISTS, found.get(resourceId.getType()).contains(resourceId.getId()));
+      } else if (errors.containsKey(resourceId.getType())) {
+        result.put(EXISTS_ERROR, errors.get(resourceId.getType()));
+      }
     }
-    return path;
   }
 
-  private List<NameValuePair> buildParams(String sanitizedInput, Map<String, Object> request,
-                                          Map<String, Object> response) {
-    List<NameValuePair> params = null;
-    try {
-      URI uri = new URI(sanitizedInput);
-      params = URLEncodedUtils.parse(uri, Charset.forName("UTF-8"));
-      request.put(QUERY_PARAMETERS, params);
-    } catch (URISyntaxException e) {
-      response.put(STACK_TRACE, e.getStackTrace());
-      response.put(EXCEPTION_MESSAGE, e.getMessage());
-      response.put(ERROR_PHASE, "paramParsing");
+  /**
+   * Looks the input up with {@link ResourceIdParser}, which never throws, and only builds the CEDAR id once a
+   * well-formed one has been found. The query parameters are listed when the id was not found before the query
+   * string. On failure, the error phase names the part of the input the id was last looked for in.
+   */
+  static Map<String, Object> resolve(String input, boolean diagnostics) {
+    Map<String, Object> response = new HashMap<>();
+
+    Map<String, Object> request = new HashMap<>();
+    response.put(REQUEST, request);
+
+    request.put(INPUT, input);
+
+    String sanitizedInput = input != null ? input.trim() : "";
+    request.put(SANITIZED_INPUT, sanitizedInput);
+
+    ResourceIdParser.Result parsed = ResourceIdParser.parse(sanitizedInput, diagnostics);
+    request.put(PATH, parsed.getPath());
+    request.put(QUERY_STRING, parsed.getQueryString());
+    if (diagnostics) {
+      response.put(DIAGNOSTICS, parsed.getDiagnostics());
     }
-    return params;
-  }
 
-  private CedarFQResourceId detectResourceIdInInput(String sanitizedInput, Map<String, Object> response) {
-    CedarFQResourceId resourceId = CedarFQResourceId.build(sanitizedInput);
-    if (resourceId == null) {
-      response.put(ERROR_PHASE, "inputParsing");
+    if (parsed.getId() == null || ResourceIdParser.SOURCE_QUERY.equals(parsed.getSource())) {
+      request.put(QUERY_PARAMETERS, queryParameters(parsed.getQueryString()));
     }
-    return resourceId;
-  }
 
-  private CedarFQResourceId detectResourceIdInPath(String path, Map<String, Object> response) {
-    if (path != null) {
-      CedarFQResourceId resourceId = CedarFQResourceId.build(path);
+    CedarFQResourceId resourceId = null;
+    if (parsed.getId() == null) {
+      response.put(ERROR_PHASE, "parameterParsing");
+    } else {
+      resourceId = CedarFQResourceId.build(parsed.getId());
       if (resourceId == null) {
-        response.put(ERROR_PHASE, "pathParsing");
+        response.put(ERROR_PHASE, errorPhase(parsed.getSource()));
+      } else {
+        response.put(RESOURCE_ID_SOURCE, parsed.getSource());
       }
-      return resourceId;
     }
-    return null;
+
+    response.put(RESOURCE_ID, resourceId);
+    response.put(RESOURCE_ID_STRING, resourceId == null ? "" : resourceId.toString());
+    response.put(SUCCESS, resourceId != null);
+    return response;
   }
 
-  private CedarFQResourceId detectResourceIdInQuery(List<NameValuePair> params, Map<String, Object> response) {
-    if (params != null) {
-      for (NameValuePair pair : params) {
-        CedarFQResourceId resourceId = CedarFQResourceId.build(pair.getValue());
-        if (resourceId != null) {
-          return resourceId;
-        }
-      }
+  private static List<Map<String, String>> queryParameters(String queryString) {
+    List<Map<String, String>> parameters = new ArrayList<>();
+    for (String[] pair : ResourceIdParser.queryParameters(queryString)) {
+      Map<String, String> parameter = new LinkedHashMap<>();
+      parameter.put("name", pair[0]);
+      parameter.put("value", pair[1]);
+      parameters.add(parameter);
     }
-    response.put(ERROR_PHASE, "parameterParsing");
-    return null;
+    return parameters;
   }
 
-
+  private static String errorPhase(String source) {
+    if (ResourceIdParser.SOURCE_PATH.equals(source)) {
+      return "pathParsing";
+    } else if (ResourceIdParser.SOURCE_INPUT.equals(source)) {
+      return "inputParsing";
+    }
+    return "parameterParsing";
+  }
 }
@@ -0,0 +1,74 @@
+package org.metadatacenter.cedar.monitor.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import org.metadatacenter.cedar.monitor.consistency.ConsistencyCheckJob;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.security.model.auth.CedarPermission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Map;
+
+import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
+
+@Path("/consistency")
+@Produces(MediaType.APPLICATION_JSON)
+public class ConsistencyCheckResource extends AbstractMonitorResource {
+
+  private static final Logger log = LoggerFactory.getLogger(ConsistencyCheckResource.class);
+
+  private final ConsistencyCheckJob consistencyCheckJob;
+
+  public ConsistencyCheckResource(CedarConfig cedarConfig, ConsistencyCheckJob consistencyCheckJob) {
+    super(cedarConfig);
+    this.consistencyCheckJob = consistencyCheckJob;
+  }
+
+  @GET
+  @Timed
+  @Path("/check")
+  public Response getCheck() throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    return Response.ok().entity(consistencyCheckJob.describe()).build();
+  }
+
+  @POST
+  @Timed
+  @Path("/check")
+  public Response startCheck(@QueryParam("resume") @DefaultValue("false") boolean resume) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    boolean started = consistencyCheckJob.start(resume);
+    Map<String, Object> r = consistencyCheckJob.describe();
+    if (!started) {
+      return Response.status(Response.Status.CONFLICT).entity(r).build();
+    }
+    return Response.accepted().entity(r).build();
+  }
+
+  @DELETE
+  @Timed
+  @Path("/check")
+  public Response cancelCheck() throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    consistencyCheckJob.cancel();
+    return Response.ok().entity(consistencyCheckJob.describe()).build();
+  }
+
+}
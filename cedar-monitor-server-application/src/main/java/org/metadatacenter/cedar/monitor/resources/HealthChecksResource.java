@@ -3,6 +3,12 @@ package org.metadatacenter.cedar.monitor.resources;
 import com.codahale.metrics.annotation.Timed;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.cedar.monitor.health.AdminProxyClient;
+import org.metadatacenter.cedar.monitor.health.ClusterHealthChecker;
+import org.metadatacenter.cedar.monitor.health.HealthPoller;
+import org.metadatacenter.cedar.monitor.health.ServerHealth;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.config.ServerConfig;
 import org.metadatacenter.exception.CedarException;
@@ -14,14 +20,14 @@ import org.metadatacenter.util.http.ProxyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.ws.rs.GET;
-import javax.ws.rs.Path;
-import javax.ws.rs.PathParam;
-import javax.ws.rs.Produces;
+import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.metadatacenter.constant.CedarPathParameters.PP_SERVER;
 import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
@@ -32,14 +38,88 @@ public class HealthChecksResource extends AbstractMonitorResource {
 
   private static final Logger log = LoggerFactory.getLogger(HealthChecksResource.class);
 
-  public HealthChecksResource(CedarConfig cedarConfig) {
+  private static final String QP_FRESH = "fresh";
+  private static final String HEADER_CHECKED_AT = "X-Health-Checked-At";
+
+  private final ClusterHealthChecker clusterHealthChecker;
+  private final HealthPoller healthPoller;
+  private final AdminProxyClient adminProxyClient;
+  private final HealthCheckConfig healthCheckConfig;
+
+  public HealthChecksResource(CedarConfig cedarConfig, ClusterHealthChecker clusterHealthChecker,
+                              HealthPoller healthPoller, AdminProxyClient adminProxyClient,
+                              HealthCheckConfig healthCheckConfig) {
     super(cedarConfig);
+    this.clusterHealthChecker = clusterHealthChecker;
+    this.healthPoller = healthPoller;
+    this.adminProxyClient = adminProxyClient;
+    this.healthCheckConfig = healthCheckConfig;
+  }
+
+  /**
+   * Returns the health of every configured server in one document, as last polled in the background. A server that
+   * has not been polled yet is reported as unknown, and is not healthy. With {@code fresh=true}, every server is
+   * checked live and concurrently, each within its own deadline.
+   */
+  @GET
+  @Timed
+  @Path("/all")
+  public Response healthCheckAll(@QueryParam(QP_FRESH) @DefaultValue("false") boolean fresh) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    Map<String, ServerHealth> servers;
+    if (fresh) {
+      servers = clusterHealthChecker.checkAll().join();
+      for (ServerHealth serverHealth : servers.values()) {
+        healthPoller.record(ServerName.forName(serverHealth.getServer()), serverHealth);
+      }
+    } else {
+      servers = healthPoller.getLatestOf(clusterHealthChecker.getServerNames());
+    }
+    int healthyCount = 0;
+    for (ServerHealth serverHealth : servers.values()) {
+      if (serverHealth.isHealthy()) {
+        healthyCount++;
+      }
+    }
+
+    Map<String, Object> r = new HashMap<>();
+    r.put("healthy", healthyCount == servers.size());
+    r.put("healthyCount", healthyCount);
+    r.put("unhealthyCount", servers.size() - healthyCount);
+    r.put("fresh", fresh);
+    r.put("servers", servers);
+
+    return Response.ok().entity(r).build();
+  }
+
+  /**
+   * Returns the recorded changes between healthy and unhealthy, newest first.
+   */
+  @GET
+  @Timed
+  @Path("/history")
+  public Response healthHistory(@QueryParam(PP_SERVER) String server,
+                                @QueryParam("limit") @DefaultValue("100") int limit) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    Map<String, Object> r = new HashMap<>();
+    r.put("transitions", healthPoller.getHistory(server, Math.max(0, limit)));
+
+    return Response.ok().entity(r).build();
   }
 
   @GET
   @Timed
   @Path("/{server}")
-  public Response healthCheck(@PathParam(PP_SERVER) String server) throws CedarException {
+  public Response healthCheck(@PathParam(PP_SERVER) String server,
+                              @QueryParam(QP_FRESH) @DefaultValue("false") boolean fresh) throws CedarException {
 
     CedarRequestContext c = buildRequestContext();
     c.must(c.user()).be(LoggedIn);
@@ -52,12 +132,21 @@ public class HealthChecksResource extends AbstractMonitorResource {
       return CedarResponse.notFound().errorMessage("Server can not be found by name").parameter("server", server).build();
     }
 
+    ServerHealth cached = fresh ? null : healthPoller.getLatest(serverName);
+    if (cached != null) {
+      return cachedHealthCheck(cached);
+    }
+
     String url = serverConfig.getAdminBase() + "healthcheck";
+    if (healthCheckConfig.isStreamingProxy()) {
+      return streamHealthCheck(url);
+    }
+
     HttpResponse proxyResponse = ProxyUtil.proxyGet(url, c);
     ProxyUtil.proxyResponseHeaders(proxyResponse, response);
     HttpEntity entity = proxyResponse.getEntity();
     int statusCode = proxyResponse.getStatusLine().getStatusCode();
-    String mediaType = entity.getContentType().getValue();
+    String mediaType = entity == null || entity.getContentType() == null ? null : entity.getContentType().getValue();
     if (entity != null) {
       try {
         String content = new String(entity.getContent().readAllBytes(), StandardCharsets.UTF_8);
@@ -70,5 +159,56 @@ public class HealthChecksResource extends AbstractMonitorResource {
     }
   }
 
+  /**
+   * Proxies the healthcheck over the pooled admin client, copying the upstream entity to the client as it arrives.
+   * The upstream response, and with it the pooled connection, is released once the entity has been written.
+   */
+  private Response streamHealthCheck(String url) {
+    CloseableHttpResponse proxyResponse;
+    try {
+      proxyResponse = adminProxyClient.get(url);
+    } catch (IOException e) {
+      return CedarResponse.internalServerError().errorMessage("Error while contacting server").exception(e).build();
+    }
+    ProxyUtil.proxyResponseHeaders(proxyResponse, response);
+    int statusCode = proxyResponse.getStatusLine().getStatusCode();
+    HttpEntity entity = proxyResponse.getEntity();
+    if (entity == null) {
+      try {
+        proxyResponse.close();
+      } catch (IOException e) {
+        log.warn("Error while releasing the connection of " + url, e);
+      }
+      return Response.status(statusCode).build();
+    }
+
+    Response.ResponseBuilder builder = Response.status(statusCode);
+    if (entity.getContentType() != null) {
+      builder.type(entity.getContentType().getValue());
+    }
+    StreamingOutput content = output -> {
+      try {
+        entity.writeTo(output);
+      } finally {
+        proxyResponse.close();
+      }
+    };
+    return builder.entity(content).build();
+  }
+
+  /**
+   * Answers like the proxied healthcheck when the last poll got a response; otherwise reports the timeout or the
+   * error as a gateway failure.
+   */
+  private static Response cachedHealthCheck(ServerHealth cached) {
+    if (cached.getHttpStatus() != null) {
+      Response.ResponseBuilder builder = Response.status(cached.getHttpStatus())
+          .header(HEADER_CHECKED_AT, cached.getCheckedAtMillis());
+      return cached.getBody() == null ? builder.build() : builder.entity(cached.getBody()).build();
+    }
+    Response.Status status = ServerHealth.STATUS_TIMEOUT.equals(cached.getStatus()) ?
+        Response.Status.GATEWAY_TIMEOUT : Response.Status.BAD_GATEWAY;
+    return Response.status(status).header(HEADER_CHECKED_AT, cached.getCheckedAtMillis()).entity(cached).build();
+  }
 
 }
@@ -0,0 +1,250 @@
+package org.metadatacenter.cedar.monitor.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import io.dropwizard.hibernate.UnitOfWork;
+import io.dropwizard.util.Duration;
+import org.metadatacenter.cedar.monitor.config.LogAnalyticsConfig;
+import org.metadatacenter.cedar.monitor.config.LogRollupConfig;
+import org.metadatacenter.cedar.monitor.logging.CypherTopAnalyzer;
+import org.metadatacenter.cedar.monitor.logging.LogRollupPipeline;
+import org.metadatacenter.cedar.monitor.logging.RequestLatencyAnalyzer;
+import org.metadatacenter.cedar.monitor.logging.RollupGranularity;
+import org.metadatacenter.cedar.monitor.logging.dao.CypherLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RequestLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RequestLogRollup;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.security.model.auth.CedarPermission;
+import org.metadatacenter.util.http.CedarResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
+
+@Path("/logs")
+@Produces(MediaType.APPLICATION_JSON)
+public class LogAnalyticsResource extends AbstractMonitorResource {
+
+  private static final Logger log = LoggerFactory.getLogger(LogAnalyticsResource.class);
+
+  private static final String QP_FROM = "from";
+  private static final String QP_TO = "to";
+  private static final String QP_GRANULARITY = "granularity";
+
+  private final RequestLatencyAnalyzer requestLatencyAnalyzer;
+  private final CypherTopAnalyzer cypherTopAnalyzer;
+  private final LogAnalyticsConfig logAnalyticsConfig;
+  private final LogRollupPipeline logRollupPipeline;
+  private final RequestLogRollupDAO requestLogRollupDAO;
+  private final CypherLogRollupDAO cypherLogRollupDAO;
+  private final LogRollupConfig logRollupConfig;
+
+  public LogAnalyticsResource(CedarConfig cedarConfig, RequestLatencyAnalyzer requestLatencyAnalyzer,
+                              CypherTopAnalyzer cypherTopAnalyzer, LogAnalyticsConfig logAnalyticsConfig,
+                              LogRollupPipeline logRollupPipeline, RequestLogRollupDAO requestLogRollupDAO,
+                              CypherLogRollupDAO cypherLogRollupDAO, LogRollupConfig logRollupConfig) {
+    super(cedarConfig);
+    this.requestLatencyAnalyzer = requestLatencyAnalyzer;
+    this.cypherTopAnalyzer = cypherTopAnalyzer;
+    this.logAnalyticsConfig = logAnalyticsConfig;
+    this.logRollupPipeline = logRollupPipeline;
+    this.requestLogRollupDAO = requestLogRollupDAO;
+    this.cypherLogRollupDAO = cypherLogRollupDAO;
+    this.logRollupConfig = logRollupConfig;
+  }
+
+  /**
+   * Returns p50/p95/p99/max request durations per server and endpoint over a time window of the request log.
+   */
+  @GET
+  @Timed
+  @Path("/requests/latency")
+  public Response requestLatency(@QueryParam(QP_FROM) String from,
+                                 @QueryParam(QP_TO) String to,
+                                 @QueryParam("server") String server,
+                                 @QueryParam("top") @DefaultValue("20") int top) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    Instant[] window = new Instant[2];
+    Response invalidWindow = parseWindow(from, to, logAnalyticsConfig.getMaxWindow(), window);
+    if (invalidWindow != null) {
+      return invalidWindow;
+    }
+
+    Map<String, Object> r = requestLatencyAnalyzer.analyze(window[0], window[1], server,
+        Math.max(1, Math.min(top, logAnalyticsConfig.getMaxEndpoints())));
+    r.put(QP_FROM, window[0].toString());
+    r.put(QP_TO, window[1].toString());
+
+    return Response.ok().entity(r).build();
+  }
+
+  /**
+   * Returns the Cypher query fingerprints that took the most total time over a time window of the Cypher log.
+   */
+  @GET
+  @Timed
+  @Path("/cypher/top")
+  public Response cypherTop(@QueryParam(QP_FROM) String from,
+                            @QueryParam(QP_TO) String to,
+                            @QueryParam("k") @DefaultValue("20") int k) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    Instant[] window = new Instant[2];
+    Response invalidWindow = parseWindow(from, to, logAnalyticsConfig.getMaxWindow(), window);
+    if (invalidWindow != null) {
+      return invalidWindow;
+    }
+
+    Map<String, Object> r = cypherTopAnalyzer.analyze(window[0], window[1],
+        Math.max(1, Math.min(k, logAnalyticsConfig.getMaxFingerprints())));
+    r.put(QP_FROM, window[0].toString());
+    r.put(QP_TO, window[1].toString());
+
+    return Response.ok().entity(r).build();
+  }
+
+  /**
+   * Returns the state of the rollup pipeline: its last run and the checkpoint of each log.
+   */
+  @GET
+  @Timed
+  @UnitOfWork(readOnly = true)
+  @Path("/rollups")
+  public Response rollups() throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    return Response.ok().entity(logRollupPipeline.describe()).build();
+  }
+
+  /**
+   * Returns the request rollups of a time window, oldest bucket first.
+   */
+  @GET
+  @Timed
+  @UnitOfWork(readOnly = true)
+  @Path("/requests/rollup")
+  public Response requestRollup(@QueryParam(QP_GRANULARITY) @DefaultValue("minute") String granularity,
+                                @QueryParam(QP_FROM) String from,
+                                @QueryParam(QP_TO) String to,
+                                @QueryParam("server") String server,
+                                @QueryParam("endpoint") String endpoint) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    RollupGranularity rollupGranularity = RollupGranularity.forValue(granularity);
+    if (rollupGranularity == null) {
+      return CedarResponse.badRequest().errorMessage("Unknown granularity")
+          .parameter(QP_GRANULARITY, granularity).build();
+    }
+    Instant[] window = new Instant[2];
+    Response invalidWindow = parseWindow(from, to, logRollupConfig.getMaxQueryWindow(), window);
+    if (invalidWindow != null) {
+      return invalidWindow;
+    }
+
+    int maxRows = logRollupConfig.getMaxRows();
+    List<RequestLogRollup> rollups = requestLogRollupDAO.findRange(rollupGranularity.getValue(), window[0],
+        window[1], server, endpoint, maxRows);
+
+    Map<String, Object> r = new LinkedHashMap<>();
+    r.put(QP_GRANULARITY, rollupGranularity.getValue());
+    r.put(QP_FROM, window[0].toString());
+    r.put(QP_TO, window[1].toString());
+    r.put("truncated", rollups.size() == maxRows);
+    r.put("rollups", rollups);
+
+    return Response.ok().entity(r).build();
+  }
+
+  /**
+   * Returns the Cypher query fingerprints that took the most total time over a time window, from the rollups.
+   */
+  @GET
+  @Timed
+  @UnitOfWork(readOnly = true)
+  @Path("/cypher/rollup")
+  public Response cypherRollup(@QueryParam(QP_GRANULARITY) @DefaultValue("hour") String granularity,
+                               @QueryParam(QP_FROM) String from,
+                               @QueryParam(QP_TO) String to,
+                               @QueryParam("k") @DefaultValue("20") int k) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    RollupGranularity rollupGranularity = RollupGranularity.forValue(granularity);
+    if (rollupGranularity == null) {
+      return CedarResponse.badRequest().errorMessage("Unknown granularity")
+          .parameter(QP_GRANULARITY, granularity).build();
+    }
+    Instant[] window = new Instant[2];
+    Response invalidWindow = parseWindow(from, to, logRollupConfig.getMaxQueryWindow(), window);
+    if (invalidWindow != null) {
+      return invalidWindow;
+    }
+
+    List<Map<String, Object>> fingerprints = new ArrayList<>();
+    for (Object[] row : cypherLogRollupDAO.findTopFingerprints(rollupGranularity.getValue(), window[0], window[1],
+        Math.max(1, Math.min(k, logRollupConfig.getMaxRows())))) {
+      Map<String, Object> fingerprint = new LinkedHashMap<>();
+      fingerprint.put("fingerprint", row[0]);
+      fingerprint.put("count", row[1]);
+      fingerprint.put("totalMillis", row[2]);
+      fingerprint.put("maxMillis", row[3]);
+      fingerprints.add(fingerprint);
+    }
+
+    Map<String, Object> r = new LinkedHashMap<>();
+    r.put(QP_GRANULARITY, rollupGranularity.getValue());
+    r.put(QP_FROM, window[0].toString());
+    r.put(QP_TO, window[1].toString());
+    r.put("fingerprints", fingerprints);
+
+    return Response.ok().entity(r).build();
+  }
+
+  /**
+   * Fills {@code window} with the from and to instants of the request, defaulting to the configured window ending
+   * now. Returns a bad request response if they are unparseable, out of order or too far apart.
+   */
+  private Response parseWindow(String from, String to, Duration maxWindow, Instant[] window) {
+    try {
+      window[1] = to == null ? Instant.now() : Instant.parse(to);
+      window[0] = from == null ? window[1].minusMillis(logAnalyticsConfig.getDefaultWindow().toMilliseconds())
+          : Instant.parse(from);
+    } catch (DateTimeParseException e) {
+      return CedarResponse.badRequest().errorMessage("The from and to parameters must be ISO-8601 instants")
+          .parameter(QP_FROM, from).parameter(QP_TO, to).build();
+    }
+    if (!window[0].isBefore(window[1])
+        || window[1].toEpochMilli() - window[0].toEpochMilli() > maxWindow.toMilliseconds()) {
+      return CedarResponse.badRequest().errorMessage("The window must be non-empty and at most " + maxWindow)
+          .parameter(QP_FROM, window[0].toString()).parameter(QP_TO, window[1].toString()).build();
+    }
+    return null;
+  }
+
+}
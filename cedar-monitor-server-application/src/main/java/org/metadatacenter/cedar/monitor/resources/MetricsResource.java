@@ -0,0 +1,40 @@
+package org.metadatacenter.cedar.monitor.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import org.metadatacenter.cedar.monitor.metrics.MonitorMetricsCollector;
+import org.metadatacenter.cedar.monitor.metrics.OpenMetricsWriter;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.security.model.auth.CedarPermission;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
+
+@Path("/metrics")
+@Produces(OpenMetricsWriter.CONTENT_TYPE)
+public class MetricsResource extends AbstractMonitorResource {
+
+  private final MonitorMetricsCollector metricsCollector;
+
+  public MetricsResource(CedarConfig cedarConfig, MonitorMetricsCollector metricsCollector) {
+    super(cedarConfig);
+    this.metricsCollector = metricsCollector;
+  }
+
+  @GET
+  @Timed
+  public Response metrics() throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    return Response.ok(metricsCollector.scrape(), OpenMetricsWriter.CONTENT_TYPE).build();
+  }
+
+}
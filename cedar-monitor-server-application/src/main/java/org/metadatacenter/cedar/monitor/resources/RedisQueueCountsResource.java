@@ -1,27 +1,25 @@
 package org.metadatacenter.cedar.monitor.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import org.metadatacenter.config.CacheServerPersistent;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthRingBuffer;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthSampler;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthTrend;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.exception.CedarException;
 import org.metadatacenter.rest.context.CedarRequestContext;
 import org.metadatacenter.server.security.model.auth.CedarPermission;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.JedisPoolConfig;
 
-import javax.ws.rs.GET;
-import javax.ws.rs.Path;
-import javax.ws.rs.Produces;
+import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
-import static org.metadatacenter.server.queue.util.QueueService.*;
 
 @Path("/redis")
 @Produces(MediaType.APPLICATION_JSON)
@@ -29,8 +27,16 @@ public class RedisQueueCountsResource extends AbstractMonitorResource {
 
   private static final Logger log = LoggerFactory.getLogger(RedisQueueCountsResource.class);
 
-  public RedisQueueCountsResource(CedarConfig cedarConfig) {
+  private final RedisTelemetryClient redisTelemetryClient;
+  private final QueueDepthSampler queueDepthSampler;
+  private final int averageWindow;
+
+  public RedisQueueCountsResource(CedarConfig cedarConfig, RedisTelemetryClient redisTelemetryClient,
+                                  QueueDepthSampler queueDepthSampler, int averageWindow) {
     super(cedarConfig);
+    this.redisTelemetryClient = redisTelemetryClient;
+    this.queueDepthSampler = queueDepthSampler;
+    this.averageWindow = averageWindow;
   }
 
   @GET
@@ -42,21 +48,38 @@ public class RedisQueueCountsResource extends AbstractMonitorResource {
     c.must(c.user()).be(LoggedIn);
     c.must(c.user()).have(CedarPermission.MONITOR_READ);
 
+    Map<String, Object> r = new HashMap<>(redisTelemetryClient.queueLengths());
+
+    return Response.ok().entity(r).build();
+  }
+
+  @GET
+  @Timed
+  @Path("/queue-counts/history")
+  public Response queueCountsHistory(@QueryParam("limit") @DefaultValue("60") int limit) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
     Map<String, Object> r = new HashMap<>();
+    r.put("sampleIntervalMs", queueDepthSampler.getIntervalMillis());
+    r.put("averageWindow", averageWindow);
+
+    Map<String, Object> queues = new LinkedHashMap<>();
+    r.put("queues", queues);
+
+    int sampleCount = Math.max(limit, averageWindow);
+    for (Map.Entry<String, QueueDepthRingBuffer> entry : queueDepthSampler.getBuffers().entrySet()) {
+      QueueDepthRingBuffer.Samples samples = entry.getValue().snapshot(sampleCount);
+      QueueDepthRingBuffer.Samples returned = samples.last(limit);
 
-    CacheServerPersistent cacheConfig = cedarConfig.getCacheConfig().getPersistent();
-    JedisPool pool = new JedisPool(new JedisPoolConfig(), cacheConfig.getConnection().getHost(),
-        cacheConfig.getConnection().getPort(), cacheConfig.getConnection().getTimeout());
-    String queueName = "queue";
-    Jedis blockingQueue = pool.getResource();
-    r.put(SEARCH_PERMISSION_QUEUE_ID, blockingQueue.llen(cacheConfig.getQueueName(SEARCH_PERMISSION_QUEUE_ID)));
-    r.put(NCBI_SUBMISSION_QUEUE_ID, blockingQueue.llen(cacheConfig.getQueueName(NCBI_SUBMISSION_QUEUE_ID)));
-    r.put(APP_LOG_QUEUE_ID, blockingQueue.llen(cacheConfig.getQueueName(APP_LOG_QUEUE_ID)));
-    r.put(VALUERECOMMENDER_QUEUE_ID, blockingQueue.llen(cacheConfig.getQueueName(VALUERECOMMENDER_QUEUE_ID)));
-    r.put(CLONE_INSTANCES_QUEUE_ID, blockingQueue.llen(cacheConfig.getQueueName(CLONE_INSTANCES_QUEUE_ID)));
-    blockingQueue.llen(queueName);
-    blockingQueue.close();
-    pool.close();
+      Map<String, Object> queue = new HashMap<>();
+      queue.put("trend", QueueDepthTrend.of(samples, averageWindow));
+      queue.put("timestamps", returned.getTimestamps());
+      queue.put("depths", returned.getDepths());
+      queues.put(entry.getKey(), queue);
+    }
 
     return Response.ok().entity(r).build();
   }
@@ -0,0 +1,86 @@
+package org.metadatacenter.cedar.monitor.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import io.dropwizard.hibernate.UnitOfWork;
+import org.metadatacenter.cedar.monitor.config.CountSnapshotConfig;
+import org.metadatacenter.cedar.monitor.drift.CountDriftReport;
+import org.metadatacenter.cedar.monitor.drift.CountSnapshotRecorder;
+import org.metadatacenter.cedar.monitor.logging.dao.CountSnapshotDAO;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CountSnapshot;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.security.model.auth.CedarPermission;
+import org.metadatacenter.util.http.CedarResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
+
+@Path("/resources")
+@Produces(MediaType.APPLICATION_JSON)
+public class ResourceCountsDriftResource extends AbstractMonitorResource {
+
+  private static final Logger log = LoggerFactory.getLogger(ResourceCountsDriftResource.class);
+
+  private final CountSnapshotDAO countSnapshotDAO;
+  private final CountSnapshotConfig countSnapshotConfig;
+
+  public ResourceCountsDriftResource(CedarConfig cedarConfig, CountSnapshotDAO countSnapshotDAO,
+                                     CountSnapshotConfig countSnapshotConfig) {
+    super(cedarConfig);
+    this.countSnapshotDAO = countSnapshotDAO;
+    this.countSnapshotConfig = countSnapshotConfig;
+  }
+
+  /**
+   * Returns the persisted counts of one resource type, with the drift of Mongo and OpenSearch relative to Neo4j.
+   */
+  @GET
+  @Timed
+  @UnitOfWork(readOnly = true)
+  @Path("/counts/drift")
+  public Response countDrift(@QueryParam("type") @DefaultValue("template") String type,
+                             @QueryParam("since") String since,
+                             @QueryParam("limit") Integer limit) throws CedarException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    if (!CountSnapshotRecorder.RESOURCE_TYPES.contains(type)) {
+      return CedarResponse.badRequest().errorMessage("Unknown resource type").parameter("type", type).build();
+    }
+
+    Instant sinceInstant;
+    if (since == null) {
+      sinceInstant = Instant.now().minusMillis(countSnapshotConfig.getDriftWindow().toMilliseconds());
+    } else {
+      try {
+        sinceInstant = Instant.parse(since);
+      } catch (DateTimeParseException e) {
+        return CedarResponse.badRequest().errorMessage("The since parameter must be an ISO-8601 instant")
+            .parameter("since", since).build();
+      }
+    }
+    int maxPoints = countSnapshotConfig.getMaxPoints();
+    int pointLimit = limit == null ? maxPoints : Math.max(1, Math.min(limit, maxPoints));
+
+    List<CountSnapshot> snapshots = countSnapshotDAO.findLatestByType(type, sinceInstant, pointLimit);
+    Map<String, Object> r = CountDriftReport.of(snapshots);
+    r.put("type", type);
+    r.put("since", sinceInstant.toString());
+    r.put("truncated", snapshots.size() == pointLimit);
+
+    return Response.ok().entity(r).build();
+  }
+
+}
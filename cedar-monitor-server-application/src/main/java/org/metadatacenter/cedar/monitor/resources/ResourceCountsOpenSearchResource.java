@@ -1,12 +1,10 @@
 package org.metadatacenter.cedar.monitor.resources;
 
 import com.codahale.metrics.annotation.Timed;
+import org.metadatacenter.cedar.monitor.concurrent.CachedSnapshot;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.exception.CedarException;
-import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.rest.context.CedarRequestContext;
-import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
-import org.metadatacenter.server.search.util.IndexUtils;
 import org.metadatacenter.server.security.model.auth.CedarPermission;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,13 +24,12 @@ import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
 public class ResourceCountsOpenSearchResource extends AbstractMonitorResource {
 
   private static final Logger log = LoggerFactory.getLogger(ResourceCountsOpenSearchResource.class);
-  private static NodeSearchingService nodeSearchingService;
+  private final CachedSnapshot<Map<String, Object>> openSearchSnapshot;
 
-  public ResourceCountsOpenSearchResource(CedarConfig cedarConfig) {
+  public ResourceCountsOpenSearchResource(CedarConfig cedarConfig,
+                                          CachedSnapshot<Map<String, Object>> openSearchSnapshot) {
     super(cedarConfig);
-
-    IndexUtils indexUtils = new IndexUtils(cedarConfig);
-    nodeSearchingService = indexUtils.getNodeSearchingService();
+    this.openSearchSnapshot = openSearchSnapshot;
   }
 
   @GET
@@ -44,19 +41,11 @@ public class ResourceCountsOpenSearchResource extends AbstractMonitorResource {
     c.must(c.user()).be(LoggedIn);
     c.must(c.user()).have(CedarPermission.MONITOR_READ);
 
-    Map<String, Object> r = new HashMap<>();
-
-    Map<String, Object> opensearch = new HashMap<>();
-    r.put("opensearch", opensearch);
+    CachedSnapshot.Snapshot<Map<String, Object>> snapshot = openSearchSnapshot.get();
 
-    opensearch.put("field", nodeSearchingService.getTotalCount(CedarResourceType.FIELD));
-    opensearch.put("element", nodeSearchingService.getTotalCount(CedarResourceType.ELEMENT));
-    opensearch.put("template", nodeSearchingService.getTotalCount(CedarResourceType.TEMPLATE));
-    opensearch.put("instance", nodeSearchingService.getTotalCount(CedarResourceType.INSTANCE));
-    opensearch.put("folder", nodeSearchingService.getTotalCount(CedarResourceType.FOLDER));
-
-    opensearch.put("artifactTotal", nodeSearchingService.getTotalArtifactCount());
-    opensearch.put("recommenderTotal", nodeSearchingService.getTotalRecommenderCount());
+    Map<String, Object> r = new HashMap<>();
+    r.put("opensearch", snapshot.getValue());
+    r.put("snapshot", openSearchSnapshot.describe(snapshot));
 
     return Response.ok().entity(r).build();
   }
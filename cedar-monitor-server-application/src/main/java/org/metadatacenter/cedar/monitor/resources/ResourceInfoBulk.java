@@ -0,0 +1,84 @@
+package org.metadatacenter.cedar.monitor.resources;
+
+import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.info.BulkResourceInfoWriter;
+import org.metadatacenter.cedar.monitor.info.SectionSelection;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.ResourcePermissionServiceSession;
+import org.metadatacenter.server.security.model.auth.CedarPermission;
+import org.metadatacenter.util.http.CedarResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.metadatacenter.cedar.monitor.info.SectionSelection.QP_EXCLUDE;
+import static org.metadatacenter.cedar.monitor.info.SectionSelection.QP_INCLUDE;
+import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
+
+@Path("/resource")
+@Produces(MediaType.APPLICATION_JSON)
+public class ResourceInfoBulk extends AbstractMonitorResource {
+
+  private static final Logger log = LoggerFactory.getLogger(ResourceInfoBulk.class);
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  private final BulkResourceInfoWriter bulkWriter;
+  private final ObjectMapper mapper;
+
+  public ResourceInfoBulk(CedarConfig cedarConfig, BulkResourceInfoWriter bulkWriter, ObjectMapper mapper) {
+    super(cedarConfig);
+    this.bulkWriter = bulkWriter;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Takes a JSON array of resource ids of any type and streams back one JSON document per id, one per line.
+   */
+  @POST
+  @Timed
+  @Path("/bulk")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(APPLICATION_NDJSON)
+  public Response getBulkInfo(@QueryParam(QP_INCLUDE) String include,
+                              @QueryParam(QP_EXCLUDE) String exclude,
+                              InputStream body) throws CedarException, IOException {
+
+    CedarRequestContext c = buildRequestContext();
+    c.must(c.user()).be(LoggedIn);
+    c.must(c.user()).have(CedarPermission.MONITOR_READ);
+
+    SectionSelection selection = SectionSelection.of(include, exclude, BulkResourceInfoWriter.BULK_SECTIONS);
+    if (!selection.isValid()) {
+      return selection.badRequest();
+    }
+
+    JsonParser ids = mapper.getFactory().createParser(body);
+    if (ids.nextToken() != JsonToken.START_ARRAY) {
+      ids.close();
+      return CedarResponse.badRequest().errorMessage("The request body must be a JSON array of ids").build();
+    }
+
+    ResourcePermissionServiceSession permissionSession = CedarDataServices.getResourcePermissionServiceSession(c);
+
+    StreamingOutput output = out -> {
+      try (JsonParser parser = ids) {
+        bulkWriter.write(parser, permissionSession, selection, out);
+      }
+    };
+    return Response.ok(output, APPLICATION_NDJSON).build();
+  }
+
+}
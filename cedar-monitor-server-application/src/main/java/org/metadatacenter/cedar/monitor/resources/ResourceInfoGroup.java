@@ -2,30 +2,39 @@ package org.metadatacenter.cedar.monitor.resources;
 
 import com.codahale.metrics.annotation.Timed;
 import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.info.FilesystemResourceInfoAssembler;
+import org.metadatacenter.cedar.monitor.info.GroupInfoAssembler;
+import org.metadatacenter.cedar.monitor.info.GroupListingMode;
+import org.metadatacenter.cedar.monitor.info.SectionSelection;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.exception.CedarException;
-import org.metadatacenter.exception.CedarProcessingException;
 import org.metadatacenter.id.CedarGroupId;
 import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.model.folderserver.basic.FolderServerGroup;
 import org.metadatacenter.rest.context.CedarRequestContext;
 import org.metadatacenter.server.GroupServiceSession;
 import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
-import org.metadatacenter.server.security.model.auth.CedarGroupUsers;
 import org.metadatacenter.server.security.model.auth.CedarNodeMaterializedPermissions;
 import org.metadatacenter.server.security.model.auth.CedarPermission;
 import org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission;
-import org.metadatacenter.server.service.UserService;
+import org.metadatacenter.util.http.CedarResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static org.metadatacenter.cedar.monitor.info.SectionSelection.QP_EXCLUDE;
+import static org.metadatacenter.cedar.monitor.info.SectionSelection.QP_INCLUDE;
 import static org.metadatacenter.constant.CedarPathParameters.PP_ID;
 import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
 
@@ -35,71 +44,130 @@ public class ResourceInfoGroup extends AbstractMonitorResource {
 
   private static final Logger log = LoggerFactory.getLogger(ResourceInfoGroup.class);
 
-  private static UserService userService;
-  private static NodeSearchingService nodeSearchingService;
+  private static final String QP_MODE = "mode";
+  private static final String QP_LIMIT = "limit";
+  private static final String QP_USERS_AFTER = "usersAfter";
+  private static final String QP_IDS_AFTER = "idsAfter";
 
-  public ResourceInfoGroup(CedarConfig cedarConfig) {
-    super(cedarConfig);
-  }
+  private final GroupInfoAssembler groupInfoAssembler;
+  private final NodeSearchingService nodeSearchingService;
+  private final DeadlineFanOut fanOut;
+  private final ResourceInfoConfig resourceInfoConfig;
+  private final BackendMetrics backendMetrics;
 
-  public static void injectServices(UserService userService, NodeSearchingService nodeSearchingService) {
-    ResourceInfoGroup.userService = userService;
-    ResourceInfoGroup.nodeSearchingService = nodeSearchingService;
+  public ResourceInfoGroup(CedarConfig cedarConfig, GroupInfoAssembler groupInfoAssembler,
+                           NodeSearchingService nodeSearchingService, DeadlineFanOut fanOut,
+                           ResourceInfoConfig resourceInfoConfig, BackendMetrics backendMetrics) {
+    super(cedarConfig);
+    this.groupInfoAssembler = groupInfoAssembler;
+    this.nodeSearchingService = nodeSearchingService;
+    this.fanOut = fanOut;
+    this.resourceInfoConfig = resourceInfoConfig;
+    this.backendMetrics = backendMetrics;
   }
 
+  /**
+   * Returns the group with its users and the ids of the documents shared with it. By default both lists are read
+   * whole, as they always were. Large groups can ask for mode=page, which returns {@value #QP_LIMIT} entries of each
+   * list starting after the {@value #QP_USERS_AFTER} and {@value #QP_IDS_AFTER} cursors, mode=count, which returns
+   * their sizes only, or mode=stream, which streams both lists in full.
+   */
   @GET
   @Timed
   @Path("/groups")
-  public Response getGroupInfo(@QueryParam(PP_ID) String id) throws CedarException {
+  public Response getGroupInfo(@QueryParam(PP_ID) String id,
+                               @QueryParam(QP_INCLUDE) String include,
+                               @QueryParam(QP_EXCLUDE) String exclude,
+                               @QueryParam(QP_MODE) @DefaultValue("full") String mode,
+                               @QueryParam(QP_LIMIT) Integer limit,
+                               @QueryParam(QP_USERS_AFTER) String usersAfter,
+                               @QueryParam(QP_IDS_AFTER) String idsAfter) throws CedarException {
 
     CedarRequestContext c = buildRequestContext();
     c.must(c.user()).be(LoggedIn);
     c.must(c.user()).have(CedarPermission.MONITOR_READ);
 
-    Map<String, Object> r = new HashMap<>();
+    GroupListingMode listingMode = GroupListingMode.forValue(mode);
+    if (listingMode == null) {
+      return CedarResponse.badRequest().errorMessage("Unknown listing mode").parameter(QP_MODE, mode).build();
+    }
+    int pageSize = limit != null ? limit : resourceInfoConfig.getGroupPageSize();
+    if (pageSize < 1 || pageSize > resourceInfoConfig.getGroupMaxPageSize()) {
+      return CedarResponse.badRequest()
+          .errorMessage("The limit must be between 1 and " + resourceInfoConfig.getGroupMaxPageSize())
+          .parameter(QP_LIMIT, limit)
+          .build();
+    }
+    SectionSelection selection = SectionSelection.of(include, exclude, GroupInfoAssembler.GROUP_SECTIONS);
+    if (!selection.isValid()) {
+      return selection.badRequest();
+    }
+
+    Map<String, Object> r = new LinkedHashMap<>();
 
     CedarGroupId gid = CedarGroupId.build(id);
 
     GroupServiceSession groupSession = CedarDataServices.getGroupServiceSession(c);
 
-    FolderServerGroup group = groupSession.findGroupById(gid);
+    FolderServerGroup group = backendMetrics.call(BackendMetrics.NEO4J, "findGroupById",
+        () -> groupSession.findGroupById(gid));
 
-    if (group != null) {
-      readGroupInfo(r, gid, group, groupSession);
+    if (group == null) {
+      return Response.ok().entity(r).build();
     }
 
-    return Response.ok().entity(r).build();
-  }
-
-  private void readGroupInfo(Map<String, Object> r, CedarGroupId gid, FolderServerGroup group,
-                             GroupServiceSession groupSession) {
     r.put("resourceType", CedarResourceType.GROUP);
     r.put("neo4j", group);
+    r.put("mode", listingMode.getValue());
+    r.put("opensearch", readOpenSearchKeys(gid));
+
+    switch (listingMode) {
+      case FULL:
+        readGroupLists(r, gid, groupSession, selection);
+        break;
+      case COUNT:
+        groupInfoAssembler.readCounts(r, gid.getId(), selection);
+        break;
+      case STREAM:
+        StreamingOutput output = out -> groupInfoAssembler.write(r, gid.getId(), selection, out);
+        return Response.ok(output, MediaType.APPLICATION_JSON).build();
+      case PAGE:
+        groupInfoAssembler.readPages(r, gid.getId(), selection, pageSize, usersAfter, idsAfter);
+    }
 
-    CedarGroupUsers groupUsers = groupSession.findGroupUsers(gid);
-    r.put("groupUsers", groupUsers);
-
-    List<String> allSearchCedarIds = findAllSearchCedarIds(gid);
-    r.put("searchCedarIds", allSearchCedarIds);
-
-
-    String readKey = CedarNodeMaterializedPermissions.getKey(gid.getId(), FilesystemResourcePermission.READ);
-    String writeKey = CedarNodeMaterializedPermissions.getKey(gid.getId(), FilesystemResourcePermission.WRITE);
-
-    Map<String, Object> opensearch = new HashMap<>();
-    r.put("opensearch", opensearch);
-
-    opensearch.put("readKey", readKey);
-    opensearch.put("writeKey", writeKey);
+    return Response.ok().entity(r).build();
   }
 
-  private List<String> findAllSearchCedarIds(CedarGroupId groupId) {
-    try {
-      return nodeSearchingService.findAllCedarIdsForGroup(groupId);
-    } catch (CedarProcessingException e) {
-      log.error("Error while reading accessible document count", e);
+  private void readGroupLists(Map<String, Object> r, CedarGroupId gid, GroupServiceSession groupSession,
+                              SectionSelection selection) {
+    DeadlineFanOut.Builder builder = fanOut.sections();
+    selection.add(builder, GroupInfoAssembler.SECTION_NEO4J,
+        resourceInfoConfig.getTimeoutMillis(GroupInfoAssembler.SECTION_NEO4J),
+        neo4j -> neo4j.put(GroupInfoAssembler.GROUP_USERS, backendMetrics.call(BackendMetrics.NEO4J,
+            "findGroupUsers", () -> groupSession.findGroupUsers(gid))));
+    selection.add(builder, GroupInfoAssembler.SECTION_OPENSEARCH,
+        resourceInfoConfig.getTimeoutMillis(GroupInfoAssembler.SECTION_OPENSEARCH),
+        opensearch -> opensearch.put(GroupInfoAssembler.SEARCH_CEDAR_IDS, backendMetrics.call(
+            BackendMetrics.OPENSEARCH, "findAllCedarIdsForGroup",
+            () -> nodeSearchingService.findAllCedarIdsForGroup(gid))));
+    Map<String, SectionResult> sections = builder.run();
+    r.put(FilesystemResourceInfoAssembler.SECTIONS, sections);
+    if (sections.containsKey(GroupInfoAssembler.SECTION_NEO4J)) {
+      r.put(GroupInfoAssembler.GROUP_USERS,
+          sections.get(GroupInfoAssembler.SECTION_NEO4J).getValues().get(GroupInfoAssembler.GROUP_USERS));
+    }
+    if (sections.containsKey(GroupInfoAssembler.SECTION_OPENSEARCH)) {
+      r.put(GroupInfoAssembler.SEARCH_CEDAR_IDS,
+          sections.get(GroupInfoAssembler.SECTION_OPENSEARCH).getValues().get(GroupInfoAssembler.SEARCH_CEDAR_IDS));
     }
-    return null;
+  }
+
+  private Map<String, Object> readOpenSearchKeys(CedarGroupId gid) {
+    Map<String, Object> opensearch = new HashMap<>();
+    opensearch.put("readKey", CedarNodeMaterializedPermissions.getKey(gid.getId(), FilesystemResourcePermission.READ));
+    opensearch.put("writeKey",
+        CedarNodeMaterializedPermissions.getKey(gid.getId(), FilesystemResourcePermission.WRITE));
+    return opensearch;
   }
 
 }
@@ -1,14 +1,21 @@
 package org.metadatacenter.cedar.monitor.resources;
 
 import com.codahale.metrics.annotation.Timed;
-import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.counts.AccessibleCountMode;
+import org.metadatacenter.cedar.monitor.counts.UserAccessibleCounts;
+import org.metadatacenter.cedar.monitor.info.FilesystemResourceInfoAssembler;
+import org.metadatacenter.cedar.monitor.info.SectionSelection;
+import org.metadatacenter.cedar.monitor.keycloak.KeycloakAdminClient;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.exception.CedarException;
-import org.metadatacenter.exception.CedarProcessingException;
 import org.metadatacenter.id.CedarUserId;
 import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.model.folderserver.basic.FolderServerGroup;
@@ -16,16 +23,11 @@ import org.metadatacenter.model.folderserver.basic.FolderServerUser;
 import org.metadatacenter.rest.context.CedarRequestContext;
 import org.metadatacenter.server.UserServiceSession;
 import org.metadatacenter.server.neo4j.proxy.Neo4JProxies;
-import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
-import org.metadatacenter.server.security.KeycloakUtilInfo;
-import org.metadatacenter.server.security.KeycloakUtils;
 import org.metadatacenter.server.security.model.auth.CedarPermission;
-import org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission;
 import org.metadatacenter.server.security.model.user.CedarGroupExtract;
 import org.metadatacenter.server.security.model.user.CedarUser;
-import org.metadatacenter.server.security.model.user.ResourcePublicationStatusFilter;
-import org.metadatacenter.server.security.model.user.ResourceVersionFilter;
 import org.metadatacenter.server.service.UserService;
+import org.metadatacenter.util.http.CedarResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +39,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.metadatacenter.cedar.monitor.info.SectionSelection.QP_EXCLUDE;
+import static org.metadatacenter.cedar.monitor.info.SectionSelection.QP_INCLUDE;
 import static org.metadatacenter.constant.CedarPathParameters.PP_ID;
 import static org.metadatacenter.rest.assertion.GenericAssertions.LoggedIn;
 
@@ -47,26 +51,57 @@ public class ResourceInfoUser extends AbstractMonitorResource {
   private static final Logger log = LoggerFactory.getLogger(ResourceInfoUser.class);
 
   private static UserService userService;
-  private static NodeSearchingService nodeSearchingService;
 
-  public ResourceInfoUser(CedarConfig cedarConfig) {
+  private static final String QP_COUNTS = "counts";
+  private static final String SECTION_NEO4J = "neo4j";
+  private static final String SECTION_KEYCLOAK = "keycloak";
+  private static final String SECTION_NEO4J_ACCESSIBLE = "neo4jAccessibleCount";
+  private static final String SECTION_OPENSEARCH_ACCESSIBLE = "opensearchAccessibleCount";
+  private static final List<String> USER_SECTIONS = List.of(SECTION_NEO4J, SECTION_NEO4J_ACCESSIBLE,
+      SECTION_OPENSEARCH_ACCESSIBLE, SECTION_KEYCLOAK);
+
+  private final KeycloakAdminClient keycloakAdminClient;
+  private final UserAccessibleCounts userAccessibleCounts;
+  private final DeadlineFanOut fanOut;
+  private final ResourceInfoConfig resourceInfoConfig;
+  private final BackendMetrics backendMetrics;
+
+  public ResourceInfoUser(CedarConfig cedarConfig, KeycloakAdminClient keycloakAdminClient,
+                          UserAccessibleCounts userAccessibleCounts, DeadlineFanOut fanOut,
+                          ResourceInfoConfig resourceInfoConfig, BackendMetrics backendMetrics) {
     super(cedarConfig);
+    this.keycloakAdminClient = keycloakAdminClient;
+    this.userAccessibleCounts = userAccessibleCounts;
+    this.fanOut = fanOut;
+    this.resourceInfoConfig = resourceInfoConfig;
+    this.backendMetrics = backendMetrics;
   }
 
-  public static void injectServices(UserService userService, NodeSearchingService nodeSearchingService) {
+  public static void injectServices(UserService userService) {
     ResourceInfoUser.userService = userService;
-    ResourceInfoUser.nodeSearchingService = nodeSearchingService;
   }
 
   @GET
   @Timed
   @Path("/users")
-  public Response getUserInfo(@QueryParam(PP_ID) String id) throws CedarException {
+  public Response getUserInfo(@QueryParam(PP_ID) String id,
+                              @QueryParam(QP_COUNTS) @DefaultValue("detailed") String counts,
+                              @QueryParam(QP_INCLUDE) String include,
+                              @QueryParam(QP_EXCLUDE) String exclude) throws CedarException {
 
     CedarRequestContext c = buildRequestContext();
     c.must(c.user()).be(LoggedIn);
     c.must(c.user()).have(CedarPermission.MONITOR_READ);
 
+    AccessibleCountMode countMode = AccessibleCountMode.forValue(counts);
+    if (countMode == null) {
+      return CedarResponse.badRequest().errorMessage("Unknown count mode").parameter(QP_COUNTS, counts).build();
+    }
+    SectionSelection selection = SectionSelection.of(include, exclude, USER_SECTIONS);
+    if (!selection.isValid()) {
+      return selection.badRequest();
+    }
+
     Map<String, Object> r = new HashMap<>();
 
     CedarUserId uid = CedarUserId.build(id);
@@ -74,18 +109,36 @@ public class ResourceInfoUser extends AbstractMonitorResource {
     UserServiceSession userSession = CedarDataServices.getUserServiceSession(c);
     Neo4JProxies proxies = CedarDataServices.getProxies();
 
-    CedarUser cedarUser = userService.findUser(uid);
+    CedarUser cedarUser = backendMetrics.call(BackendMetrics.MONGO, "findUser", () -> userService.findUser(uid));
     if (cedarUser != null) {
-      readUserInfo(r, uid, cedarUser, proxies, userSession);
+      readUserInfo(r, uid, cedarUser, proxies, userSession, countMode, selection);
     }
 
     return Response.ok().entity(r).build();
   }
 
   private void readUserInfo(Map<String, Object> r, CedarUserId uid, CedarUser cedarUser, Neo4JProxies proxies,
-                            UserServiceSession userSession) {
+                            UserServiceSession userSession, AccessibleCountMode countMode,
+                            SectionSelection selection) {
     r.put("resourceType", CedarResourceType.USER);
     r.put("cedarUser", cedarUser);
+    r.put("countMode", countMode.getValue());
+
+    DeadlineFanOut.Builder sections = fanOut.sections();
+    selection.add(sections, SECTION_NEO4J, resourceInfoConfig.getTimeoutMillis(SECTION_NEO4J),
+        neo4j -> readNeo4jUser(uid, proxies, userSession, neo4j));
+    if (countMode != AccessibleCountMode.NONE) {
+      selection.add(sections, SECTION_NEO4J_ACCESSIBLE, resourceInfoConfig.getTimeoutMillis(SECTION_NEO4J_ACCESSIBLE),
+          counts -> userAccessibleCounts.readNeo4j(proxies, cedarUser, countMode, counts));
+      selection.add(sections, SECTION_OPENSEARCH_ACCESSIBLE,
+          resourceInfoConfig.getTimeoutMillis(SECTION_OPENSEARCH_ACCESSIBLE),
+          counts -> userAccessibleCounts.readOpenSearch(cedarUser.getId(), findMemberGroupIds(uid, proxies),
+              countMode, counts));
+    }
+    selection.add(sections, SECTION_KEYCLOAK, resourceInfoConfig.getTimeoutMillis(SECTION_KEYCLOAK),
+        keycloak -> keycloak.put("user", readKeycloakUser(uid)));
+    Map<String, SectionResult> results = sections.run();
+    r.put(FilesystemResourceInfoAssembler.SECTIONS, results);
 
     Map<String, Object> neo4j = new HashMap<>();
     r.put("neo4j", neo4j);
@@ -93,21 +146,40 @@ public class ResourceInfoUser extends AbstractMonitorResource {
     Map<String, Object> neo4jExtra = new HashMap<>();
     neo4j.put("extra", neo4jExtra);
 
-    FolderServerUser folderServeUser = userSession.getUser(uid);
-    neo4j.put("user", folderServeUser);
+    if (results.containsKey(SECTION_NEO4J)) {
+      Map<String, Object> neo4jValues = results.get(SECTION_NEO4J).getValues();
+      neo4j.put("user", neo4jValues.get("user"));
+      neo4jExtra.put("groupsWithMembership", neo4jValues.get("groupsWithMembership"));
+      neo4jExtra.put("groupsWithAdministrator", neo4jValues.get("groupsWithAdministrator"));
+    }
+    if (results.containsKey(SECTION_NEO4J_ACCESSIBLE)) {
+      neo4jExtra.put("accessibleCount", results.get(SECTION_NEO4J_ACCESSIBLE).getValues());
+    }
 
-    Map<String, Object> counts1 = new HashMap<>();
-    counts1.put("field", getAccessibleSearchIndexDocumentCount(proxies, CedarResourceType.FIELD, cedarUser));
-    counts1.put("element", getAccessibleSearchIndexDocumentCount(proxies, CedarResourceType.ELEMENT, cedarUser));
-    counts1.put("template", getAccessibleSearchIndexDocumentCount(proxies, CedarResourceType.TEMPLATE, cedarUser));
-    counts1.put("templateInstance", getAccessibleSearchIndexDocumentCount(proxies, CedarResourceType.INSTANCE,
-        cedarUser));
-    counts1.put("folder", getAccessibleSearchIndexDocumentCount(proxies, CedarResourceType.FOLDER, cedarUser));
+    Map<String, Object> opensearch = new HashMap<>();
+    r.put("opensearch", opensearch);
+
+    if (results.containsKey(SECTION_OPENSEARCH_ACCESSIBLE)) {
+      Map<String, Object> accessible = results.get(SECTION_OPENSEARCH_ACCESSIBLE).getValues();
+      opensearch.put(UserAccessibleCounts.READABLE, accessible.get(UserAccessibleCounts.READABLE));
+      opensearch.put(UserAccessibleCounts.WRITEABLE, accessible.get(UserAccessibleCounts.WRITEABLE));
+    }
+
+    if (results.containsKey(SECTION_KEYCLOAK)) {
+      r.put("keycloak", results.get(SECTION_KEYCLOAK).getValues());
+    }
+  }
 
-    neo4jExtra.put("accessibleCount", counts1);
+  private void readNeo4jUser(CedarUserId uid, Neo4JProxies proxies, UserServiceSession userSession,
+                             Map<String, Object> neo4j) {
+    FolderServerUser folderServeUser = backendMetrics.call(BackendMetrics.NEO4J, "getUser",
+        () -> userSession.getUser(uid));
+    neo4j.put("user", folderServeUser);
 
-    List<FolderServerGroup> groupsOfMemberUser = proxies.group().findGroupsOfMemberUser(uid);
-    List<FolderServerGroup> groupsOfAdministratorUser = proxies.group().findGroupsOfAdministratorUser(uid);
+    List<FolderServerGroup> groupsOfMemberUser = backendMetrics.call(BackendMetrics.NEO4J,
+        "findGroupsOfMemberUser", () -> proxies.group().findGroupsOfMemberUser(uid));
+    List<FolderServerGroup> groupsOfAdministratorUser = backendMetrics.call(BackendMetrics.NEO4J,
+        "findGroupsOfAdministratorUser", () -> proxies.group().findGroupsOfAdministratorUser(uid));
 
     List<CedarGroupExtract> memberGroups = new ArrayList<>();
     for (FolderServerGroup g : groupsOfMemberUser) {
@@ -119,82 +191,33 @@ public class ResourceInfoUser extends AbstractMonitorResource {
       adminGroups.add(new CedarGroupExtract(g.getId(), g.getName()));
     }
 
-    neo4jExtra.put("groupsWithMembership", memberGroups);
-    neo4jExtra.put("groupsWithAdministrator", adminGroups);
+    neo4j.put("groupsWithMembership", memberGroups);
+    neo4j.put("groupsWithAdministrator", adminGroups);
+  }
 
-    Map<String, Object> opensearch = new HashMap<>();
-    r.put("opensearch", opensearch);
+  private List<String> findMemberGroupIds(CedarUserId uid, Neo4JProxies proxies) {
+    List<FolderServerGroup> groups = backendMetrics.call(BackendMetrics.NEO4J, "findGroupsOfMemberUser",
+        () -> proxies.group().findGroupsOfMemberUser(uid));
+    List<String> groupIds = new ArrayList<>(groups.size());
+    for (FolderServerGroup g : groups) {
+      groupIds.add(g.getId());
+    }
+    return groupIds;
+  }
 
-    Map<String, Object> counts2 = new HashMap<>();
-    counts2.put("field", getAccessibleSearchIndexDocumentCount(CedarResourceType.FIELD, cedarUser,
-        FilesystemResourcePermission.READ));
-    counts2.put("element", getAccessibleSearchIndexDocumentCount(CedarResourceType.ELEMENT, cedarUser,
-        FilesystemResourcePermission.READ));
-    counts2.put("template", getAccessibleSearchIndexDocumentCount(CedarResourceType.TEMPLATE, cedarUser,
-        FilesystemResourcePermission.READ));
-    counts2.put("templateInstance", getAccessibleSearchIndexDocumentCount(CedarResourceType.INSTANCE, cedarUser,
-        FilesystemResourcePermission.READ));
-    counts2.put("folder", getAccessibleSearchIndexDocumentCount(CedarResourceType.FOLDER, cedarUser,
-        FilesystemResourcePermission.READ));
-
-    opensearch.put("readableCount", counts2);
-
-    Map<String, Object> counts3 = new HashMap<>();
-    counts3.put("field", getAccessibleSearchIndexDocumentCount(CedarResourceType.FIELD, cedarUser,
-        FilesystemResourcePermission.WRITE));
-    counts3.put("element", getAccessibleSearchIndexDocumentCount(CedarResourceType.ELEMENT, cedarUser,
-        FilesystemResourcePermission.WRITE));
-    counts3.put("template", getAccessibleSearchIndexDocumentCount(CedarResourceType.TEMPLATE, cedarUser,
-        FilesystemResourcePermission.WRITE));
-    counts3.put("templateInstance", getAccessibleSearchIndexDocumentCount(CedarResourceType.INSTANCE, cedarUser,
-        FilesystemResourcePermission.WRITE));
-    counts3.put("folder", getAccessibleSearchIndexDocumentCount(CedarResourceType.FOLDER, cedarUser,
-        FilesystemResourcePermission.WRITE));
-
-    opensearch.put("writeableCount", counts3);
-
-
-    Map<String, Object> keycloak = new HashMap<>();
-    r.put("keycloak", keycloak);
-
-    try {
-      KeycloakUtilInfo kcInfo = KeycloakUtils.initKeycloak(cedarConfig);
-
-      Keycloak kc = KeycloakUtils.buildKeycloak(kcInfo);
-      String userUUID = linkedDataUtil.getUUID(uid.getId(), CedarResourceType.USER);
-      UserResource userResource = kc.realm(kcInfo.getKeycloakRealmName()).users().get(userUUID);
-      UserRepresentation userRepresentation = userResource.toRepresentation();
+  private UserRepresentation readKeycloakUser(CedarUserId uid) {
+    String userUUID = linkedDataUtil.getUUID(uid.getId(), CedarResourceType.USER);
+    return keycloakAdminClient.call("getUser", realm -> {
+      UserResource userResource = realm.users().get(userUUID);
+      UserRepresentation representation = userResource.toRepresentation();
       List<RoleRepresentation> roleRepresentations = userResource.roles().realmLevel().listEffective();
       List<String> realmRoles = new ArrayList<>();
       for (RoleRepresentation rr : roleRepresentations) {
         realmRoles.add(rr.getName());
       }
-      userRepresentation.setRealmRoles(realmRoles);
-      keycloak.put("user", userRepresentation);
-    } catch (Exception e) {
-      log.error("Error while reading user from Keycloak", e);
-      keycloak.put("user", null);
-    }
-  }
-
-  private long getAccessibleSearchIndexDocumentCount(CedarResourceType resourceType, CedarUser cedarUser,
-                                                     FilesystemResourcePermission permission) {
-    List<String> resourceTypes = new ArrayList<>();
-    resourceTypes.add(resourceType.getValue());
-    try {
-      return nodeSearchingService.searchAccessibleResourceCountByUser(resourceTypes, permission, cedarUser);
-    } catch (CedarProcessingException e) {
-      log.error("Error while reading accessible document count", e);
-    }
-    return -1;
-  }
-
-  private long getAccessibleSearchIndexDocumentCount(Neo4JProxies proxies, CedarResourceType resourceType,
-                                                     CedarUser cedarUser) {
-    List<CedarResourceType> resourceTypes = new ArrayList<>();
-    resourceTypes.add(resourceType);
-    return proxies.resource().viewAllFilteredCount(resourceTypes, ResourceVersionFilter.ALL,
-        ResourcePublicationStatusFilter.ALL, cedarUser);
+      representation.setRealmRoles(realmRoles);
+      return representation;
+    });
   }
 
 }
@@ -0,0 +1,59 @@
+-- Tables the monitor server writes to in the CEDAR logging database (MySQL).
+-- Run this once against the logging database when its Hibernate configuration does not set
+-- hibernate.hbm2ddl.auto=update. The server checks for these tables at startup and refuses to start without them.
+
+CREATE TABLE IF NOT EXISTS monitor_count_snapshot (
+  id              BIGINT      NOT NULL AUTO_INCREMENT,
+  capturedAt      DATETIME(6) NOT NULL,
+  resourceType    VARCHAR(32) NOT NULL,
+  neo4jCount      BIGINT,
+  mongoCount      BIGINT,
+  opensearchCount BIGINT,
+  PRIMARY KEY (id),
+  INDEX idx_monitor_count_snapshot_type_time (resourceType, capturedAt)
+);
+
+CREATE TABLE IF NOT EXISTS monitor_queue_depth_snapshot (
+  id         BIGINT      NOT NULL AUTO_INCREMENT,
+  capturedAt DATETIME(6) NOT NULL,
+  queueId    VARCHAR(64) NOT NULL,
+  depth      BIGINT      NOT NULL,
+  PRIMARY KEY (id),
+  INDEX idx_monitor_queue_depth_snapshot_queue_time (queueId, capturedAt)
+);
+
+CREATE TABLE IF NOT EXISTS monitor_request_rollup (
+  id          BIGINT       NOT NULL AUTO_INCREMENT,
+  granularity VARCHAR(8)   NOT NULL,
+  bucketStart DATETIME(6)  NOT NULL,
+  server      VARCHAR(64)  NOT NULL,
+  endpoint    VARCHAR(255) NOT NULL,
+  status      INT          NOT NULL,
+  callCount   BIGINT       NOT NULL,
+  totalMillis BIGINT       NOT NULL,
+  maxMillis   BIGINT       NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_monitor_request_rollup_key (granularity, bucketStart, server, endpoint, status),
+  INDEX idx_monitor_request_rollup_bucket (granularity, bucketStart)
+);
+
+CREATE TABLE IF NOT EXISTS monitor_cypher_rollup (
+  id              BIGINT        NOT NULL AUTO_INCREMENT,
+  granularity     VARCHAR(8)    NOT NULL,
+  bucketStart     DATETIME(6)   NOT NULL,
+  fingerprintHash VARCHAR(40)   NOT NULL,
+  fingerprint     VARCHAR(4096) NOT NULL,
+  callCount       BIGINT        NOT NULL,
+  totalMillis     BIGINT        NOT NULL,
+  maxMillis       BIGINT        NOT NULL,
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_monitor_cypher_rollup_key (granularity, bucketStart, fingerprintHash),
+  INDEX idx_monitor_cypher_rollup_bucket (granularity, bucketStart)
+);
+
+CREATE TABLE IF NOT EXISTS monitor_rollup_checkpoint (
+  source    VARCHAR(32) NOT NULL,
+  lastId    BIGINT      NOT NULL,
+  updatedAt DATETIME(6),
+  PRIMARY KEY (source)
+);
@@ -0,0 +1,81 @@
+package org.metadatacenter.cedar.monitor.concurrent;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachedSnapshotTest {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentMissesShareOneComputation() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    CachedSnapshot<Integer> cache = new CachedSnapshot<>("test", () -> {
+      await(release);
+      return loads.incrementAndGet();
+    }, 60_000, executor);
+
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<CachedSnapshot.Snapshot<Integer>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(callers.submit(cache::get));
+      }
+      Thread.sleep(100);
+      release.countDown();
+      for (Future<CachedSnapshot.Snapshot<Integer>> result : results) {
+        Assert.assertEquals(Integer.valueOf(1), result.get(5, TimeUnit.SECONDS).getValue());
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void staleSnapshotIsServedWhileRefreshing() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    CachedSnapshot<Integer> cache = new CachedSnapshot<>("test", () -> {
+      if (loads.get() > 0) {
+        await(release);
+      }
+      return loads.incrementAndGet();
+    }, 0, executor);
+
+    Assert.assertEquals(Integer.valueOf(1), cache.get().getValue());
+    Assert.assertEquals(Integer.valueOf(1), cache.get().getValue());
+    Assert.assertEquals(Boolean.TRUE, cache.describe(cache.get()).get("refreshing"));
+
+    CompletableFuture<CachedSnapshot.Snapshot<Integer>> running = cache.refresh();
+    release.countDown();
+    Assert.assertEquals(Integer.valueOf(2), running.get(5, TimeUnit.SECONDS).getValue());
+    Assert.assertEquals(2, loads.get());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package org.metadatacenter.cedar.monitor.counts;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.server.security.model.auth.CedarNodeMaterializedPermissions;
+import org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.metadatacenter.constant.OpenSearchConstants.GROUPS;
+import static org.metadatacenter.constant.OpenSearchConstants.INFO_RESOURCE_TYPE;
+import static org.metadatacenter.constant.OpenSearchConstants.USERS;
+import static org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission.READ;
+import static org.metadatacenter.server.security.model.permission.resource.FilesystemResourcePermission.WRITE;
+
+/**
+ * Runs the accessible count search against an in-memory index that evaluates the terms, bool and filters clauses
+ * the search uses, so the counts are checked against the documents rather than against canned buckets.
+ */
+public class UserAccessibleCountsTest {
+
+  private static final String USER_ID = "https://metadatacenter.org/users/0b1c2d3e-4f5a-6b7c-8d9e-0f1a2b3c4d5e";
+  private static final String OTHER_USER_ID = "https://metadatacenter.org/users/99999999-4f5a-6b7c-8d9e-0f1a2b3c4d5e";
+  private static final String GROUP_1 = "https://metadatacenter.org/groups/1";
+  private static final String GROUP_2 = "https://metadatacenter.org/groups/2";
+  private static final String OTHER_GROUP = "https://metadatacenter.org/groups/3";
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<Map<String, Set<String>>> documents = new ArrayList<>();
+  private final List<ObjectNode> searches = new ArrayList<>();
+  private UserAccessibleCounts userAccessibleCounts;
+
+  @Before
+  public void setUp() {
+    // Owned by the user, who can write it
+    document(CedarResourceType.TEMPLATE, Set.of(key(USER_ID, WRITE)), Set.of());
+    // Shared read-only with a group of the user
+    document(CedarResourceType.TEMPLATE, Set.of(), Set.of(key(GROUP_1, READ)));
+    // Shared writeable with another group of the user
+    document(CedarResourceType.FIELD, Set.of(), Set.of(key(GROUP_2, WRITE)));
+    // Readable by the user directly, writeable through a group
+    document(CedarResourceType.FOLDER, Set.of(key(USER_ID, READ)), Set.of(key(GROUP_1, WRITE)));
+    // Shared with another user and with a group the user is not in
+    document(CedarResourceType.INSTANCE, Set.of(key(OTHER_USER_ID, WRITE)), Set.of());
+    document(CedarResourceType.FOLDER, Set.of(), Set.of(key(OTHER_GROUP, READ)));
+    // Accessible, but not one of the counted types
+    document(CedarResourceType.USER, Set.of(key(USER_ID, WRITE)), Set.of());
+
+    BackendMetrics backendMetrics = new BackendMetrics(new MetricRegistry());
+    OpenSearchClient openSearchClient = new OpenSearchClient(null, mapper,
+        URI.create("http://localhost:9200/cedar-search/"), Duration.ofSeconds(1)) {
+      @Override
+      public JsonNode search(ObjectNode body) {
+        searches.add(body);
+        return evaluate(body);
+      }
+    };
+    userAccessibleCounts = new UserAccessibleCounts(openSearchClient, backendMetrics);
+  }
+
+  @Test
+  public void detailedCountsReadableAndWriteableWithOneSearch() throws Exception {
+    Map<String, Object> counts = new HashMap<>();
+    userAccessibleCounts.readOpenSearch(USER_ID, List.of(GROUP_1, GROUP_2), AccessibleCountMode.DETAILED, counts);
+
+    assertEquals(1, searches.size());
+    assertEquals(0, searches.get(0).path("size").asInt());
+
+    Map<?, ?> readable = (Map<?, ?>) counts.get(UserAccessibleCounts.READABLE);
+    assertEquals(2L, readable.get("template"));
+    assertEquals(1L, readable.get("field"));
+    assertEquals(1L, readable.get("folder"));
+    assertEquals(0L, readable.get("templateInstance"));
+    assertEquals(4L, readable.get(UserAccessibleCounts.TOTAL));
+
+    Map<?, ?> writeable = (Map<?, ?>) counts.get(UserAccessibleCounts.WRITEABLE);
+    assertEquals(1L, writeable.get("template"));
+    assertEquals(1L, writeable.get("field"));
+    assertEquals(1L, writeable.get("folder"));
+    assertEquals(3L, writeable.get(UserAccessibleCounts.TOTAL));
+  }
+
+  @Test
+  public void summaryReportsTheTotalsOnly() throws Exception {
+    Map<String, Object> counts = new HashMap<>();
+    userAccessibleCounts.readOpenSearch(USER_ID, List.of(), AccessibleCountMode.SUMMARY, counts);
+
+    Map<?, ?> readable = (Map<?, ?>) counts.get(UserAccessibleCounts.READABLE);
+    Map<?, ?> writeable = (Map<?, ?>) counts.get(UserAccessibleCounts.WRITEABLE);
+    assertEquals(2L, readable.get(UserAccessibleCounts.TOTAL));
+    assertEquals(1L, writeable.get(UserAccessibleCounts.TOTAL));
+    assertFalse(readable.containsKey("template"));
+  }
+
+  @Test
+  public void noneAsksNoStore() throws Exception {
+    Map<String, Object> counts = new HashMap<>();
+    userAccessibleCounts.readNeo4j(null, null, AccessibleCountMode.NONE, counts);
+    userAccessibleCounts.readOpenSearch(USER_ID, List.of(GROUP_1), AccessibleCountMode.NONE, counts);
+
+    assertEquals(0, searches.size());
+    assertEquals(0, counts.size());
+  }
+
+  private static String key(String id, FilesystemResourcePermission permission) {
+    return CedarNodeMaterializedPermissions.getKey(id, permission);
+  }
+
+  private void document(CedarResourceType type, Set<String> users, Set<String> groups) {
+    documents.add(Map.of(INFO_RESOURCE_TYPE, Set.of(type.getValue()), USERS, users, GROUPS, groups));
+  }
+
+  private JsonNode evaluate(ObjectNode body) {
+    JsonNode permissions = body.path("aggs").path("permissions");
+    JsonNode typeField = permissions.path("aggs").path("types").path("terms").path("field");
+    ObjectNode response = mapper.createObjectNode();
+    ObjectNode buckets = response.putObject("aggregations").putObject("permissions").putObject("buckets");
+    Iterator<Map.Entry<String, JsonNode>> filters = permissions.path("filters").path("filters").fields();
+    while (filters.hasNext()) {
+      Map.Entry<String, JsonNode> filter = filters.next();
+      Map<String, Long> byType = new HashMap<>();
+      for (Map<String, Set<String>> document : documents) {
+        if (matches(body.path("query"), document) && matches(filter.getValue(), document)) {
+          for (String type : document.get(typeField.asText())) {
+            byType.merge(type, 1L, Long::sum);
+          }
+        }
+      }
+      ObjectNode types = buckets.putObject(filter.getKey()).putObject("types");
+      for (Map.Entry<String, Long> entry : byType.entrySet()) {
+        types.withArray("buckets").addObject().put("key", entry.getKey()).put("doc_count", entry.getValue());
+      }
+    }
+    return response;
+  }
+
+  private static boolean matches(JsonNode query, Map<String, Set<String>> document) {
+    if (query.has("terms")) {
+      Map.Entry<String, JsonNode> terms = query.path("terms").fields().next();
+      for (JsonNode value : terms.getValue()) {
+        if (document.get(terms.getKey()).contains(value.asText())) {
+          return true;
+        }
+      }
+      return false;
+    }
+    JsonNode bool = query.path("bool");
+    for (JsonNode filter : bool.path("filter")) {
+      if (!matches(filter, document)) {
+        return false;
+      }
+    }
+    int matched = 0;
+    for (JsonNode should : bool.path("should")) {
+      if (matches(should, document)) {
+        matched++;
+      }
+    }
+    return matched >= bool.path("minimum_should_match").asInt(0);
+  }
+}
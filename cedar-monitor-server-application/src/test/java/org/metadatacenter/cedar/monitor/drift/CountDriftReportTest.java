@@ -0,0 +1,67 @@
+package org.metadatacenter.cedar.monitor.drift;
+
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CountSnapshot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CountDriftReportTest {
+
+  private static CountSnapshot snapshot(int minute, Long neo4j, Long mongo, Long opensearch) {
+    CountSnapshot s = new CountSnapshot();
+    s.setCapturedAt(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(60L * minute));
+    s.setResourceType("template");
+    s.setNeo4jCount(neo4j);
+    s.setMongoCount(mongo);
+    s.setOpensearchCount(opensearch);
+    return s;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> summary(Map<String, Object> report, String store) {
+    return (Map<String, Object>) ((Map<String, Object>) report.get("drift")).get(store);
+  }
+
+  @Test
+  public void driftStartsAtTheOldestSnapshotOfTheCurrentRun() {
+    Map<String, Object> report = CountDriftReport.of(List.of(
+        snapshot(3, 12L, 10L, 12L),
+        snapshot(2, 11L, 10L, 11L),
+        snapshot(1, 10L, 10L, 9L),
+        snapshot(0, 10L, 10L, 10L)));
+
+    Map<String, Object> mongo = summary(report, CountDriftReport.MONGO);
+    assertEquals(2L, mongo.get("current"));
+    assertEquals("2026-01-01T00:02:00Z", mongo.get("since"));
+    assertFalse((Boolean) mongo.get("startedBeforeWindow"));
+
+    Map<String, Object> opensearch = summary(report, CountDriftReport.OPENSEARCH);
+    assertEquals(0L, opensearch.get("current"));
+    assertNull(opensearch.get("since"));
+
+    List<?> points = (List<?>) report.get("points");
+    assertEquals(4, points.size());
+    assertEquals("2026-01-01T00:00:00Z", ((Map<?, ?>) points.get(0)).get("capturedAt"));
+  }
+
+  @Test
+  public void driftOlderThanTheWindowIsFlagged() {
+    Map<String, Object> report = CountDriftReport.of(List.of(
+        snapshot(1, 10L, 8L, null),
+        snapshot(0, 10L, 9L, null)));
+
+    Map<String, Object> mongo = summary(report, CountDriftReport.MONGO);
+    assertEquals(2L, mongo.get("current"));
+    assertEquals("2026-01-01T00:00:00Z", mongo.get("since"));
+    assertTrue((Boolean) mongo.get("startedBeforeWindow"));
+
+    assertNull(summary(report, CountDriftReport.OPENSEARCH).get("current"));
+  }
+}
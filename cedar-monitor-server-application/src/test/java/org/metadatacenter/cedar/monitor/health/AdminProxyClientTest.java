@@ -0,0 +1,64 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+public class AdminProxyClientTest {
+
+  private HttpServer server;
+  private AdminProxyClient client;
+  private final MetricRegistry metrics = new MetricRegistry();
+
+  @Before
+  public void start() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/healthcheck", exchange -> {
+      byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    client = new AdminProxyClient(new HealthCheckConfig(), metrics);
+    client.start();
+  }
+
+  @After
+  public void stop() throws Exception {
+    client.stop();
+    server.stop(0);
+  }
+
+  @Test
+  public void connectionsAreReturnedToThePoolAfterStreaming() throws Exception {
+    String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/healthcheck";
+    for (int i = 0; i < 3; i++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (CloseableHttpResponse response = client.get(url)) {
+        Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+        Assert.assertEquals(1, gauge("pool.leased"));
+        response.getEntity().writeTo(out);
+      }
+      Assert.assertEquals("{\"ok\":true}", out.toString(StandardCharsets.UTF_8));
+      Assert.assertEquals(0, gauge("pool.leased"));
+    }
+    Assert.assertEquals(1, gauge("pool.available"));
+    Assert.assertEquals(3, metrics.timer(MetricRegistry.name(AdminProxyClient.class, "latency")).getCount());
+  }
+
+  private int gauge(String name) {
+    return (Integer) ((Gauge<?>) client.getMetrics().get(name)).getValue();
+  }
+}
@@ -0,0 +1,88 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.dropwizard.util.Duration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.config.ServerConfig;
+import org.metadatacenter.model.ServerName;
+
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+public class ClusterHealthCheckerTest {
+
+  private HttpServer server;
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @Before
+  public void startServer() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/healthy/healthcheck", exchange -> {
+      byte[] body = "{\"deadlocks\":{\"healthy\":true}}".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.createContext("/hung/healthcheck", exchange -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.close();
+    });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+  }
+
+  @After
+  public void stopServer() {
+    release.countDown();
+    server.stop(0);
+  }
+
+  @Test
+  public void hungServerOnlyTimesOutItself() {
+    String base = "http://127.0.0.1:" + server.getAddress().getPort();
+    Map<ServerName, ServerConfig> servers = new EnumMap<>(ServerName.class);
+    servers.put(ServerName.USER, adminBase(base + "/healthy/"));
+    servers.put(ServerName.ARTIFACT, adminBase(base + "/hung/"));
+
+    HealthCheckConfig config = new HealthCheckConfig();
+    config.setConnectTimeout(Duration.seconds(1));
+    config.setReadTimeout(Duration.seconds(2));
+    ClusterHealthChecker checker = new ClusterHealthChecker(HttpClient.newHttpClient(), new ObjectMapper(), servers,
+        config);
+    // The first request of a fresh HttpClient pays for its setup; take that out of the concurrent check
+    checker.check(ServerName.USER).join();
+
+    Map<String, ServerHealth> results = checker.checkAll().join();
+
+    ServerHealth healthy = results.get(ServerName.USER.getName());
+    Assert.assertEquals(ServerHealth.STATUS_HEALTHY, healthy.getStatus());
+    Assert.assertEquals(Integer.valueOf(200), healthy.getHttpStatus());
+    Assert.assertNotNull(healthy.getBody());
+    ServerHealth hung = results.get(ServerName.ARTIFACT.getName());
+    Assert.assertEquals(ServerHealth.STATUS_TIMEOUT, hung.getStatus());
+    Assert.assertNull(hung.getHttpStatus());
+  }
+
+  private static ServerConfig adminBase(String adminBase) {
+    return new ServerConfig() {
+      @Override
+      public String getAdminBase() {
+        return adminBase;
+      }
+    };
+  }
+}
@@ -0,0 +1,65 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.config.HealthCheckConfig;
+import org.metadatacenter.model.ServerName;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class HealthPollerTest {
+
+  private static ServerHealth health(ServerName server, String status, long at) {
+    return new ServerHealth(server.getName(), status, null, 1, at, null, null);
+  }
+
+  @Test
+  public void onlyChangesOfHealthAreRecorded() {
+    HealthCheckConfig config = new HealthCheckConfig();
+    config.setHistorySize(3);
+    HealthPoller poller = new HealthPoller(null, null, config);
+
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_HEALTHY, 1));
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_HEALTHY, 2));
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_TIMEOUT, 3));
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_ERROR, 4));
+    poller.record(ServerName.ARTIFACT, health(ServerName.ARTIFACT, ServerHealth.STATUS_HEALTHY, 5));
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_HEALTHY, 6));
+
+    List<HealthTransition> history = poller.getHistory(null, 10);
+    Assert.assertEquals(3, history.size());
+    Assert.assertEquals(6, history.get(0).getAtMillis());
+    Assert.assertEquals(ServerHealth.STATUS_ERROR, history.get(0).getFromStatus());
+    Assert.assertEquals(ServerName.ARTIFACT.getName(), history.get(1).getServer());
+    Assert.assertNull(history.get(1).getFromStatus());
+    Assert.assertEquals(ServerHealth.STATUS_TIMEOUT, history.get(2).getToStatus());
+
+    Assert.assertEquals(2, poller.getHistory(ServerName.USER.getName(), 10).size());
+    Map<String, ServerHealth> latest = poller.getAllLatest();
+    Assert.assertEquals(6, latest.get(ServerName.USER.getName()).getCheckedAtMillis());
+  }
+
+  @Test
+  public void olderResultsDoNotReplaceNewerOnes() {
+    HealthPoller poller = new HealthPoller(null, null, new HealthCheckConfig());
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_HEALTHY, 10));
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_TIMEOUT, 5));
+    Assert.assertTrue(poller.getLatest(ServerName.USER).isHealthy());
+    Assert.assertEquals(1, poller.getHistory(null, 10).size());
+  }
+
+  @Test
+  public void serversNotCheckedYetAreUnknown() {
+    HealthPoller poller = new HealthPoller(null, null, new HealthCheckConfig());
+    poller.record(ServerName.USER, health(ServerName.USER, ServerHealth.STATUS_HEALTHY, 10));
+
+    Map<String, ServerHealth> latest = poller.getLatestOf(Set.of(ServerName.USER, ServerName.MONITOR));
+    Assert.assertEquals(List.of(ServerName.MONITOR.getName(), ServerName.USER.getName()),
+        List.copyOf(latest.keySet()));
+    Assert.assertTrue(latest.get(ServerName.USER.getName()).isHealthy());
+    Assert.assertEquals(ServerHealth.STATUS_UNKNOWN, latest.get(ServerName.MONITOR.getName()).getStatus());
+    Assert.assertFalse(latest.get(ServerName.MONITOR.getName()).isHealthy());
+  }
+}
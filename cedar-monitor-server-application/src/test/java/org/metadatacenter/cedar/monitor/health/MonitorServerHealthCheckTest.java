@@ -0,0 +1,62 @@
+package org.metadatacenter.cedar.monitor.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MonitorServerHealthCheckTest {
+
+  private final ExecutorService probeExecutor = Executors.newCachedThreadPool();
+
+  @After
+  public void shutdown() {
+    probeExecutor.shutdownNow();
+  }
+
+  @Test
+  public void checkOnlyReturnsTheCachedProbeResult() {
+    AtomicInteger probes = new AtomicInteger();
+    MonitorServerHealthCheck check = new MonitorServerHealthCheck("neo4j", probes::incrementAndGet, null,
+        probeExecutor, 1000, 1000, 60_000);
+
+    Assert.assertFalse(check.execute().isHealthy());
+    check.refresh();
+    Assert.assertTrue(check.execute().isHealthy());
+    Assert.assertTrue(check.execute().isHealthy());
+    Assert.assertEquals(1, probes.get());
+  }
+
+  @Test
+  public void slowOrFailingProbeIsUnhealthy() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    MonitorServerHealthCheck hung = new MonitorServerHealthCheck("redis", release::await, null, probeExecutor,
+        1000, 100, 60_000);
+    long start = System.nanoTime();
+    hung.refresh();
+    Assert.assertTrue((System.nanoTime() - start) / 1_000_000 < 1000);
+    HealthCheck.Result result = hung.execute();
+    Assert.assertFalse(result.isHealthy());
+    Assert.assertTrue(result.getMessage(), result.getMessage().contains("100 ms"));
+
+    MonitorServerHealthCheck failing = new MonitorServerHealthCheck("mongo", () -> {
+      throw new IllegalStateException("refused");
+    }, null, probeExecutor, 1000, 1000, 60_000);
+    failing.refresh();
+    Assert.assertTrue(failing.execute().getMessage().contains("refused"));
+  }
+
+  @Test
+  public void staleResultIsUnhealthy() throws Exception {
+    MonitorServerHealthCheck check = new MonitorServerHealthCheck("keycloak", () -> {
+    }, null, probeExecutor, 1000, 1000, 50);
+    check.refresh();
+    Thread.sleep(100);
+    Assert.assertFalse(check.execute().isHealthy());
+  }
+}
@@ -0,0 +1,50 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BulkResourceInfoWriterTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final BulkResourceInfoWriter writer = new BulkResourceInfoWriter(null, null, null,
+      new ResourceInfoConfig(), mapper, new BackendMetrics(new MetricRegistry()));
+
+  @Test
+  public void malformedInputEndsWithAnErrorLine() throws IOException {
+    String[] lines = write("[1, }");
+
+    assertEquals(2, lines.length);
+    assertEquals("Expected a string id, found VALUE_NUMBER_INT", mapper.readTree(lines[0]).path("error").asText());
+    JsonNode last = mapper.readTree(lines[1]);
+    assertTrue(last.path("error").asText(), last.path("error").asText().startsWith("Invalid JSON: "));
+  }
+
+  @Test
+  public void truncatedInputEndsWithAnErrorLine() throws IOException {
+    String[] lines = write("[");
+
+    assertEquals(1, lines.length);
+    assertTrue(mapper.readTree(lines[0]).path("error").asText().startsWith("Invalid JSON: "));
+  }
+
+  private String[] write(String body) throws IOException {
+    JsonParser ids = mapper.getFactory().createParser(body);
+    assertEquals(JsonToken.START_ARRAY, ids.nextToken());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.write(ids, null, SectionSelection.all(BulkResourceInfoWriter.BULK_SECTIONS), out);
+    return out.toString(StandardCharsets.UTF_8).split("\n");
+  }
+}
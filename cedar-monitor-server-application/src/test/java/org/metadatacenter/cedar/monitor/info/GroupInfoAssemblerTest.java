@@ -0,0 +1,166 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.consistency.OpenSearchIdReader;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.neo4j.Neo4jNodeReader;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GroupInfoAssemblerTest {
+
+  private static final String GROUP_ID = "https://metadatacenter.org/groups/0b1c2d3e-4f5a-6b7c-8d9e-0f1a2b3c4d5e";
+  private static final int PAGE_SIZE = 3;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<String> userIds = ids("user", 7);
+  private final List<String> documentIds = ids("doc", 6);
+  private final List<Integer> pageSizesRead = new ArrayList<>();
+  private String failAfter;
+  private ExecutorService executor;
+  private GroupInfoAssembler assembler;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+    ResourceInfoConfig config = new ResourceInfoConfig();
+    config.setGroupPageSize(PAGE_SIZE);
+    BackendMetrics backendMetrics = new BackendMetrics(new MetricRegistry());
+    Neo4jNodeReader neo4jNodeReader = new Neo4jNodeReader(null, backendMetrics) {
+      @Override
+      public List<Map<String, Object>> findGroupMembersAfter(String groupId, String afterId, int limit) {
+        List<Map<String, Object>> members = new ArrayList<>();
+        for (String id : after(userIds, afterId, limit)) {
+          Map<String, Object> member = new HashMap<>();
+          member.put(Neo4jNodeReader.GROUP_USER_ID, id);
+          member.put(Neo4jNodeReader.GROUP_USER_ADMINISTRATOR, id.endsWith("0"));
+          members.add(member);
+        }
+        return members;
+      }
+    };
+    OpenSearchIdReader openSearchIdReader = new OpenSearchIdReader(
+        new OpenSearchClient(null, mapper, URI.create("http://localhost:9200/cedar-search/"), Duration.ofSeconds(1))) {
+      @Override
+      public List<String> findGroupIdsAfter(String groupId, String afterId, int limit) throws IOException {
+        if (afterId != null && afterId.equals(failAfter)) {
+          throw new IOException("OpenSearch returned 503");
+        }
+        return after(documentIds, afterId, limit);
+      }
+    };
+    assembler = new GroupInfoAssembler(neo4jNodeReader, openSearchIdReader, new DeadlineFanOut(executor), config,
+        mapper, backendMetrics);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void pageCarriesTheCursorOfTheNextPage() {
+    Map<String, Object> r = new HashMap<>();
+    assembler.readPages(r, GROUP_ID, SectionSelection.all(GroupInfoAssembler.GROUP_SECTIONS), PAGE_SIZE, "user-2",
+        null);
+
+    Map<?, ?> users = (Map<?, ?>) r.get(GroupInfoAssembler.GROUP_USERS);
+    assertEquals(PAGE_SIZE, ((List<?>) users.get(GroupInfoAssembler.ITEMS)).size());
+    assertEquals("user-5", users.get(GroupInfoAssembler.NEXT));
+
+    Map<?, ?> ids = (Map<?, ?>) r.get(GroupInfoAssembler.SEARCH_CEDAR_IDS);
+    assertEquals(List.of("doc-0", "doc-1", "doc-2"), ids.get(GroupInfoAssembler.ITEMS));
+    assertEquals("doc-2", ids.get(GroupInfoAssembler.NEXT));
+  }
+
+  @Test
+  public void lastPageHasNoCursor() {
+    Map<String, Object> r = new HashMap<>();
+    assembler.readPages(r, GROUP_ID, SectionSelection.all(GroupInfoAssembler.GROUP_SECTIONS), PAGE_SIZE, "user-5",
+        null);
+
+    Map<?, ?> users = (Map<?, ?>) r.get(GroupInfoAssembler.GROUP_USERS);
+    assertEquals(1, ((List<?>) users.get(GroupInfoAssembler.ITEMS)).size());
+    assertNull(users.get(GroupInfoAssembler.NEXT));
+  }
+
+  @Test
+  public void streamWritesEveryPageOfEachList() throws IOException {
+    JsonNode document = stream(SectionSelection.all(GroupInfoAssembler.GROUP_SECTIONS));
+
+    assertEquals("group", document.path("resourceType").asText());
+    JsonNode users = document.path(GroupInfoAssembler.GROUP_USERS);
+    assertEquals(userIds.size(), users.path(GroupInfoAssembler.ITEMS).size());
+    assertEquals(userIds.size(), users.path(GroupInfoAssembler.COUNT).asInt());
+    assertEquals("user-6", users.path(GroupInfoAssembler.ITEMS).path(6).path(Neo4jNodeReader.GROUP_USER_ID).asText());
+    JsonNode ids = document.path(GroupInfoAssembler.SEARCH_CEDAR_IDS);
+    assertEquals(documentIds.size(), ids.path(GroupInfoAssembler.COUNT).asInt());
+    assertFalse(ids.has(GroupInfoAssembler.ERROR));
+    assertTrue(pageSizesRead.stream().allMatch(size -> size <= PAGE_SIZE));
+  }
+
+  @Test
+  public void streamClosesAFailedListWithItsResumeCursor() throws IOException {
+    failAfter = "doc-2";
+    JsonNode document = stream(SectionSelection.of(GroupInfoAssembler.SECTION_OPENSEARCH, null,
+        GroupInfoAssembler.GROUP_SECTIONS));
+
+    assertFalse(document.has(GroupInfoAssembler.GROUP_USERS));
+    JsonNode ids = document.path(GroupInfoAssembler.SEARCH_CEDAR_IDS);
+    assertEquals(PAGE_SIZE, ids.path(GroupInfoAssembler.ITEMS).size());
+    assertEquals("OpenSearch returned 503", ids.path(GroupInfoAssembler.ERROR).asText());
+    assertEquals("doc-2", ids.path(GroupInfoAssembler.NEXT).asText());
+  }
+
+  private JsonNode stream(SectionSelection selection) throws IOException {
+    Map<String, Object> head = new LinkedHashMap<>();
+    head.put("resourceType", "group");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assembler.write(head, GROUP_ID, selection, out);
+    return mapper.readTree(out.toByteArray());
+  }
+
+  private List<String> after(List<String> ids, String afterId, int limit) {
+    List<String> page = new ArrayList<>();
+    for (String id : ids) {
+      if ((afterId == null || id.compareTo(afterId) > 0) && page.size() < limit) {
+        page.add(id);
+      }
+    }
+    synchronized (pageSizesRead) {
+      pageSizesRead.add(page.size());
+    }
+    return page;
+  }
+
+  private static List<String> ids(String prefix, int count) {
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ids.add(prefix + "-" + i);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,33 @@
+package org.metadatacenter.cedar.monitor.info;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class SectionSelectionTest {
+
+  private static final List<String> AVAILABLE = List.of("path", "report", "permissions", "opensearch");
+
+  @Test
+  public void noParametersSelectsEverySection() {
+    SectionSelection selection = SectionSelection.of(null, "", AVAILABLE);
+    Assert.assertTrue(selection.isValid());
+    Assert.assertEquals(Set.copyOf(AVAILABLE), selection.getSelected());
+  }
+
+  @Test
+  public void includeRestrictsAndExcludeRemoves() {
+    SectionSelection selection = SectionSelection.of("report, permissions,opensearch", "opensearch", AVAILABLE);
+    Assert.assertTrue(selection.isValid());
+    Assert.assertEquals(Set.of("report", "permissions"), selection.getSelected());
+    Assert.assertFalse(selection.includes("path"));
+  }
+
+  @Test
+  public void unknownSectionMakesTheSelectionInvalid() {
+    SectionSelection selection = SectionSelection.of("report,reprot", null, AVAILABLE);
+    Assert.assertFalse(selection.isValid());
+  }
+}
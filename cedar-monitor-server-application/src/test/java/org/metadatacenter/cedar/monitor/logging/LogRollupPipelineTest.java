@@ -0,0 +1,236 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.hibernate.SessionFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.config.LogRollupConfig;
+import org.metadatacenter.cedar.monitor.logging.dao.CypherLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RequestLogRollupDAO;
+import org.metadatacenter.cedar.monitor.logging.dao.RollupCheckpointDAO;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.CypherLogRollup;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RequestLogRollup;
+import org.metadatacenter.cedar.monitor.logging.dbmodel.RollupCheckpoint;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs the pipeline against in-memory tables that only keep what a transaction commits, reject duplicate keys and
+ * over-long servers as the MySQL tables do, and reject any endpoint containing "poison".
+ */
+public class LogRollupPipelineTest {
+
+  private static final String SERVER = "cedar-resource-server";
+  private static final Instant MINUTE = Instant.parse("2026-01-01T10:00:00Z");
+
+  private final List<Object[]> requestRows = new ArrayList<>();
+  private final Map<List<Object>, RequestLogRollup> rollups = new HashMap<>();
+  private final Map<List<Object>, RequestLogRollup> pendingRollups = new HashMap<>();
+  private final Map<String, Long> checkpoints = new HashMap<>();
+  private final Map<String, RollupCheckpoint> pendingCheckpoints = new HashMap<>();
+  private LogRollupConfig config;
+  private LogRollupPipeline pipeline;
+
+  @Before
+  public void setUp() {
+    config = new LogRollupConfig();
+    config.setBatchSize(2);
+    config.setMaxBatchesPerRun(10);
+    SessionFactory sessionFactory = (SessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[]{SessionFactory.class}, (proxy, method, args) -> {
+          throw new UnsupportedOperationException(method.getName());
+        });
+
+    RequestLogRollupDAO requestLogRollupDAO = new RequestLogRollupDAO(sessionFactory) {
+      @Override
+      public RequestLogRollup create(RequestLogRollup rollup) {
+        if (rollup.getServer().length() > 64 || rollup.getEndpoint().contains("poison")) {
+          throw new IllegalStateException("Rejected " + rollup.getServer() + " " + rollup.getEndpoint());
+        }
+        if (rollups.containsKey(key(rollup)) || pendingRollups.containsKey(key(rollup))) {
+          throw new IllegalStateException("Duplicate key " + key(rollup));
+        }
+        pendingRollups.put(key(rollup), rollup);
+        return rollup;
+      }
+
+      @Override
+      public List<RequestLogRollup> findInBuckets(String granularity, Collection<Instant> bucketStarts) {
+        List<RequestLogRollup> found = new ArrayList<>();
+        for (RequestLogRollup rollup : rollups.values()) {
+          if (rollup.getGranularity().equals(granularity) && bucketStarts.contains(rollup.getBucketStart())) {
+            found.add(pendingRollups.computeIfAbsent(key(rollup), k -> copy(rollup)));
+          }
+        }
+        return found;
+      }
+    };
+    CypherLogRollupDAO cypherLogRollupDAO = new CypherLogRollupDAO(sessionFactory) {
+      @Override
+      public List<CypherLogRollup> findInBuckets(String granularity, Collection<Instant> bucketStarts) {
+        return List.of();
+      }
+    };
+    RollupCheckpointDAO rollupCheckpointDAO = new RollupCheckpointDAO(sessionFactory) {
+      @Override
+      public RollupCheckpoint find(String source) {
+        if (!checkpoints.containsKey(source)) {
+          return pendingCheckpoints.get(source);
+        }
+        return pendingCheckpoints.computeIfAbsent(source, s -> {
+          RollupCheckpoint checkpoint = new RollupCheckpoint();
+          checkpoint.setSource(s);
+          checkpoint.setLastId(checkpoints.get(s));
+          return checkpoint;
+        });
+      }
+
+      @Override
+      public RollupCheckpoint save(RollupCheckpoint checkpoint) {
+        pendingCheckpoints.put(checkpoint.getSource(), checkpoint);
+        return checkpoint;
+      }
+
+      @Override
+      public List<RollupCheckpoint> findAll() {
+        return List.of();
+      }
+    };
+
+    pipeline = new LogRollupPipeline(sessionFactory, requestLogRollupDAO, cypherLogRollupDAO, rollupCheckpointDAO,
+        config) {
+      @Override
+      protected List<Object[]> readBatch(String source, long lastId, int limit) {
+        List<Object[]> batch = new ArrayList<>();
+        if (SOURCE_REQUESTS.equals(source)) {
+          for (Object[] row : requestRows) {
+            if ((Long) row[0] > lastId && batch.size() < limit) {
+              batch.add(row);
+            }
+          }
+        }
+        return batch;
+      }
+
+      @Override
+      protected <T> T inTransaction(Supplier<T> work) {
+        try {
+          T result = work.get();
+          rollups.putAll(pendingRollups);
+          for (RollupCheckpoint checkpoint : pendingCheckpoints.values()) {
+            checkpoints.put(checkpoint.getSource(), checkpoint.getLastId());
+          }
+          return result;
+        } finally {
+          pendingRollups.clear();
+          pendingCheckpoints.clear();
+        }
+      }
+    };
+  }
+
+  @Test
+  public void foldsRowsIntoMinuteAndHourBuckets() {
+    row(SERVER, "/templates", 200, 10, 5);
+    row(SERVER, "/templates", 200, 30, 40);
+    row(SERVER, "/templates", 500, 7, 65);
+    pipeline.run();
+
+    RequestLogRollup minute = rollup(RollupGranularity.MINUTE, MINUTE, SERVER, "/templates", 200);
+    Assert.assertEquals(2, minute.getCallCount());
+    Assert.assertEquals(40, minute.getTotalMillis());
+    Assert.assertEquals(30, minute.getMaxMillis());
+    Assert.assertEquals(1, rollup(RollupGranularity.MINUTE, MINUTE.plusSeconds(60), SERVER, "/templates", 500)
+        .getCallCount());
+    Assert.assertEquals(2, rollup(RollupGranularity.HOUR, MINUTE, SERVER, "/templates", 200).getCallCount());
+    Assert.assertEquals(Long.valueOf(3), checkpoints.get(LogRollupPipeline.SOURCE_REQUESTS));
+  }
+
+  @Test
+  public void resumesFromTheCheckpoint() {
+    config.setMaxBatchesPerRun(1);
+    row(SERVER, "/templates", 200, 10, 5);
+    row(SERVER, "/templates", 200, 20, 10);
+    row(SERVER, "/templates", 200, 30, 15);
+
+    pipeline.run();
+    Assert.assertEquals(Long.valueOf(2), checkpoints.get(LogRollupPipeline.SOURCE_REQUESTS));
+    Assert.assertEquals(2, rollup(RollupGranularity.MINUTE, MINUTE, SERVER, "/templates", 200).getCallCount());
+
+    pipeline.run();
+    Assert.assertEquals(Long.valueOf(3), checkpoints.get(LogRollupPipeline.SOURCE_REQUESTS));
+    RequestLogRollup minute = rollup(RollupGranularity.MINUTE, MINUTE, SERVER, "/templates", 200);
+    Assert.assertEquals(3, minute.getCallCount());
+    Assert.assertEquals(60, minute.getTotalMillis());
+  }
+
+  @Test
+  public void rerunningFoldsNothingTwice() {
+    row(SERVER, "/templates", 200, 10, 5);
+    pipeline.run();
+    pipeline.run();
+    Assert.assertEquals(1, rollup(RollupGranularity.MINUTE, MINUTE, SERVER, "/templates", 200).getCallCount());
+
+    row(SERVER, "/templates", 200, 10, 6);
+    pipeline.run();
+    pipeline.run();
+    Assert.assertEquals(2, rollup(RollupGranularity.MINUTE, MINUTE, SERVER, "/templates", 200).getCallCount());
+    Assert.assertEquals(2, rollups.size());
+  }
+
+  @Test
+  public void longServersAreTruncatedAndBadRowsSkipped() {
+    String longServer = "s".repeat(100);
+    row(longServer, "/templates", 200, 10, 5);
+    row(SERVER, "/poison", 200, 10, 5);
+    row(SERVER, "/templates", 200, 10, 5);
+    pipeline.run();
+
+    Assert.assertEquals(1, rollup(RollupGranularity.MINUTE, MINUTE, longServer.substring(0, 64), "/templates", 200)
+        .getCallCount());
+    Assert.assertEquals(1, rollup(RollupGranularity.MINUTE, MINUTE, SERVER, "/templates", 200).getCallCount());
+    Assert.assertEquals(Long.valueOf(3), checkpoints.get(LogRollupPipeline.SOURCE_REQUESTS));
+    Map<?, ?> lastRun = (Map<?, ?>) pipeline.describe().get("lastRun");
+    Map<?, ?> requests = (Map<?, ?>) lastRun.get(LogRollupPipeline.SOURCE_REQUESTS);
+    Assert.assertEquals(3L, requests.get("rows"));
+    Assert.assertEquals(1L, requests.get("skippedRows"));
+  }
+
+  private void row(String server, String path, int status, long durationMillis, long secondsAfter) {
+    requestRows.add(new Object[]{(long) requestRows.size() + 1, server, "GET", path, status, durationMillis,
+        MINUTE.plusSeconds(secondsAfter)});
+  }
+
+  private RequestLogRollup rollup(RollupGranularity granularity, Instant time, String server, String path,
+                                  int status) {
+    RequestLogRollup rollup = rollups.get(List.of(granularity.getValue(), granularity.bucketOf(time), server,
+        RequestLatencyAnalyzer.endpointOf("GET", path), status));
+    Assert.assertNotNull(rollup);
+    return rollup;
+  }
+
+  private static List<Object> key(RequestLogRollup rollup) {
+    return List.of(rollup.getGranularity(), rollup.getBucketStart(), rollup.getServer(), rollup.getEndpoint(),
+        rollup.getStatus());
+  }
+
+  private static RequestLogRollup copy(RequestLogRollup rollup) {
+    RequestLogRollup copy = new RequestLogRollup();
+    copy.setGranularity(rollup.getGranularity());
+    copy.setBucketStart(rollup.getBucketStart());
+    copy.setServer(rollup.getServer());
+    copy.setEndpoint(rollup.getEndpoint());
+    copy.setStatus(rollup.getStatus());
+    copy.setCallCount(rollup.getCallCount());
+    copy.setTotalMillis(rollup.getTotalMillis());
+    copy.setMaxMillis(rollup.getMaxMillis());
+    return copy;
+  }
+}
@@ -0,0 +1,25 @@
+package org.metadatacenter.cedar.monitor.logging;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RequestLatencyAnalyzerTest {
+
+  @Test
+  public void idSegmentsShareAnEndpoint() {
+    Assert.assertEquals("GET /templates/{id}", RequestLatencyAnalyzer.endpointOf("GET",
+        "/templates/https%3A%2F%2Frepo.metadatacenter.org%2Ftemplates%2F1a2b3c4d-0000-1111-2222-333344445555"));
+    Assert.assertEquals("GET /users/{id}/summary",
+        RequestLatencyAnalyzer.endpointOf("GET", "/users/1a2b3c4d-0000-1111-2222-333344445555/summary"));
+    Assert.assertEquals("POST /command/copy-resource-to-folder",
+        RequestLatencyAnalyzer.endpointOf("POST", "/command/copy-resource-to-folder?x=1"));
+    Assert.assertEquals("GET /folders/{id}/contents",
+        RequestLatencyAnalyzer.endpointOf("GET", "/folders/42/contents"));
+  }
+
+  @Test
+  public void missingPartsAreTolerated() {
+    Assert.assertEquals("GET /", RequestLatencyAnalyzer.endpointOf("GET", null));
+    Assert.assertEquals("? /", RequestLatencyAnalyzer.endpointOf(null, "/"));
+  }
+}
@@ -0,0 +1,48 @@
+package org.metadatacenter.cedar.monitor.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.concurrent.CachedSnapshot;
+import org.metadatacenter.cedar.monitor.counts.ResourceCountsCollector;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthSampler;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MonitorMetricsCollectorTest {
+
+  @Test
+  public void scrapeOnlyReadsValuesInMemory() {
+    AtomicInteger loads = new AtomicInteger();
+    CachedSnapshot<Map<String, Object>> counts = new CachedSnapshot<>("counts", () -> {
+      loads.incrementAndGet();
+      Map<String, Object> r = new HashMap<>();
+      r.put(ResourceCountsCollector.NEO4J, Map.of("template", 12L, "user", 3L));
+      r.put(ResourceCountsCollector.MONGO, Map.of("template", 11L));
+      r.put(ResourceCountsCollector.KEYCLOAK, Map.of("user", 4));
+      return r;
+    }, 60_000, Runnable::run);
+    QueueDepthSampler sampler = new QueueDepthSampler(null, null, 1000, 10);
+    MonitorMetricsCollector collector = new MonitorMetricsCollector(sampler, counts, null, 1000);
+
+    String empty = collector.scrape();
+    Assert.assertEquals(0, loads.get());
+    Assert.assertEquals("# TYPE cedar_queue_depth gauge\n"
+        + "# HELP cedar_queue_depth Number of messages waiting in a Redis queue\n"
+        + "# EOF\n", empty);
+
+    sampler.getBuffers().get(RedisTelemetryClient.QUEUE_IDS.get(0)).record(System.currentTimeMillis(), 7);
+    counts.refresh();
+    String text = collector.scrape();
+    Assert.assertEquals(1, loads.get());
+    Assert.assertTrue(text.contains("cedar_queue_depth{queue=\"" + RedisTelemetryClient.QUEUE_IDS.get(0) + "\"} 7\n"));
+    Assert.assertTrue(text.contains("cedar_resource_count{store=\"neo4j\",resource_type=\"user\"} 3\n"));
+    Assert.assertTrue(text.contains("cedar_resource_count{store=\"neo4j\",resource_type=\"template\"} 12\n"));
+    Assert.assertTrue(text.contains("cedar_resource_count{store=\"mongo\",resource_type=\"template\"} 11\n"));
+    Assert.assertTrue(text.contains("cedar_keycloak_users 4\n"));
+    Assert.assertTrue(text.contains("cedar_resource_counts_age_seconds "));
+    Assert.assertTrue(text.endsWith("# EOF\n"));
+  }
+}
@@ -0,0 +1,50 @@
+package org.metadatacenter.cedar.monitor.resources;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class CommandResourceTest {
+
+  @Test
+  public void readLineSplitsOnEveryLineTerminator() throws Exception {
+    Assert.assertEquals(List.of("a", "", "b", "c"), readAll("a\n\r\nb\rc", 10));
+  }
+
+  @Test
+  public void readLineKeepsOneCharacterPastTheMaximum() throws Exception {
+    Assert.assertEquals(List.of("abcd", "abcd", "e"), readAll("abcd\nabcdefgh\ne\n", 3));
+  }
+
+  @Test
+  public void failedLookupsReportTheQueryParametersAndTheLastPhase() {
+    Map<String, Object> response = CommandResource.resolve("https://cedar.metadatacenter.org/dashboard?sort=name&q",
+        false);
+    Assert.assertEquals(false, response.get(CommandResource.SUCCESS));
+    Assert.assertEquals("parameterParsing", response.get(CommandResource.ERROR_PHASE));
+    Map<?, ?> request = (Map<?, ?>) response.get(CommandResource.REQUEST);
+    Assert.assertEquals("/dashboard", request.get(CommandResource.PATH));
+    List<?> parameters = (List<?>) request.get(CommandResource.QUERY_PARAMETERS);
+    Assert.assertEquals(2, parameters.size());
+    Assert.assertEquals(Map.of("name", "sort", "value", "name"), parameters.get(0));
+    Map<?, ?> flag = (Map<?, ?>) parameters.get(1);
+    Assert.assertEquals("q", flag.get("name"));
+    Assert.assertTrue(flag.containsKey("value"));
+    Assert.assertNull(flag.get("value"));
+  }
+
+  private static List<String> readAll(String input, int maxLength) throws Exception {
+    BufferedReader in = new BufferedReader(new StringReader(input));
+    StringBuilder line = new StringBuilder();
+    List<String> lines = new ArrayList<>();
+    while (CommandResource.readLine(in, line, maxLength)) {
+      lines.add(line.toString());
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,74 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis telemetry client that keeps the queue lengths and the monitor state in memory. Every call pays the stand-in
+ * latency once, as the pipelined round-trip of the real client does, and is recorded in the backend metrics.
+ */
+public class InMemoryRedisTelemetryClient extends RedisTelemetryClient {
+
+  private final StandIns standIns;
+  private final BackendMetrics backendMetrics;
+  private final Map<String, Long> lengths = new ConcurrentHashMap<>();
+  private final Map<String, String> state = new ConcurrentHashMap<>();
+
+  public InMemoryRedisTelemetryClient(StandIns standIns, BackendMetrics backendMetrics) {
+    super(null, backendMetrics);
+    this.standIns = standIns;
+    this.backendMetrics = backendMetrics;
+    for (String queueId : QUEUE_IDS) {
+      lengths.put(queueId, 0L);
+    }
+  }
+
+  public void setQueueLength(String queueId, long length) {
+    lengths.put(queueId, length);
+  }
+
+  @Override
+  public void start() {
+  }
+
+  @Override
+  public void stop() {
+  }
+
+  @Override
+  public Map<String, Long> queueLengths() {
+    return backendMetrics.call(BackendMetrics.REDIS, "queueLengths", () -> {
+      standIns.pause();
+      Map<String, Long> r = new LinkedHashMap<>();
+      for (String queueId : QUEUE_IDS) {
+        r.put(queueId, lengths.get(queueId));
+      }
+      return r;
+    });
+  }
+
+  @Override
+  public String readState(String key) {
+    return backendMetrics.call(BackendMetrics.REDIS, "readState", () -> {
+      standIns.pause();
+      return state.get(STATE_KEY_PREFIX + key);
+    });
+  }
+
+  @Override
+  public void writeState(String key, String value) {
+    backendMetrics.run(BackendMetrics.REDIS, "writeState", () -> {
+      standIns.pause();
+      state.put(STATE_KEY_PREFIX + key, value);
+    });
+  }
+
+  @Override
+  public void ping() {
+    backendMetrics.run(BackendMetrics.REDIS, "ping", standIns::pause);
+  }
+}
@@ -0,0 +1,302 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.monitor.concurrent.CachedSnapshot;
+import org.metadatacenter.cedar.monitor.concurrent.DeadlineFanOut;
+import org.metadatacenter.cedar.monitor.config.ResourceCountsConfig;
+import org.metadatacenter.cedar.monitor.config.ResourceInfoConfig;
+import org.metadatacenter.cedar.monitor.counts.OpenSearchCountsReader;
+import org.metadatacenter.cedar.monitor.counts.ResourceCountsCollector;
+import org.metadatacenter.cedar.monitor.counts.UserAccessibleCounts;
+import org.metadatacenter.cedar.monitor.info.FilesystemResourceInfoAssembler;
+import org.metadatacenter.cedar.monitor.keycloak.KeycloakAdminClient;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthRingBuffer;
+import org.metadatacenter.cedar.monitor.redis.QueueDepthSampler;
+import org.metadatacenter.cedar.monitor.redis.RedisTelemetryClient;
+import org.metadatacenter.cedar.monitor.resources.CommandResource;
+import org.metadatacenter.cedar.monitor.resources.RedisQueueCountsResource;
+import org.metadatacenter.cedar.monitor.resources.ResourceCountsResource;
+import org.metadatacenter.cedar.monitor.resources.ResourceInfoTemplate;
+import org.metadatacenter.cedar.monitor.resources.ResourceInfoUser;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.rest.context.CedarRequestContext;
+import org.metadatacenter.server.CategoryServiceSession;
+import org.metadatacenter.server.FolderServiceSession;
+import org.metadatacenter.server.GroupServiceSession;
+import org.metadatacenter.server.ResourcePermissionServiceSession;
+import org.metadatacenter.server.UserServiceSession;
+import org.metadatacenter.server.neo4j.proxy.Neo4JProxies;
+import org.metadatacenter.server.neo4j.proxy.Neo4JProxyFilesystemResource;
+import org.metadatacenter.server.neo4j.proxy.Neo4JProxyGroup;
+import org.metadatacenter.server.neo4j.proxy.Neo4JProxyResource;
+import org.metadatacenter.server.search.elasticsearch.service.NodeSearchingService;
+import org.metadatacenter.server.service.TemplateElementService;
+import org.metadatacenter.server.service.TemplateFieldService;
+import org.metadatacenter.server.service.TemplateInstanceService;
+import org.metadatacenter.server.service.TemplateService;
+import org.metadatacenter.server.service.UserService;
+import org.mockito.MockedStatic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.core.Response;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the monitor endpoint handlers against {@link StandIns} for Neo4j, Mongo, OpenSearch and Keycloak and an
+ * in-memory Redis, each store round-trip taking {@code latencyMicros}. Throughput mode gives requests per second,
+ * sample mode the latency percentiles; add -prof gc for the allocation rate and -t to run concurrent requests. The
+ * handlers are measured up to the response entity, without JSON serialization.
+ *
+ * The module is only built with the benchmarks profile:
+ *
+ * <pre>
+ *   mvn -Pbenchmarks -pl cedar-monitor-server-benchmarks -am package
+ *   java -jar cedar-monitor-server-benchmarks/target/benchmarks.jar MonitorEndpointBenchmark -prof gc -t 8
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonitorEndpointBenchmark {
+
+  static final String USER_ID = "https://metadatacenter.org/users/0b1c2d3e-4f5a-6b7c-8d9e-0f1a2b3c4d5e";
+  static final String TEMPLATE_ID = "https://repo.metadatacenter.org/templates/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5f";
+  static final String LOOKUP_INPUT = "https://cedar.metadatacenter.org/instances/edit/"
+      + "https://repo.metadatacenter.org/template-instances/0f1e2d3c-4b5a-6978-8a9b-acbdcedf0f1e"
+      + "?folderId=https:%2F%2Frepo.metadatacenter.org%2Ffolders%2F11111111-2222-3333-4444-555555555555";
+
+  private static final int QUEUE_HISTORY_CAPACITY = 720;
+  private static final int QUEUE_HISTORY_LIMIT = 60;
+  private static final int QUEUE_AVERAGE_WINDOW = 10;
+  private static final long QUEUE_SAMPLE_INTERVAL_MILLIS = 5000;
+
+  /**
+   * The sessions and proxies the handlers get from {@link CedarDataServices}. Calls returning them only navigate to a
+   * store and pay no latency.
+   */
+  private static final Set<Class<?>> NAVIGATION_TYPES = Set.of(UserServiceSession.class, GroupServiceSession.class,
+      CategoryServiceSession.class, FolderServiceSession.class, ResourcePermissionServiceSession.class,
+      Neo4JProxies.class, Neo4JProxyFilesystemResource.class, Neo4JProxyGroup.class, Neo4JProxyResource.class);
+
+  /**
+   * The handlers and their stand-in backends, shared by all benchmark threads as in the server.
+   */
+  @State(Scope.Benchmark)
+  public static class Endpoints {
+
+    @Param({"0", "250", "2000"})
+    public long latencyMicros;
+
+    StandIns standIns;
+    ExecutorService backendExecutor;
+    ResourceCountsCollector countsCollector;
+    CedarRequestContext context;
+
+    ResourceCountsResource resourceCounts;
+    ResourceInfoUser userInfo;
+    ResourceInfoTemplate templateInfo;
+    RedisQueueCountsResource queueCounts;
+    CommandResource command;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+      standIns = new StandIns(latencyMicros, NAVIGATION_TYPES);
+      backendExecutor = Executors.newCachedThreadPool(this::backendThread);
+
+      MetricRegistry metrics = new MetricRegistry();
+      BackendMetrics backendMetrics = new BackendMetrics(metrics);
+      CedarConfig cedarConfig = standIns.value(CedarConfig.class);
+      context = standIns.value(CedarRequestContext.class);
+      UserService userService = standIns.backend(UserService.class);
+      NodeSearchingService nodeSearchingService = standIns.backend(NodeSearchingService.class);
+      DeadlineFanOut fanOut = new DeadlineFanOut(backendExecutor);
+
+      ResourceInfoUser.injectServices(userService);
+      CommandResource.injectServices(userService, nodeSearchingService);
+
+      KeycloakAdminClient keycloakAdminClient = new StandInKeycloakAdminClient(standIns, metrics, backendMetrics);
+      ObjectMapper mapper = new ObjectMapper();
+      StandInOpenSearchClient openSearchClient = new StandInOpenSearchClient(standIns, mapper);
+      OpenSearchCountsReader openSearchCountsReader = new OpenSearchCountsReader(openSearchClient,
+          nodeSearchingService, backendMetrics);
+      countsCollector = new ResourceCountsCollector(cedarConfig, userService,
+          standIns.backend(TemplateFieldService.class), standIns.backend(TemplateElementService.class),
+          standIns.backend(TemplateService.class), standIns.backend(TemplateInstanceService.class),
+          openSearchCountsReader, keycloakAdminClient, fanOut, new ResourceCountsConfig(), backendMetrics);
+      CachedSnapshot<Map<String, Object>> countsSnapshot = new CachedSnapshot<>("resource-counts",
+          () -> countsCollector.collect(context), Long.MAX_VALUE, backendExecutor);
+      countsSnapshot.get();
+
+      InMemoryRedisTelemetryClient redisTelemetryClient = new InMemoryRedisTelemetryClient(standIns, backendMetrics);
+      QueueDepthSampler queueDepthSampler = new QueueDepthSampler(redisTelemetryClient, null,
+          QUEUE_SAMPLE_INTERVAL_MILLIS, QUEUE_HISTORY_CAPACITY);
+      fillQueueHistory(redisTelemetryClient, queueDepthSampler);
+
+      ResourceInfoConfig resourceInfoConfig = new ResourceInfoConfig();
+      FilesystemResourceInfoAssembler infoAssembler = new FilesystemResourceInfoAssembler(cedarConfig,
+          nodeSearchingService, fanOut, resourceInfoConfig, backendMetrics);
+
+      resourceCounts = new ResourceCountsResource(cedarConfig, countsSnapshot) {
+        @Override
+        protected CedarRequestContext buildRequestContext() {
+          return context;
+        }
+      };
+      UserAccessibleCounts userAccessibleCounts = new UserAccessibleCounts(openSearchClient, backendMetrics);
+      userInfo = new ResourceInfoUser(cedarConfig, keycloakAdminClient, userAccessibleCounts, fanOut,
+          resourceInfoConfig, backendMetrics) {
+        @Override
+        protected CedarRequestContext buildRequestContext() {
+          return context;
+        }
+      };
+      templateInfo = new ResourceInfoTemplate(cedarConfig, infoAssembler) {
+        @Override
+        protected CedarRequestContext buildRequestContext() {
+          return context;
+        }
+      };
+      queueCounts = new RedisQueueCountsResource(cedarConfig, redisTelemetryClient, queueDepthSampler,
+          QUEUE_AVERAGE_WINDOW) {
+        @Override
+        protected CedarRequestContext buildRequestContext() {
+          return context;
+        }
+      };
+      command = new CommandResource(cedarConfig, null, mapper, resourceInfoConfig) {
+        @Override
+        protected CedarRequestContext buildRequestContext() {
+          return context;
+        }
+      };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+      backendExecutor.shutdownNow();
+      backendExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Fan-out sections run on these threads and reach the stores through the static session factories, so each
+     * thread routes them to the stand-ins for as long as it lives.
+     */
+    private Thread backendThread(Runnable worker) {
+      Thread thread = new Thread(() -> {
+        try (MockedStatic<CedarDataServices> ignored = standIns.mockDataServices()) {
+          worker.run();
+        }
+      }, "benchmark-backend");
+      thread.setDaemon(true);
+      return thread;
+    }
+
+    private static void fillQueueHistory(InMemoryRedisTelemetryClient redisTelemetryClient,
+                                         QueueDepthSampler queueDepthSampler) {
+      long start = System.currentTimeMillis() - QUEUE_HISTORY_CAPACITY * QUEUE_SAMPLE_INTERVAL_MILLIS;
+      int queue = 0;
+      for (String queueId : RedisTelemetryClient.QUEUE_IDS) {
+        QueueDepthRingBuffer buffer = queueDepthSampler.getBuffers().get(queueId);
+        for (int i = 0; i < QUEUE_HISTORY_CAPACITY; i++) {
+          buffer.record(start + i * QUEUE_SAMPLE_INTERVAL_MILLIS, (long) queue * 100 + i % 50);
+        }
+        redisTelemetryClient.setQueueLength(queueId, (long) queue * 100);
+        queue++;
+      }
+    }
+  }
+
+  /**
+   * Routes the static session factories to the stand-ins on each benchmark thread.
+   */
+  @State(Scope.Thread)
+  public static class DataServices {
+
+    private MockedStatic<CedarDataServices> dataServices;
+
+    @Setup(Level.Trial)
+    public void setUp(Endpoints endpoints) {
+      dataServices = endpoints.standIns.mockDataServices();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      dataServices.close();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MonitorEndpointBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  /**
+   * GET /resources/counts, served from the cached snapshot.
+   */
+  @Benchmark
+  public Response resourceCounts(Endpoints endpoints, DataServices dataServices) throws CedarException {
+    return endpoints.resourceCounts.queueCounts();
+  }
+
+  /**
+   * The fan-out behind GET /resources/counts when its snapshot has to be recomputed.
+   */
+  @Benchmark
+  public Map<String, Object> resourceCountsCollect(Endpoints endpoints, DataServices dataServices) {
+    return endpoints.countsCollector.collect(endpoints.context);
+  }
+
+  @Benchmark
+  public Response userInfo(Endpoints endpoints, DataServices dataServices) throws CedarException {
+    return endpoints.userInfo.getUserInfo(USER_ID, "detailed", null, null);
+  }
+
+  /**
+   * GET /resource/templates without the report section. The report is built by a static CEDAR utility that the
+   * stand-ins do not reach, so its cost would not be representative.
+   */
+  @Benchmark
+  public Response templateInfo(Endpoints endpoints, DataServices dataServices) throws CedarException {
+    return endpoints.templateInfo.search(TEMPLATE_ID, null, FilesystemResourceInfoAssembler.SECTION_REPORT);
+  }
+
+  @Benchmark
+  public Response queueCounts(Endpoints endpoints, DataServices dataServices) throws CedarException {
+    return endpoints.queueCounts.queueCounts();
+  }
+
+  @Benchmark
+  public Response queueCountsHistory(Endpoints endpoints, DataServices dataServices) throws CedarException {
+    return endpoints.queueCounts.queueCountsHistory(QUEUE_HISTORY_LIMIT);
+  }
+
+  @Benchmark
+  public Response commandLookup(Endpoints endpoints, DataServices dataServices) throws CedarException {
+    return endpoints.command.lookUpResource(LOOKUP_INPUT, false);
+  }
+}
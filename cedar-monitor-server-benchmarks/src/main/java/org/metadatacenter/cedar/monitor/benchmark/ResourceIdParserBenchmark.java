@@ -0,0 +1,115 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import org.metadatacenter.cedar.monitor.command.ResourceIdParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ResourceIdParser} with the exception-driven URL and URI parsing it replaced, over pasted ids and
+ * URLs as they show up in support tickets, well-formed and not. Run with -prof gc to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceIdParserBenchmark {
+
+  private static final String[] VALID = {
+      "https://repo.metadatacenter.org/templates/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5f",
+      "https://cedar.metadatacenter.org/instances/edit/https://repo.metadatacenter.org/template-instances/"
+          + "0f1e2d3c-4b5a-6978-8a9b-acbdcedf0f1e?folderId=https:%2F%2Frepo.metadatacenter.org%2Ffolders%2F"
+          + "11111111-2222-3333-4444-555555555555",
+      "https://cedar.metadatacenter.org/dashboard?folderId=https:%2F%2Frepo.metadatacenter.org%2Ffolders%2F"
+          + "11111111-2222-3333-4444-555555555555",
+      "https://resource.metadatacenter.org/template-fields/https%3A%2F%2Frepo.metadatacenter.org%2Ftemplate-fields"
+          + "%2Fabcdefab-cdef-abcd-efab-cdefabcdefab",
+  };
+
+  private static final String[] MALFORMED = {
+      "",
+      "7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5f",
+      "repo.metadatacenter.org/templates/7a8f6c5e",
+      "https://cedar.metadatacenter.org/dashboard?sort=name&q=%zz",
+      "2024-03-01 12:00:00 ERROR Unable to find https://repo.metadatacenter.org/templates/not-a-uuid in folder",
+      "http://[::1/templates",
+  };
+
+  @Param({"valid", "malformed", "mixed"})
+  public String corpus;
+
+  private String[] inputs;
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ResourceIdParserBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  @Setup
+  public void setUp() {
+    switch (corpus) {
+      case "valid":
+        inputs = VALID;
+        break;
+      case "malformed":
+        inputs = MALFORMED;
+        break;
+      default:
+        inputs = new String[VALID.length + MALFORMED.length];
+        System.arraycopy(VALID, 0, inputs, 0, VALID.length);
+        System.arraycopy(MALFORMED, 0, inputs, VALID.length, MALFORMED.length);
+    }
+  }
+
+  @Benchmark
+  public ResourceIdParser.Result parser(Cursor cursor) {
+    return ResourceIdParser.parse(next(cursor));
+  }
+
+  @Benchmark
+  public void exceptionDriven(Cursor cursor, Blackhole bh) {
+    String input = next(cursor);
+    try {
+      URL url = new URL(input);
+      bh.consume(url.getPath());
+      bh.consume(url.getQuery());
+    } catch (MalformedURLException e) {
+      bh.consume(e.getStackTrace());
+    }
+    try {
+      bh.consume(new URI(input).getRawQuery());
+    } catch (URISyntaxException e) {
+      bh.consume(e.getStackTrace());
+    }
+  }
+
+  private String next(Cursor cursor) {
+    String input = inputs[cursor.next];
+    cursor.next = (cursor.next + 1) % inputs.length;
+    return input;
+  }
+}
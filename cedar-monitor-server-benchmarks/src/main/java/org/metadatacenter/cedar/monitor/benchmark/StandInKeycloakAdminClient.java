@@ -0,0 +1,40 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.metadatacenter.cedar.monitor.keycloak.KeycloakAdminClient;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+
+import java.util.function.Function;
+
+/**
+ * Keycloak admin client that runs every operation against a stand-in realm. The operation pays the stand-in latency
+ * once, as one admin REST call would; navigating the realm resources is free.
+ */
+public class StandInKeycloakAdminClient extends KeycloakAdminClient {
+
+  private final StandIns standIns;
+  private final BackendMetrics backendMetrics;
+
+  public StandInKeycloakAdminClient(StandIns standIns, MetricRegistry metrics, BackendMetrics backendMetrics) {
+    super(null, null, 0, 0, metrics, backendMetrics);
+    this.standIns = standIns;
+    this.backendMetrics = backendMetrics;
+  }
+
+  @Override
+  public void start() {
+  }
+
+  @Override
+  public void stop() {
+  }
+
+  @Override
+  public <T> T call(String operationName, Function<RealmResource, T> operation) {
+    return backendMetrics.call(BackendMetrics.KEYCLOAK, operationName, () -> {
+      standIns.pause();
+      return operation.apply(standIns.value(RealmResource.class));
+    });
+  }
+}
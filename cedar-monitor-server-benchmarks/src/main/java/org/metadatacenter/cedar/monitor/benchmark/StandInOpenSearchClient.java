@@ -0,0 +1,37 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.monitor.opensearch.OpenSearchClient;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * OpenSearch client that answers every request after the stand-in latency, as one REST round-trip would, with an
+ * empty response: no hits, no aggregation buckets and a zero count.
+ */
+public class StandInOpenSearchClient extends OpenSearchClient {
+
+  private final StandIns standIns;
+  private final JsonNode emptyResponse;
+
+  public StandInOpenSearchClient(StandIns standIns, ObjectMapper mapper) {
+    super(null, mapper, URI.create("http://localhost:9200/cedar-search/"), Duration.ofSeconds(1));
+    this.standIns = standIns;
+    this.emptyResponse = mapper.createObjectNode();
+  }
+
+  @Override
+  public JsonNode search(ObjectNode body) {
+    standIns.pause();
+    return emptyResponse;
+  }
+
+  @Override
+  public long count(ObjectNode query) {
+    standIns.pause();
+    return 0;
+  }
+}
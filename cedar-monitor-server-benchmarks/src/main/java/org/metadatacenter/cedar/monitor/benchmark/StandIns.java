@@ -0,0 +1,119 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import org.metadatacenter.bridge.CedarDataServices;
+import org.mockito.MockSettings;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-memory stand-ins for the CEDAR backends. A backend stand-in answers every call that reaches a store after the
+ * configured latency, with an empty value: zero for counts, an empty collection, or a value stand-in for model
+ * objects. Calls that return one of the navigation types, the sessions and proxies that only lead to a store, answer
+ * immediately with another backend stand-in, so the latency is paid once per store round-trip. Answers are computed
+ * once per method and shared, and no invocation is recorded, so the stand-ins add no allocation of their own to the
+ * handler under test.
+ */
+public class StandIns {
+
+  private static final Object NULL = new Object();
+
+  private final long latencyNanos;
+  private final Set<Class<?>> navigationTypes;
+  private final Map<Class<?>, Object> backends = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Object> values = new ConcurrentHashMap<>();
+  private final Map<Method, Object> answers = new ConcurrentHashMap<>();
+  private final Answer<Object> backendAnswer = new StandInAnswer(true);
+  private final Answer<Object> valueAnswer = new StandInAnswer(false);
+
+  public StandIns(long latencyMicros, Set<Class<?>> navigationTypes) {
+    this.latencyNanos = latencyMicros * 1000;
+    this.navigationTypes = Set.copyOf(navigationTypes);
+  }
+
+  /**
+   * Waits for the configured latency. Parks rather than spins, so concurrent callers behave like threads blocked on
+   * a socket.
+   */
+  public void pause() {
+    if (latencyNanos <= 0) {
+      return;
+    }
+    long deadline = System.nanoTime() + latencyNanos;
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T backend(Class<T> type) {
+    return (T) backends.computeIfAbsent(type, t -> Mockito.mock(t, settings(backendAnswer)));
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T value(Class<T> type) {
+    return (T) values.computeIfAbsent(type, t -> Mockito.mock(t, settings(valueAnswer)));
+  }
+
+  /**
+   * Routes the static session and proxy factories to backend stand-ins on the calling thread. Static mocks are
+   * thread-local, so every thread that runs handler code has to open its own and close it when done.
+   */
+  public MockedStatic<CedarDataServices> mockDataServices() {
+    return Mockito.mockStatic(CedarDataServices.class, settings(backendAnswer));
+  }
+
+  private static MockSettings settings(Answer<Object> answer) {
+    return Mockito.withSettings().stubOnly().defaultAnswer(answer);
+  }
+
+  private static boolean isValueStandIn(Class<?> type) {
+    return !type.isPrimitive() && !type.isArray() && !type.isEnum() && !type.getName().startsWith("java.");
+  }
+
+  private class StandInAnswer implements Answer<Object> {
+
+    private final boolean backend;
+
+    StandInAnswer(boolean backend) {
+      this.backend = backend;
+    }
+
+    @Override
+    public Object answer(InvocationOnMock invocation) throws Throwable {
+      Method method = invocation.getMethod();
+      Class<?> type = method.getReturnType();
+      if (navigationTypes.contains(type)) {
+        return backend(type);
+      }
+      if (backend) {
+        pause();
+      }
+      Object answer = answers.get(method);
+      if (answer == null) {
+        answer = emptyValue(invocation, type);
+        answers.putIfAbsent(method, answer);
+      }
+      return answer == NULL ? null : answer;
+    }
+
+    private Object emptyValue(InvocationOnMock invocation, Class<?> type) throws Throwable {
+      if (type == String.class) {
+        return "";
+      }
+      Object empty = Mockito.RETURNS_DEFAULTS.answer(invocation);
+      if (empty != null) {
+        return empty;
+      }
+      return isValueStandIn(type) ? value(type) : NULL;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.metadatacenter.cedar.monitor.benchmark;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.monitor.concurrent.SectionResult;
+import org.metadatacenter.cedar.monitor.counts.ResourceCountsCollector;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs every benchmark once, so a handler change that breaks the harness fails the build rather than the next
+ * benchmark run.
+ */
+public class MonitorEndpointBenchmarkTest {
+
+  private static final int OK = 200;
+
+  private final MonitorEndpointBenchmark benchmark = new MonitorEndpointBenchmark();
+  private MonitorEndpointBenchmark.Endpoints endpoints;
+  private MonitorEndpointBenchmark.DataServices dataServices;
+
+  @Before
+  public void setUp() {
+    endpoints = new MonitorEndpointBenchmark.Endpoints();
+    endpoints.latencyMicros = 0;
+    endpoints.setUp();
+    dataServices = new MonitorEndpointBenchmark.DataServices();
+    dataServices.setUp(endpoints);
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    dataServices.tearDown();
+    endpoints.tearDown();
+  }
+
+  @Test
+  public void handlersAnswer() throws Exception {
+    assertEquals(OK, benchmark.resourceCounts(endpoints, dataServices).getStatus());
+    assertEquals(OK, benchmark.userInfo(endpoints, dataServices).getStatus());
+    assertEquals(OK, benchmark.templateInfo(endpoints, dataServices).getStatus());
+    assertEquals(OK, benchmark.queueCounts(endpoints, dataServices).getStatus());
+    assertEquals(OK, benchmark.queueCountsHistory(endpoints, dataServices).getStatus());
+    assertEquals(OK, benchmark.commandLookup(endpoints, dataServices).getStatus());
+  }
+
+  @Test
+  public void countsReachEveryStore() {
+    Map<String, Object> counts = benchmark.resourceCountsCollect(endpoints, dataServices);
+    @SuppressWarnings("unchecked")
+    Map<String, SectionResult> backends = (Map<String, SectionResult>) counts.get(ResourceCountsCollector.BACKENDS);
+    assertEquals(4, backends.size());
+    for (Map.Entry<String, SectionResult> backend : backends.entrySet()) {
+      assertTrue(backend.getKey() + ": " + backend.getValue().getError(), backend.getValue().isOk());
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package org.metadatacenter.cedar.monitor.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds a CEDAR resource id, such as {@code https://repo.metadatacenter.org/templates/<uuid>}, in a pasted URL or id.
+ * The input is scanned once, first as is and then percent-decoded, without building URL or URI objects and without
+ * throwing on malformed input. Diagnostics are only collected when asked for.
+ */
+public final class ResourceIdParser {
+
+  public static final String SOURCE_INPUT = "inputString";
+  public static final String SOURCE_PATH = "path";
+  public static final String SOURCE_QUERY = "queryString";
+
+  private static final String[] COLLECTIONS = {"template-instances", "template-elements", "template-fields",
+      "templates", "folders", "users", "groups", "categories"};
+
+  private static final int UUID_LENGTH = 36;
+
+  private ResourceIdParser() {
+  }
+
+  public static Result parse(String input) {
+    return parse(input, false);
+  }
+
+  public static Result parse(String input, boolean diagnostics) {
+    List<String> messages = diagnostics ? new ArrayList<>() : null;
+    String s = input == null ? "" : input.trim();
+    int fragmentStart = fragmentStart(s);
+    int queryStart = s.indexOf('?');
+    if (queryStart > fragmentStart) {
+      queryStart = -1;
+    }
+    int pathEnd = queryStart >= 0 ? queryStart : fragmentStart;
+    int pathStart = pathStart(s);
+
+    int[] match = find(s, 0, pathEnd);
+    if (match != null) {
+      String source = match[0] == 0 || pathStart < 0 || match[0] < pathStart ? SOURCE_INPUT : SOURCE_PATH;
+      return new Result(s.substring(match[0], match[1]), source, s, pathStart, pathEnd, queryStart, messages);
+    }
+    note(messages, "No id in the input before the query string");
+
+    String decodedPath = decode(s, 0, pathEnd);
+    if (decodedPath != null) {
+      match = find(decodedPath, 0, decodedPath.length());
+      if (match != null) {
+        return new Result(decodedPath.substring(match[0], match[1]), SOURCE_PATH, s, pathStart, pathEnd, queryStart,
+            messages);
+      }
+      note(messages, "No id in the percent-decoded path");
+    }
+
+    if (queryStart >= 0) {
+      match = find(s, queryStart + 1, fragmentStart);
+      String query = s;
+      if (match == null) {
+        query = decode(s, queryStart + 1, fragmentStart);
+        match = query == null ? null : find(query, 0, query.length());
+      }
+      if (match != null) {
+        return new Result(query.substring(match[0], match[1]), SOURCE_QUERY, s, pathStart, pathEnd, queryStart,
+            messages);
+      }
+      note(messages, "No id in the query string");
+    } else {
+      note(messages, "No query string");
+    }
+    return new Result(null, null, s, pathStart, pathEnd, queryStart, messages);
+  }
+
+  /**
+   * Splits a query string into name and value pairs on '&' and ';', percent-decoding both like the query string is
+   * decoded when looking for an id. A pair without '=' has a null value; empty pairs are skipped.
+   */
+  public static List<String[]> queryParameters(String queryString) {
+    List<String[]> parameters = new ArrayList<>();
+    if (queryString == null) {
+      return parameters;
+    }
+    int start = 0;
+    while (start <= queryString.length()) {
+      int end = start;
+      while (end < queryString.length() && queryString.charAt(end) != '&' && queryString.charAt(end) != ';') {
+        end++;
+      }
+      if (end > start) {
+        int equals = queryString.indexOf('=', start);
+        if (equals < 0 || equals > end) {
+          parameters.add(new String[]{decoded(queryString, start, end), null});
+        } else {
+          parameters.add(new String[]{decoded(queryString, start, equals), decoded(queryString, equals + 1, end)});
+        }
+      }
+      start = end + 1;
+    }
+    return parameters;
+  }
+
+  private static String decoded(String s, int from, int to) {
+    String decoded = decode(s, from, to);
+    return decoded == null ? s.substring(from, to) : decoded;
+  }
+
+  /**
+   * Returns the start and end of the first id in {@code s[from, to)}, or null.
+   */
+  static int[] find(String s, int from, int to) {
+    int i = s.indexOf("://", from);
+    while (i >= 0 && i < to) {
+      int start = i >= from + 5 && s.regionMatches(true, i - 5, "https", 0, 5) ? i - 5 :
+          i >= from + 4 && s.regionMatches(true, i - 4, "http", 0, 4) ? i - 4 : -1;
+      if (start >= 0) {
+        int end = matchAfterScheme(s, i + 3, to);
+        if (end >= 0) {
+          return new int[]{start, end};
+        }
+      }
+      i = s.indexOf("://", i + 3);
+    }
+    return null;
+  }
+
+  /**
+   * Matches {@code host/collection/uuid} at {@code pos} and returns the end of the uuid, or -1.
+   */
+  private static int matchAfterScheme(String s, int pos, int to) {
+    int slash = pos;
+    while (slash < to && isHostChar(s.charAt(slash))) {
+      slash++;
+    }
+    if (slash == pos || slash >= to || s.charAt(slash) != '/') {
+      return -1;
+    }
+    int collectionStart = slash + 1;
+    for (String collection : COLLECTIONS) {
+      int uuidStart = collectionStart + collection.length() + 1;
+      if (uuidStart + UUID_LENGTH <= to && s.startsWith(collection, collectionStart)
+          && s.charAt(uuidStart - 1) == '/' && isUuid(s, uuidStart)) {
+        int end = uuidStart + UUID_LENGTH;
+        if (end == to || !isIdChar(s.charAt(end))) {
+          return end;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isUuid(String s, int start) {
+    for (int k = 0; k < UUID_LENGTH; k++) {
+      char ch = s.charAt(start + k);
+      boolean dash = k == 8 || k == 13 || k == 18 || k == 23;
+      if (dash ? ch != '-' : hexValue(ch) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isHostChar(char ch) {
+    return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '.' || ch == '-'
+        || ch == ':';
+  }
+
+  private static boolean isIdChar(char ch) {
+    return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9' || ch == '-' || ch == '_';
+  }
+
+  /**
+   * Percent-decodes {@code s[from, to)}, also turning '+' into a space. Returns null if there is nothing to decode.
+   * Malformed escapes are kept as they are.
+   */
+  static String decode(String s, int from, int to) {
+    int first = -1;
+    for (int k = from; k < to; k++) {
+      char ch = s.charAt(k);
+      if (ch == '%' || ch == '+') {
+        first = k;
+        break;
+      }
+    }
+    if (first < 0) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder(to - from);
+    sb.append(s, from, first);
+    for (int k = first; k < to; k++) {
+      char ch = s.charAt(k);
+      if (ch == '+') {
+        sb.append(' ');
+      } else if (ch == '%' && hexPair(s, k + 1, to)) {
+        sb.append((char) (hexValue(s.charAt(k + 1)) << 4 | hexValue(s.charAt(k + 2))));
+        k += 2;
+      } else {
+        sb.append(ch);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean hexPair(String s, int pos, int to) {
+    return pos + 1 < to && hexValue(s.charAt(pos)) >= 0 && hexValue(s.charAt(pos + 1)) >= 0;
+  }
+
+  /**
+   * The value of an ASCII hex digit, or -1. Unlike {@link Character#digit(char, int)}, other Unicode digits are not
+   * accepted.
+   */
+  private static int hexValue(char ch) {
+    if (ch >= '0' && ch <= '9') {
+      return ch - '0';
+    }
+    if (ch >= 'a' && ch <= 'f') {
+      return ch - 'a' + 10;
+    }
+    if (ch >= 'A' && ch <= 'F') {
+      return ch - 'A' + 10;
+    }
+    return -1;
+  }
+
+  private static int pathStart(String s) {
+    int scheme = s.indexOf("://");
+    if (scheme < 0) {
+      return -1;
+    }
+    int slash = s.indexOf('/', scheme + 3);
+    return slash < 0 ? s.length() : slash;
+  }
+
+  private static int fragmentStart(String s) {
+    int hash = s.indexOf('#');
+    return hash < 0 ? s.length() : hash;
+  }
+
+  private static void note(List<String> messages, String message) {
+    if (messages != null) {
+      messages.add(message);
+    }
+  }
+
+  public static class Result {
+
+    private final String id;
+    private final String source;
+    private final String path;
+    private final String queryString;
+    private final List<String> diagnostics;
+
+    Result(String id, String source, String input, int pathStart, int pathEnd, int queryStart,
+           List<String> diagnostics) {
+      this.id = id;
+      this.source = source;
+      this.path = pathStart >= 0 && pathStart <= pathEnd ? input.substring(pathStart, pathEnd) : null;
+      this.queryString = queryStart >= 0 ? input.substring(queryStart + 1, fragmentStart(input)) : null;
+      this.diagnostics = diagnostics == null ? null : Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * The id found, percent-decoded if it was encoded, or null.
+     */
+    public String getId() {
+      return id;
+    }
+
+    /**
+     * Where the id was found: {@value #SOURCE_INPUT}, {@value #SOURCE_PATH} or {@value #SOURCE_QUERY}.
+     */
+    public String getSource() {
+      return source;
+    }
+
+    /**
+     * The path of the input, if it is a URL.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    public String getQueryString() {
+      return queryString;
+    }
+
+    /**
+     * What was tried and did not match, or null if diagnostics were not asked for.
+     */
+    public List<String> getDiagnostics() {
+      return diagnostics;
+    }
+  }
+}
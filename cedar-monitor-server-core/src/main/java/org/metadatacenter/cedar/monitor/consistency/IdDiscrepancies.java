@@ -0,0 +1,52 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the ids of one kind of discrepancy and keeps the first few of them as examples.
+ */
+public class IdDiscrepancies {
+
+  private long count;
+  private int maxSamples;
+  private List<String> samples = new ArrayList<>();
+
+  public IdDiscrepancies() {
+  }
+
+  public IdDiscrepancies(int maxSamples) {
+    this.maxSamples = maxSamples;
+  }
+
+  public void add(String id) {
+    count++;
+    if (samples.size() < maxSamples) {
+      samples.add(id);
+    }
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public void setCount(long count) {
+    this.count = count;
+  }
+
+  public int getMaxSamples() {
+    return maxSamples;
+  }
+
+  public void setMaxSamples(int maxSamples) {
+    this.maxSamples = maxSamples;
+  }
+
+  public List<String> getSamples() {
+    return samples;
+  }
+
+  public void setSamples(List<String> samples) {
+    this.samples = samples;
+  }
+}
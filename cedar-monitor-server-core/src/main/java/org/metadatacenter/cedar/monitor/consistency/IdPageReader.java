@@ -0,0 +1,18 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import java.util.List;
+
+/**
+ * Reads ids from a store in ascending order, one page at a time, using the last id of the previous page as the
+ * starting point of the next one.
+ */
+@FunctionalInterface
+public interface IdPageReader {
+
+  /**
+   * @param afterId the ids returned must be strictly greater than this one; {@code null} to start from the first id
+   * @param limit   the maximum number of ids to return
+   * @return the ids in ascending order; fewer than {@code limit} ids means the end has been reached
+   */
+  List<String> read(String afterId, int limit) throws Exception;
+}
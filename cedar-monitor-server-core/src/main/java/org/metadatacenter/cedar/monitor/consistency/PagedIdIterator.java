@@ -0,0 +1,59 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over all ids of an {@link IdPageReader}, holding a single page in memory.
+ */
+public class PagedIdIterator implements Iterator<String> {
+
+  private final IdPageReader reader;
+  private final int pageSize;
+  private String lastId;
+  private List<String> page = List.of();
+  private int position;
+  private boolean exhausted;
+  private long pagesRead;
+
+  public PagedIdIterator(IdPageReader reader, String startAfter, int pageSize) {
+    this.reader = reader;
+    this.lastId = startAfter;
+    this.pageSize = pageSize;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (position < page.size()) {
+      return true;
+    }
+    if (exhausted) {
+      return false;
+    }
+    try {
+      page = reader.read(lastId, pageSize);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to read ids after " + lastId, e);
+    }
+    pagesRead++;
+    position = 0;
+    exhausted = page.size() < pageSize;
+    return !page.isEmpty();
+  }
+
+  @Override
+  public String next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    lastId = page.get(position++);
+    return lastId;
+  }
+
+  public long getPagesRead() {
+    return pagesRead;
+  }
+}
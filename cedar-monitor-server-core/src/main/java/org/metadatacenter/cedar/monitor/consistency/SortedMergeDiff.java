@@ -0,0 +1,84 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Merges ascending id streams from several stores and reports, for every distinct id, which stores contain it. Only
+ * the current head of each stream is held, so memory use does not depend on the number of ids.
+ */
+public class SortedMergeDiff {
+
+  private final List<? extends Iterator<String>> sources;
+  private final String[] heads;
+  private String currentId;
+  private int currentMask;
+
+  public SortedMergeDiff(List<? extends Iterator<String>> sources) {
+    if (sources.size() > Integer.SIZE - 1) {
+      throw new IllegalArgumentException("Too many sources: " + sources.size());
+    }
+    this.sources = sources;
+    this.heads = new String[sources.size()];
+    for (int i = 0; i < heads.length; i++) {
+      heads[i] = advance(i, null);
+    }
+  }
+
+  /**
+   * Moves to the next distinct id.
+   *
+   * @return false once every source is exhausted
+   * @throws IllegalStateException if a source does not return its ids in ascending order
+   */
+  public boolean next() {
+    String min = null;
+    for (String head : heads) {
+      if (head != null && (min == null || head.compareTo(min) < 0)) {
+        min = head;
+      }
+    }
+    if (min == null) {
+      return false;
+    }
+    int mask = 0;
+    for (int i = 0; i < heads.length; i++) {
+      if (min.equals(heads[i])) {
+        mask |= 1 << i;
+        heads[i] = advance(i, min);
+      }
+    }
+    currentId = min;
+    currentMask = mask;
+    return true;
+  }
+
+  private String advance(int source, String previous) {
+    Iterator<String> iterator = sources.get(source);
+    while (iterator.hasNext()) {
+      String id = iterator.next();
+      if (previous == null || id.compareTo(previous) > 0) {
+        return id;
+      }
+      if (id.compareTo(previous) < 0) {
+        throw new IllegalStateException("Source " + source + " is not sorted: " + id + " after " + previous);
+      }
+    }
+    return null;
+  }
+
+  public String getId() {
+    return currentId;
+  }
+
+  /**
+   * @return a bit mask with bit {@code i} set if source {@code i} contains the current id
+   */
+  public int getMask() {
+    return currentMask;
+  }
+
+  public boolean isPresentIn(int source) {
+    return (currentMask & (1 << source)) != 0;
+  }
+}
@@ -0,0 +1,105 @@
+package org.metadatacenter.cedar.monitor.cypher;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a Cypher query to its shape: string and numeric literals become {@code ?}, lists of literals become
+ * {@code [?]}, comments are dropped and whitespace is collapsed. Parameter names and backquoted identifiers are kept,
+ * so two queries share a fingerprint exactly when they differ only in the values they carry.
+ */
+public final class CypherFingerprint {
+
+  private static final Pattern LITERAL_LIST = Pattern.compile("\\[\\s*\\?(\\s*,\\s*\\?)*\\s*]");
+
+  private CypherFingerprint() {
+  }
+
+  public static String of(String query) {
+    if (query == null) {
+      return "";
+    }
+    StringBuilder out = new StringBuilder(query.length());
+    int n = query.length();
+    int i = 0;
+    while (i < n) {
+      char ch = query.charAt(i);
+      if (ch == '\'' || ch == '"') {
+        i = skipQuoted(query, i, ch);
+        out.append('?');
+      } else if (ch == '`') {
+        int end = query.indexOf('`', i + 1);
+        end = end < 0 ? n : end + 1;
+        out.append(query, i, end);
+        i = end;
+      } else if (ch == '/' && i + 1 < n && query.charAt(i + 1) == '/') {
+        int end = query.indexOf('\n', i);
+        i = end < 0 ? n : end;
+      } else if (ch == '/' && i + 1 < n && query.charAt(i + 1) == '*') {
+        int end = query.indexOf("*/", i + 2);
+        i = end < 0 ? n : end + 2;
+        appendSpace(out);
+      } else if (Character.isWhitespace(ch)) {
+        appendSpace(out);
+        i++;
+      } else if (Character.isDigit(ch) && !continuesWord(out)) {
+        i = skipNumber(query, i);
+        out.append('?');
+      } else if (ch == '$' || Character.isLetter(ch) || ch == '_') {
+        int end = i + 1;
+        while (end < n && (Character.isLetterOrDigit(query.charAt(end)) || query.charAt(end) == '_')) {
+          end++;
+        }
+        out.append(query, i, end);
+        i = end;
+      } else {
+        out.append(ch);
+        i++;
+      }
+    }
+    return LITERAL_LIST.matcher(out.toString().trim()).replaceAll("[?]");
+  }
+
+  private static int skipQuoted(String query, int start, char quote) {
+    int i = start + 1;
+    while (i < query.length()) {
+      char ch = query.charAt(i);
+      if (ch == '\\') {
+        i += 2;
+      } else if (ch == quote) {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return query.length();
+  }
+
+  private static int skipNumber(String query, int start) {
+    int i = start;
+    while (i < query.length()) {
+      char ch = query.charAt(i);
+      boolean exponentSign = (ch == '-' || ch == '+') && (query.charAt(i - 1) == 'e' || query.charAt(i - 1) == 'E');
+      boolean decimalPoint = ch == '.' && i + 1 < query.length() && Character.isDigit(query.charAt(i + 1));
+      if (Character.isLetterOrDigit(ch) || exponentSign || decimalPoint) {
+        i++;
+      } else {
+        return i;
+      }
+    }
+    return i;
+  }
+
+  private static boolean continuesWord(StringBuilder out) {
+    if (out.length() == 0) {
+      return false;
+    }
+    char last = out.charAt(out.length() - 1);
+    return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+  }
+
+  private static void appendSpace(StringBuilder out) {
+    if (out.length() > 0 && out.charAt(out.length() - 1) != ' ') {
+      out.append(' ');
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.metadatacenter.cedar.monitor.cypher;
+
+import org.metadatacenter.cedar.monitor.latency.LatencyHistogram;
+
+import java.util.*;
+
+/**
+ * Keeps the query fingerprints with the largest total duration in bounded memory, with the Space-Saving algorithm
+ * weighted by duration. At most {@code capacity} fingerprints are tracked; a new fingerprint arriving when the table
+ * is full replaces the one with the smallest total and inherits that total as its possible overcount. Any fingerprint
+ * whose true total exceeds the grand total divided by the capacity is guaranteed to be tracked.
+ */
+public class FingerprintTopK {
+
+  private final int capacity;
+  private final Map<String, FingerprintStats> byFingerprint = new HashMap<>();
+  private final TreeSet<FingerprintStats> byTotal = new TreeSet<>(Comparator
+      .comparingLong(FingerprintStats::getTotalMillis)
+      .thenComparingLong(s -> s.sequence));
+  private long sequence;
+  private long evictions;
+
+  public FingerprintTopK(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  public void record(String fingerprint, long durationMillis) {
+    FingerprintStats stats = byFingerprint.get(fingerprint);
+    if (stats == null) {
+      long inherited = 0;
+      if (byFingerprint.size() >= capacity) {
+        FingerprintStats evicted = byTotal.pollFirst();
+        byFingerprint.remove(evicted.fingerprint);
+        inherited = evicted.totalMillis;
+        evictions++;
+      }
+      stats = new FingerprintStats(fingerprint, sequence++, inherited);
+      byFingerprint.put(fingerprint, stats);
+    } else {
+      byTotal.remove(stats);
+    }
+    stats.count++;
+    stats.totalMillis += durationMillis;
+    stats.histogram.record(durationMillis);
+    byTotal.add(stats);
+  }
+
+  /**
+   * The tracked fingerprints with the largest total duration, largest first.
+   */
+  public List<FingerprintStats> top(int k) {
+    List<FingerprintStats> top = new ArrayList<>(Math.min(k, byTotal.size()));
+    Iterator<FingerprintStats> iterator = byTotal.descendingIterator();
+    while (iterator.hasNext() && top.size() < k) {
+      top.add(iterator.next());
+    }
+    return top;
+  }
+
+  public int size() {
+    return byFingerprint.size();
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public static class FingerprintStats {
+
+    private final String fingerprint;
+    private final long sequence;
+    private final long overcountMillis;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private long count;
+    private long totalMillis;
+
+    private FingerprintStats(String fingerprint, long sequence, long overcountMillis) {
+      this.fingerprint = fingerprint;
+      this.sequence = sequence;
+      this.overcountMillis = overcountMillis;
+      this.totalMillis = overcountMillis;
+    }
+
+    public String getFingerprint() {
+      return fingerprint;
+    }
+
+    /**
+     * The number of calls since the fingerprint was last admitted to the table.
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * The total duration, including the inherited overcount.
+     */
+    public long getTotalMillis() {
+      return totalMillis;
+    }
+
+    public long getOvercountMillis() {
+      return overcountMillis;
+    }
+
+    public LatencyHistogram getHistogram() {
+      return histogram;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.metadatacenter.cedar.monitor.latency;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of non-negative values, in the manner of HdrHistogram. Values below {@value #SUB_BUCKETS} are
+ * counted exactly; above that, every power of two is split into {@value #HALF_SUB_BUCKETS} equal buckets, so a
+ * reported percentile is within 1/{@value #HALF_SUB_BUCKETS} of the recorded value. Memory grows with the largest
+ * recorded value, not with the number of values. Not thread-safe: a histogram is meant to be filled by one scan.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 7;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+  private long[] counts = new long[SUB_BUCKETS];
+  private long totalCount;
+  private long min = Long.MAX_VALUE;
+  private long max;
+
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Negative value: " + value);
+    }
+    int index = indexOf(value);
+    if (index >= counts.length) {
+      counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length + HALF_SUB_BUCKETS));
+    }
+    counts[index]++;
+    totalCount++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  public void add(LatencyHistogram other) {
+    if (other.totalCount == 0) {
+      return;
+    }
+    if (other.counts.length > counts.length) {
+      counts = Arrays.copyOf(counts, other.counts.length);
+    }
+    for (int i = 0; i < other.counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  public long getMin() {
+    return totalCount == 0 ? 0 : min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * The highest value equivalent to the value at the given percentile, capped at the exact maximum.
+   *
+   * @param percentile between 0 and 100
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return 0;
+    }
+    double clamped = Math.min(Math.max(percentile, 0.0), 100.0);
+    long target = Math.max(1, (long) Math.ceil(clamped / 100.0 * totalCount));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), max);
+      }
+    }
+    return max;
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    // Shift so that the value keeps SUB_BUCKET_BITS significant bits, i.e. lands in [HALF_SUB_BUCKETS, SUB_BUCKETS)
+    int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) ((value >>> shift) - HALF_SUB_BUCKETS);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+    long subBucket = (index - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
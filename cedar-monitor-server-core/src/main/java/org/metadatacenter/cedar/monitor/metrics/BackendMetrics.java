@@ -0,0 +1,87 @@
+package org.metadatacenter.cedar.monitor.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records every call the monitor makes to a backend. Each backend and operation pair gets a latency timer, an error
+ * counter and an in-flight gauge, named {@code backend.<backend>.<operation>.latency}, {@code .errors} and
+ * {@code .inFlight}. This makes it possible to tell which store an endpoint is waiting on.
+ */
+public class BackendMetrics {
+
+  public static final String NEO4J = "neo4j";
+  public static final String MONGO = "mongo";
+  public static final String OPENSEARCH = "opensearch";
+  public static final String KEYCLOAK = "keycloak";
+  public static final String REDIS = "redis";
+
+  private static final String PREFIX = "backend";
+
+  private final MetricRegistry metrics;
+  private final Map<String, Instrument> instruments = new ConcurrentHashMap<>();
+
+  public BackendMetrics(MetricRegistry metrics) {
+    this.metrics = metrics;
+  }
+
+  public <T, E extends Exception> T call(String backend, String operation, BackendCall<T, E> call) throws E {
+    Instrument instrument = instrument(backend, operation);
+    instrument.inFlight.incrementAndGet();
+    Timer.Context context = instrument.latency.time();
+    try {
+      return call.call();
+    } catch (Exception | Error e) {
+      instrument.errors.inc();
+      throw e;
+    } finally {
+      context.stop();
+      instrument.inFlight.decrementAndGet();
+    }
+  }
+
+  public <E extends Exception> void run(String backend, String operation, BackendAction<E> action) throws E {
+    call(backend, operation, () -> {
+      action.run();
+      return null;
+    });
+  }
+
+  private Instrument instrument(String backend, String operation) {
+    Instrument instrument = instruments.get(backend + '.' + operation);
+    if (instrument == null) {
+      instrument = instruments.computeIfAbsent(backend + '.' + operation,
+          key -> new Instrument(MetricRegistry.name(PREFIX, backend, operation)));
+    }
+    return instrument;
+  }
+
+  private class Instrument {
+
+    private final Timer latency;
+    private final Counter errors;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private Instrument(String name) {
+      latency = metrics.timer(MetricRegistry.name(name, "latency"));
+      errors = metrics.counter(MetricRegistry.name(name, "errors"));
+      metrics.gauge(MetricRegistry.name(name, "inFlight"), () -> (Gauge<Integer>) inFlight::get);
+    }
+  }
+
+  @FunctionalInterface
+  public interface BackendCall<T, E extends Exception> {
+    T call() throws E;
+  }
+
+  @FunctionalInterface
+  public interface BackendAction<E extends Exception> {
+    void run() throws E;
+  }
+}
@@ -0,0 +1,84 @@
+package org.metadatacenter.cedar.monitor.metrics;
+
+/**
+ * Writes metrics in the OpenMetrics text format. Each family is declared with {@link #family} and followed by its
+ * samples; {@link #finish()} appends the mandatory end marker.
+ */
+public class OpenMetricsWriter {
+
+  public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  public static final String GAUGE = "gauge";
+
+  private final StringBuilder out = new StringBuilder();
+  private String family;
+
+  public OpenMetricsWriter family(String name, String type, String help) {
+    family = name;
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    out.append("# HELP ").append(name).append(' ');
+    escape(help, false);
+    out.append('\n');
+    return this;
+  }
+
+  /**
+   * Adds a sample to the current family.
+   *
+   * @param labels alternating label names and values
+   */
+  public OpenMetricsWriter sample(double value, String... labels) {
+    if (family == null) {
+      throw new IllegalStateException("No metric family declared");
+    }
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels must be name/value pairs");
+    }
+    out.append(family);
+    if (labels.length > 0) {
+      out.append('{');
+      for (int i = 0; i < labels.length; i += 2) {
+        if (i > 0) {
+          out.append(',');
+        }
+        out.append(labels[i]).append("=\"");
+        escape(labels[i + 1], true);
+        out.append('"');
+      }
+      out.append('}');
+    }
+    out.append(' ').append(format(value)).append('\n');
+    return this;
+  }
+
+  public String finish() {
+    out.append("# EOF\n");
+    return out.toString();
+  }
+
+  private static String format(double value) {
+    if (Double.isNaN(value)) {
+      return "NaN";
+    } else if (Double.isInfinite(value)) {
+      return value > 0 ? "+Inf" : "-Inf";
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  private void escape(String text, boolean quote) {
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      if (ch == '\\') {
+        out.append("\\\\");
+      } else if (ch == '\n') {
+        out.append("\\n");
+      } else if (ch == '"' && quote) {
+        out.append("\\\"");
+      } else {
+        out.append(ch);
+      }
+    }
+  }
+}
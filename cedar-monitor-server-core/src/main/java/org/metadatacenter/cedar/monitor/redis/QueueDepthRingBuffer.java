@@ -0,0 +1,93 @@
+package org.metadatacenter.cedar.monitor.redis;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of (timestamp, depth) samples for one queue. Backed by two primitive arrays, so recording a sample
+ * never allocates. Readers get a consistent copy through {@link #snapshot(int)}.
+ */
+public class QueueDepthRingBuffer {
+
+  private final long[] timestamps;
+  private final long[] depths;
+  private int next;
+  private int size;
+
+  public QueueDepthRingBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.timestamps = new long[capacity];
+    this.depths = new long[capacity];
+  }
+
+  public int capacity() {
+    return depths.length;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized void record(long timestampMillis, long depth) {
+    timestamps[next] = timestampMillis;
+    depths[next] = depth;
+    next = (next + 1) % depths.length;
+    if (size < depths.length) {
+      size++;
+    }
+  }
+
+  /**
+   * Copies the most recent samples, oldest first.
+   *
+   * @param limit maximum number of samples to return
+   */
+  public synchronized Samples snapshot(int limit) {
+    int count = Math.min(Math.max(limit, 0), size);
+    long[] t = new long[count];
+    long[] d = new long[count];
+    int start = next - count;
+    if (start < 0) {
+      start += depths.length;
+    }
+    for (int i = 0; i < count; i++) {
+      int idx = (start + i) % depths.length;
+      t[i] = timestamps[idx];
+      d[i] = depths[idx];
+    }
+    return new Samples(t, d);
+  }
+
+  public static class Samples {
+
+    private final long[] timestamps;
+    private final long[] depths;
+
+    Samples(long[] timestamps, long[] depths) {
+      this.timestamps = timestamps;
+      this.depths = depths;
+    }
+
+    public long[] getTimestamps() {
+      return timestamps;
+    }
+
+    public long[] getDepths() {
+      return depths;
+    }
+
+    public int size() {
+      return depths.length;
+    }
+
+    /**
+     * Returns the newest {@code count} samples of this copy.
+     */
+    public Samples last(int count) {
+      int from = depths.length - Math.min(Math.max(count, 0), depths.length);
+      return new Samples(Arrays.copyOfRange(timestamps, from, timestamps.length),
+          Arrays.copyOfRange(depths, from, depths.length));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package org.metadatacenter.cedar.monitor.redis;
+
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically reads all queue lengths through the {@link RedisTelemetryClient} and records them in one
+ * {@link QueueDepthRingBuffer} per queue. Readers only look at the buffers and never touch Redis.
+ */
+public class QueueDepthSampler implements Managed, Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(QueueDepthSampler.class);
+
+  private final RedisTelemetryClient redisTelemetryClient;
+  private final ScheduledExecutorService scheduler;
+  private final long intervalMillis;
+  private final Map<String, QueueDepthRingBuffer> buffers;
+  private ScheduledFuture<?> task;
+
+  public QueueDepthSampler(RedisTelemetryClient redisTelemetryClient, ScheduledExecutorService scheduler,
+                           long intervalMillis, int capacity) {
+    this.redisTelemetryClient = redisTelemetryClient;
+    this.scheduler = scheduler;
+    this.intervalMillis = intervalMillis;
+    Map<String, QueueDepthRingBuffer> b = new LinkedHashMap<>();
+    for (String queueId : RedisTelemetryClient.QUEUE_IDS) {
+      b.put(queueId, new QueueDepthRingBuffer(capacity));
+    }
+    this.buffers = Collections.unmodifiableMap(b);
+  }
+
+  @Override
+  public void start() {
+    task = scheduler.scheduleWithFixedDelay(this, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (task != null) {
+      task.cancel(false);
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      Map<String, Long> lengths = redisTelemetryClient.queueLengths();
+      long now = System.currentTimeMillis();
+      for (Map.Entry<String, Long> entry : lengths.entrySet()) {
+        QueueDepthRingBuffer buffer = buffers.get(entry.getKey());
+        if (buffer != null && entry.getValue() != null) {
+          buffer.record(now, entry.getValue());
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Error while sampling Redis queue depths", e);
+    }
+  }
+
+  public long getIntervalMillis() {
+    return intervalMillis;
+  }
+
+  public Map<String, QueueDepthRingBuffer> getBuffers() {
+    return buffers;
+  }
+}
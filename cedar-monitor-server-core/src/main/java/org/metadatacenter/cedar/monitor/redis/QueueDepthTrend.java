@@ -0,0 +1,72 @@
+package org.metadatacenter.cedar.monitor.redis;
+
+/**
+ * Trend of a queue derived from its most recent samples. A negative rate means the queue is draining.
+ */
+public class QueueDepthTrend {
+
+  private final long depth;
+  private final double ratePerSecond;
+  private final double movingAverage;
+  private final Double timeToDrainSeconds;
+
+  private QueueDepthTrend(long depth, double ratePerSecond, double movingAverage, Double timeToDrainSeconds) {
+    this.depth = depth;
+    this.ratePerSecond = ratePerSecond;
+    this.movingAverage = movingAverage;
+    this.timeToDrainSeconds = timeToDrainSeconds;
+  }
+
+  /**
+   * Computes the trend over the last {@code window} samples. Returns null if there are no samples at all.
+   */
+  public static QueueDepthTrend of(QueueDepthRingBuffer.Samples samples, int window) {
+    int n = samples.size();
+    if (n == 0) {
+      return null;
+    }
+    long[] t = samples.getTimestamps();
+    long[] d = samples.getDepths();
+    int first = Math.max(0, n - Math.max(window, 1));
+    int last = n - 1;
+
+    long sum = 0;
+    for (int i = first; i <= last; i++) {
+      sum += d[i];
+    }
+    double movingAverage = (double) sum / (last - first + 1);
+
+    double ratePerSecond = 0;
+    long elapsedMillis = t[last] - t[first];
+    if (elapsedMillis > 0) {
+      ratePerSecond = (d[last] - d[first]) * 1000.0 / elapsedMillis;
+    }
+
+    Double timeToDrainSeconds = null;
+    if (d[last] == 0) {
+      timeToDrainSeconds = 0.0;
+    } else if (ratePerSecond < 0) {
+      timeToDrainSeconds = d[last] / -ratePerSecond;
+    }
+    return new QueueDepthTrend(d[last], ratePerSecond, movingAverage, timeToDrainSeconds);
+  }
+
+  public long getDepth() {
+    return depth;
+  }
+
+  public double getRatePerSecond() {
+    return ratePerSecond;
+  }
+
+  public double getMovingAverage() {
+    return movingAverage;
+  }
+
+  /**
+   * Estimated seconds until the queue is empty at the current rate, or null if it is not draining.
+   */
+  public Double getTimeToDrainSeconds() {
+    return timeToDrainSeconds;
+  }
+}
@@ -0,0 +1,135 @@
+package org.metadatacenter.cedar.monitor.redis;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import io.dropwizard.lifecycle.Managed;
+import org.metadatacenter.cedar.monitor.metrics.BackendMetrics;
+import org.metadatacenter.config.CacheServerPersistent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.*;
+
+import static org.metadatacenter.server.queue.util.QueueService.*;
+
+/**
+ * Long-lived Redis client used by the monitor endpoints. Holds a single pool for the persistent cache server and
+ * reads the length of every known queue in one pipelined round-trip. The only keys it writes are the monitor's own
+ * state keys, prefixed with {@value #STATE_KEY_PREFIX}.
+ */
+public class RedisTelemetryClient implements Managed, MetricSet {
+
+  private static final Logger log = LoggerFactory.getLogger(RedisTelemetryClient.class);
+
+  public static final List<String> QUEUE_IDS = List.of(
+      SEARCH_PERMISSION_QUEUE_ID,
+      NCBI_SUBMISSION_QUEUE_ID,
+      APP_LOG_QUEUE_ID,
+      VALUERECOMMENDER_QUEUE_ID,
+      CLONE_INSTANCES_QUEUE_ID
+  );
+
+  public static final String STATE_KEY_PREFIX = "cedar-monitor:";
+
+  private static final int POOL_MAX_TOTAL = 8;
+  private static final int POOL_MAX_IDLE = 4;
+  private static final int POOL_MIN_IDLE = 1;
+  private static final long POOL_MAX_WAIT_MILLIS = 2000;
+
+  private final CacheServerPersistent cacheConfig;
+  private final BackendMetrics backendMetrics;
+  private JedisPool pool;
+
+  public RedisTelemetryClient(CacheServerPersistent cacheConfig, BackendMetrics backendMetrics) {
+    this.cacheConfig = cacheConfig;
+    this.backendMetrics = backendMetrics;
+  }
+
+  @Override
+  public void start() {
+    JedisPoolConfig poolConfig = new JedisPoolConfig();
+    poolConfig.setMaxTotal(POOL_MAX_TOTAL);
+    poolConfig.setMaxIdle(POOL_MAX_IDLE);
+    poolConfig.setMinIdle(POOL_MIN_IDLE);
+    poolConfig.setMaxWaitMillis(POOL_MAX_WAIT_MILLIS);
+    poolConfig.setTestWhileIdle(true);
+    pool = new JedisPool(poolConfig, cacheConfig.getConnection().getHost(), cacheConfig.getConnection().getPort(),
+        cacheConfig.getConnection().getTimeout());
+    log.info("Redis telemetry pool started for {}:{}", cacheConfig.getConnection().getHost(),
+        cacheConfig.getConnection().getPort());
+  }
+
+  @Override
+  public void stop() {
+    if (pool != null) {
+      pool.close();
+      pool = null;
+    }
+  }
+
+  /**
+   * Returns the current length of every queue in {@link #QUEUE_IDS}, keyed by queue id, in declaration order.
+   * All LLEN commands are sent in a single pipeline.
+   */
+  public Map<String, Long> queueLengths() {
+    Map<String, Response<Long>> responses = new LinkedHashMap<>();
+    backendMetrics.run(BackendMetrics.REDIS, "queueLengths", () -> {
+      try (Jedis jedis = pool.getResource()) {
+        Pipeline pipeline = jedis.pipelined();
+        for (String queueId : QUEUE_IDS) {
+          responses.put(queueId, pipeline.llen(cacheConfig.getQueueName(queueId)));
+        }
+        pipeline.sync();
+      }
+    });
+    Map<String, Long> lengths = new LinkedHashMap<>();
+    for (Map.Entry<String, Response<Long>> entry : responses.entrySet()) {
+      lengths.put(entry.getKey(), entry.getValue().get());
+    }
+    return lengths;
+  }
+
+  /**
+   * Returns the monitor state stored under the given key, or null if there is none.
+   */
+  public String readState(String key) {
+    return backendMetrics.call(BackendMetrics.REDIS, "readState", () -> {
+      try (Jedis jedis = pool.getResource()) {
+        return jedis.get(STATE_KEY_PREFIX + key);
+      }
+    });
+  }
+
+  public void writeState(String key, String value) {
+    backendMetrics.run(BackendMetrics.REDIS, "writeState", () -> {
+      try (Jedis jedis = pool.getResource()) {
+        jedis.set(STATE_KEY_PREFIX + key, value);
+      }
+    });
+  }
+
+  public void ping() {
+    backendMetrics.run(BackendMetrics.REDIS, "ping", () -> {
+      try (Jedis jedis = pool.getResource()) {
+        jedis.ping();
+      }
+    });
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    Map<String, Metric> metrics = new HashMap<>();
+    metrics.put("pool.active", (Gauge<Integer>) () -> pool == null ? 0 : pool.getNumActive());
+    metrics.put("pool.idle", (Gauge<Integer>) () -> pool == null ? 0 : pool.getNumIdle());
+    metrics.put("pool.waiters", (Gauge<Integer>) () -> pool == null ? 0 : pool.getNumWaiters());
+    metrics.put("pool.meanBorrowWaitMillis", (Gauge<Long>) () -> pool == null ? 0 : pool.getMeanBorrowWaitTimeMillis());
+    metrics.put("pool.maxBorrowWaitMillis", (Gauge<Long>) () -> pool == null ? 0 : pool.getMaxBorrowWaitTimeMillis());
+    return metrics;
+  }
+}
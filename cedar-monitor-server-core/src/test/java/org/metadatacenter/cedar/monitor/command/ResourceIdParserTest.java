@@ -0,0 +1,75 @@
+package org.metadatacenter.cedar.monitor.command;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ResourceIdParserTest {
+
+  private static final String TEMPLATE_ID =
+      "https://repo.metadatacenter.org/templates/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5f";
+  private static final String FOLDER_ID =
+      "https://repo.metadatacenter.org/folders/0f1e2d3c-4b5a-6978-8a9b-acbdcedf0f1e";
+
+  @Test
+  public void findsIdsInInputPathAndQuery() {
+    ResourceIdParser.Result input = ResourceIdParser.parse("  " + TEMPLATE_ID + "\n");
+    Assert.assertEquals(TEMPLATE_ID, input.getId());
+    Assert.assertEquals(ResourceIdParser.SOURCE_INPUT, input.getSource());
+
+    ResourceIdParser.Result path = ResourceIdParser.parse("https://cedar.metadatacenter.org/templates/edit/"
+        + TEMPLATE_ID + "?folderId=x");
+    Assert.assertEquals(TEMPLATE_ID, path.getId());
+    Assert.assertEquals(ResourceIdParser.SOURCE_PATH, path.getSource());
+    Assert.assertEquals("folderId=x", path.getQueryString());
+
+    ResourceIdParser.Result encodedPath = ResourceIdParser.parse("https://cedar.metadatacenter.org/templates/edit/"
+        + TEMPLATE_ID.replace(":", "%3A").replace("/", "%2F"));
+    Assert.assertEquals(TEMPLATE_ID, encodedPath.getId());
+    Assert.assertEquals(ResourceIdParser.SOURCE_PATH, encodedPath.getSource());
+
+    ResourceIdParser.Result query = ResourceIdParser.parse("https://cedar.metadatacenter.org/dashboard?sort=name"
+        + "&folderId=" + FOLDER_ID.replace(":", "%3A").replace("/", "%2F") + "#top");
+    Assert.assertEquals(FOLDER_ID, query.getId());
+    Assert.assertEquals(ResourceIdParser.SOURCE_QUERY, query.getSource());
+    Assert.assertEquals("/dashboard", query.getPath());
+  }
+
+  @Test
+  public void malformedInputYieldsNoIdAndOptionalDiagnostics() {
+    String[] inputs = {null, "", "%", "%%zz", "https://", "http:///templates/x", "a#b?c",
+        "https://repo.metadatacenter.org/templates/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5",
+        "https://repo.metadatacenter.org/templates/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5fg",
+        "https://repo.metadatacenter.org/pancakes/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5f"};
+    for (String input : inputs) {
+      ResourceIdParser.Result result = ResourceIdParser.parse(input);
+      Assert.assertNull(input, result.getId());
+      Assert.assertNull(result.getDiagnostics());
+    }
+    ResourceIdParser.Result diagnosed = ResourceIdParser.parse("https://cedar.metadatacenter.org/?q=1", true);
+    Assert.assertNull(diagnosed.getSource());
+    Assert.assertFalse(diagnosed.getDiagnostics().isEmpty());
+  }
+
+  @Test
+  public void onlyAsciiHexDigitsCount() {
+    String[] inputs = {"https://repo.metadatacenter.org/templates/7a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5\u0665",
+        "https://repo.metadatacenter.org/templates/\uff17a8f6c5e-1f2b-4c3d-9e8f-0a1b2c3d4e5f"};
+    for (String input : inputs) {
+      Assert.assertNull(input, ResourceIdParser.parse(input).getId());
+    }
+    Assert.assertEquals("%\u0664\u0661", ResourceIdParser.decode("%\u0664\u0661", 0, 3));
+    Assert.assertEquals("A", ResourceIdParser.decode("%41", 0, 3));
+  }
+
+  @Test
+  public void queryParametersAreSplitAndDecoded() {
+    List<String[]> parameters = ResourceIdParser.queryParameters("folderId=https:%2F%2Fx&&flag;q=a+b=c");
+    Assert.assertEquals(3, parameters.size());
+    Assert.assertArrayEquals(new String[]{"folderId", "https://x"}, parameters.get(0));
+    Assert.assertArrayEquals(new String[]{"flag", null}, parameters.get(1));
+    Assert.assertArrayEquals(new String[]{"q", "a b=c"}, parameters.get(2));
+    Assert.assertTrue(ResourceIdParser.queryParameters(null).isEmpty());
+  }
+}
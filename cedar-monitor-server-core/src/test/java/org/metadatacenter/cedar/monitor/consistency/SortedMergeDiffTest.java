@@ -0,0 +1,67 @@
+package org.metadatacenter.cedar.monitor.consistency;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class SortedMergeDiffTest {
+
+  @Test
+  public void reportsWhichSourcesContainEachId() {
+    SortedMergeDiff diff = new SortedMergeDiff(List.of(
+        List.of("a", "b", "d").iterator(),
+        List.of("a", "c", "d").iterator(),
+        List.of("b", "d", "e").iterator()));
+
+    List<String> seen = new ArrayList<>();
+    while (diff.next()) {
+      seen.add(diff.getId() + ":" + diff.getMask());
+    }
+    Assert.assertEquals(List.of("a:3", "b:5", "c:2", "d:7", "e:4"), seen);
+  }
+
+  @Test
+  public void duplicatesWithinASourceAreReportedOnce() {
+    SortedMergeDiff diff = new SortedMergeDiff(List.of(List.of("a", "a", "b").iterator(), List.of("b").iterator()));
+    Assert.assertTrue(diff.next());
+    Assert.assertEquals("a", diff.getId());
+    Assert.assertTrue(diff.next());
+    Assert.assertEquals("b", diff.getId());
+    Assert.assertTrue(diff.isPresentIn(0));
+    Assert.assertTrue(diff.isPresentIn(1));
+    Assert.assertFalse(diff.next());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unsortedSourceIsRejected() {
+    SortedMergeDiff diff = new SortedMergeDiff(List.of(List.of("b", "a").iterator()));
+    while (diff.next()) {
+    }
+  }
+
+  @Test
+  public void pagedIteratorResumesAfterTheLastIdOfEachPage() {
+    List<String> ids = List.of("a", "b", "c", "d", "e");
+    List<String> afterIds = new ArrayList<>();
+    IdPageReader reader = (afterId, limit) -> {
+      afterIds.add(afterId);
+      List<String> page = new ArrayList<>();
+      for (String id : ids) {
+        if ((afterId == null || id.compareTo(afterId) > 0) && page.size() < limit) {
+          page.add(id);
+        }
+      }
+      return page;
+    };
+
+    List<String> read = new ArrayList<>();
+    Iterator<String> iterator = new PagedIdIterator(reader, "a", 2);
+    iterator.forEachRemaining(read::add);
+
+    Assert.assertEquals(List.of("b", "c", "d", "e"), read);
+    Assert.assertEquals(List.of("a", "c", "e"), afterIds);
+  }
+}
@@ -0,0 +1,25 @@
+package org.metadatacenter.cedar.monitor.cypher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CypherFingerprintTest {
+
+  @Test
+  public void literalsAreStripped() {
+    String a = CypherFingerprint.of("MATCH (u:User {`@id`: 'https://metadatacenter.org/users/1'})\n"
+        + "  WHERE u.age > 42 AND u.score < 1.5e-3 RETURN u LIMIT 10");
+    String b = CypherFingerprint.of("MATCH (u:User {`@id`: \"https://metadatacenter.org/users/2\"}) "
+        + "WHERE u.age > 7 AND u.score < 0.25 RETURN u LIMIT 500");
+    Assert.assertEquals("MATCH (u:User {`@id`: ?}) WHERE u.age > ? AND u.score < ? RETURN u LIMIT ?", a);
+    Assert.assertEquals(a, b);
+  }
+
+  @Test
+  public void parametersIdentifiersAndListsAreNormalized() {
+    Assert.assertEquals("MATCH (n) WHERE n.id IN [?] AND n.v2 = $p1 RETURN n",
+        CypherFingerprint.of("MATCH (n) WHERE n.id IN ['a', 'b\\'c', 3] AND n.v2 = $p1 RETURN n"));
+    Assert.assertEquals("MATCH (n) RETURN n", CypherFingerprint.of("MATCH (n) // comment\n/* block */ RETURN n"));
+    Assert.assertEquals("", CypherFingerprint.of(null));
+  }
+}
@@ -0,0 +1,46 @@
+package org.metadatacenter.cedar.monitor.cypher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class FingerprintTopKTest {
+
+  @Test
+  public void heavyFingerprintsSurviveManyRareOnes() {
+    FingerprintTopK topK = new FingerprintTopK(10);
+    for (int i = 0; i < 1000; i++) {
+      topK.record("heavy", 100);
+      topK.record("rare-" + i, 1);
+      if (i % 2 == 0) {
+        topK.record("medium", 50);
+      }
+    }
+    Assert.assertEquals(10, topK.size());
+    Assert.assertTrue(topK.getEvictions() > 0);
+
+    List<FingerprintTopK.FingerprintStats> top = topK.top(2);
+    Assert.assertEquals("heavy", top.get(0).getFingerprint());
+    Assert.assertEquals(1000, top.get(0).getCount());
+    Assert.assertEquals(100_000, top.get(0).getTotalMillis());
+    Assert.assertEquals(0, top.get(0).getOvercountMillis());
+    Assert.assertEquals(100, top.get(0).getHistogram().getValueAtPercentile(99));
+    Assert.assertEquals("medium", top.get(1).getFingerprint());
+    Assert.assertEquals(25_000, top.get(1).getTotalMillis());
+  }
+
+  @Test
+  public void evictedTotalIsInheritedAsOvercount() {
+    FingerprintTopK topK = new FingerprintTopK(2);
+    topK.record("a", 10);
+    topK.record("b", 5);
+    topK.record("c", 1);
+    List<FingerprintTopK.FingerprintStats> top = topK.top(5);
+    Assert.assertEquals(2, top.size());
+    Assert.assertEquals("a", top.get(0).getFingerprint());
+    Assert.assertEquals("c", top.get(1).getFingerprint());
+    Assert.assertEquals(6, top.get(1).getTotalMillis());
+    Assert.assertEquals(5, top.get(1).getOvercountMillis());
+  }
+}
@@ -0,0 +1,66 @@
+package org.metadatacenter.cedar.monitor.latency;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void percentilesAreWithinTheBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long v = 1; v <= 10_000; v++) {
+      histogram.record(v);
+    }
+    Assert.assertEquals(10_000, histogram.getTotalCount());
+    Assert.assertEquals(1, histogram.getMin());
+    Assert.assertEquals(10_000, histogram.getMax());
+    assertClose(5_000, histogram.getValueAtPercentile(50));
+    assertClose(9_500, histogram.getValueAtPercentile(95));
+    assertClose(9_900, histogram.getValueAtPercentile(99));
+    Assert.assertEquals(10_000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long v = 0; v < 100; v++) {
+      histogram.record(v);
+    }
+    Assert.assertEquals(49, histogram.getValueAtPercentile(50));
+    Assert.assertEquals(98, histogram.getValueAtPercentile(99));
+  }
+
+  @Test
+  public void bucketsCoverEveryValueOnce() {
+    for (long v = 0; v < 1_000_000; v++) {
+      int index = LatencyHistogram.indexOf(v);
+      Assert.assertTrue(LatencyHistogram.highestEquivalentValue(index) >= v);
+      if (index > 0) {
+        Assert.assertTrue(LatencyHistogram.highestEquivalentValue(index - 1) < v);
+      }
+    }
+  }
+
+  @Test
+  public void addMergesCountsAndExtremes() {
+    LatencyHistogram fast = new LatencyHistogram();
+    LatencyHistogram slow = new LatencyHistogram();
+    for (int i = 0; i < 90; i++) {
+      fast.record(10);
+    }
+    for (int i = 0; i < 10; i++) {
+      slow.record(60_000);
+    }
+    fast.add(slow);
+    Assert.assertEquals(100, fast.getTotalCount());
+    Assert.assertEquals(10, fast.getValueAtPercentile(90));
+    assertClose(60_000, fast.getValueAtPercentile(91));
+    Assert.assertEquals(60_000, fast.getMax());
+    Assert.assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+  }
+
+  private static void assertClose(long expected, long actual) {
+    Assert.assertTrue("expected ~" + expected + " but was " + actual,
+        Math.abs(actual - expected) <= expected / LatencyHistogram.HALF_SUB_BUCKETS + 1);
+  }
+}
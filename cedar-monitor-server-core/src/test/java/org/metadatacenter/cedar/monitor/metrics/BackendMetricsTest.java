@@ -0,0 +1,35 @@
+package org.metadatacenter.cedar.monitor.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class BackendMetricsTest {
+
+  @Test
+  public void recordsLatencyErrorsAndInFlight() {
+    MetricRegistry registry = new MetricRegistry();
+    BackendMetrics metrics = new BackendMetrics(registry);
+
+    Integer inFlightDuringCall = metrics.call(BackendMetrics.NEO4J, "getUserCount",
+        () -> (Integer) registry.getGauges().get("backend.neo4j.getUserCount.inFlight").getValue());
+    Assert.assertEquals(1, inFlightDuringCall.intValue());
+
+    try {
+      metrics.run(BackendMetrics.NEO4J, "getUserCount", () -> {
+        throw new IOException("down");
+      });
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertEquals("down", e.getMessage());
+    }
+
+    Assert.assertEquals(2, registry.timer("backend.neo4j.getUserCount.latency").getCount());
+    Assert.assertEquals(1, registry.counter("backend.neo4j.getUserCount.errors").getCount());
+    Gauge<?> inFlight = registry.getGauges().get("backend.neo4j.getUserCount.inFlight");
+    Assert.assertEquals(0, inFlight.getValue());
+  }
+}
@@ -0,0 +1,31 @@
+package org.metadatacenter.cedar.monitor.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OpenMetricsWriterTest {
+
+  @Test
+  public void familiesSamplesAndEndMarker() {
+    String text = new OpenMetricsWriter()
+        .family("cedar_queue_depth", OpenMetricsWriter.GAUGE, "Messages waiting in a queue")
+        .sample(12, "queue", "search-permission")
+        .sample(0.5, "queue", "a\"b\\c\nd")
+        .family("cedar_up", OpenMetricsWriter.GAUGE, "Up")
+        .sample(Double.NaN)
+        .finish();
+    Assert.assertEquals("# TYPE cedar_queue_depth gauge\n"
+        + "# HELP cedar_queue_depth Messages waiting in a queue\n"
+        + "cedar_queue_depth{queue=\"search-permission\"} 12\n"
+        + "cedar_queue_depth{queue=\"a\\\"b\\\\c\\nd\"} 0.5\n"
+        + "# TYPE cedar_up gauge\n"
+        + "# HELP cedar_up Up\n"
+        + "cedar_up NaN\n"
+        + "# EOF\n", text);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void sampleRequiresFamily() {
+    new OpenMetricsWriter().sample(1);
+  }
+}
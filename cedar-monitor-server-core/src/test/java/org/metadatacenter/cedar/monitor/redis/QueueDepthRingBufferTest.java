@@ -0,0 +1,50 @@
+package org.metadatacenter.cedar.monitor.redis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueueDepthRingBufferTest {
+
+  @Test
+  public void snapshotReturnsNewestSamplesOldestFirst() {
+    QueueDepthRingBuffer buffer = new QueueDepthRingBuffer(3);
+    for (int i = 1; i <= 5; i++) {
+      buffer.record(i * 1000L, i * 10L);
+    }
+    Assert.assertEquals(3, buffer.size());
+
+    QueueDepthRingBuffer.Samples samples = buffer.snapshot(10);
+    Assert.assertArrayEquals(new long[]{3000, 4000, 5000}, samples.getTimestamps());
+    Assert.assertArrayEquals(new long[]{30, 40, 50}, samples.getDepths());
+
+    Assert.assertArrayEquals(new long[]{40, 50}, buffer.snapshot(2).getDepths());
+    Assert.assertArrayEquals(new long[]{50}, samples.last(1).getDepths());
+    Assert.assertEquals(0, buffer.snapshot(-1).size());
+  }
+
+  @Test
+  public void trendOfDrainingQueue() {
+    QueueDepthRingBuffer buffer = new QueueDepthRingBuffer(10);
+    buffer.record(0, 100);
+    buffer.record(10_000, 80);
+    buffer.record(20_000, 60);
+
+    QueueDepthTrend trend = QueueDepthTrend.of(buffer.snapshot(10), 3);
+    Assert.assertEquals(60, trend.getDepth());
+    Assert.assertEquals(-2.0, trend.getRatePerSecond(), 1e-9);
+    Assert.assertEquals(80.0, trend.getMovingAverage(), 1e-9);
+    Assert.assertEquals(30.0, trend.getTimeToDrainSeconds(), 1e-9);
+  }
+
+  @Test
+  public void trendOfGrowingQueueHasNoDrainEstimate() {
+    QueueDepthRingBuffer buffer = new QueueDepthRingBuffer(10);
+    buffer.record(0, 5);
+    buffer.record(1_000, 7);
+
+    QueueDepthTrend trend = QueueDepthTrend.of(buffer.snapshot(10), 5);
+    Assert.assertEquals(2.0, trend.getRatePerSecond(), 1e-9);
+    Assert.assertNull(trend.getTimeToDrainSeconds());
+    Assert.assertNull(QueueDepthTrend.of(new QueueDepthRingBuffer(2).snapshot(2), 5));
+  }
+}